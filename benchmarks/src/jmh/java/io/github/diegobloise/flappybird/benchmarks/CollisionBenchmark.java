@@ -0,0 +1,54 @@
+package io.github.diegobloise.flappybird.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.diegobloise.flappybird.sim.GapFollowerPolicy;
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Cost of testing the bird against the pipes in play, with as many pipes as
+ * the game really has on screen. The game uses the swept test, the discrete
+ * one is kept for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+
+    @Param({ "1", "2", "3" })
+    public int pipes;
+
+    private GameWorld world;
+
+    @Setup
+    public void setUp() {
+        world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 1);
+        FlapPolicy policy = new GapFollowerPolicy(1, 0);
+        while (world.getPipeCount() != pipes || !world.isPlaying()) {
+            world.step(policy.shouldFlap(world));
+            if (world.isGameOver()) {
+                throw new IllegalStateException("Bot died before reaching " + pipes + " pipes");
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean birdHittingPipe() {
+        return world.isBirdHittingPipe();
+    }
+
+    @Benchmark
+    public float pipeImpactTime() {
+        return world.getPipeImpactTime();
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.diegobloise.flappybird.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@link BitmapFont} with digit and letter metrics close to the game font
+ * but no texture, so text layout can be measured without a GL context.
+ */
+final class HeadlessFont {
+
+    private static final String CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ:/ ()";
+
+    private HeadlessFont() {
+    }
+
+    static BitmapFont create() {
+        BitmapFontData data = new BitmapFontData();
+        data.lineHeight = 26;
+        data.capHeight = 17;
+        data.spaceXadvance = 13;
+
+        // Pages are only used for drawing, an empty region is enough to build the font
+        BitmapFont font = new BitmapFont(data, Array.with(new TextureRegion()), false);
+
+        for (int i = 0; i < CHARACTERS.length(); i++) {
+            Glyph glyph = new Glyph();
+            glyph.id = CHARACTERS.charAt(i);
+            glyph.width = 12;
+            glyph.height = 17;
+            glyph.xadvance = 13;
+            data.setGlyph(glyph.id, glyph);
+        }
+        return font;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.diegobloise.flappybird.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.diegobloise.flappybird.profiling.Histogram;
+
+/**
+ * Cost the always-on frame profiler adds per recorded value, and of the
+ * percentile lookups the debug overlay does every frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistogramBenchmark {
+
+    private Histogram histogram;
+    private long value;
+
+    @Setup
+    public void setUp() {
+        histogram = new Histogram(10_000_000_000L);
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(1_000_000 + i * 317L);
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        // Frame times between 0 and about 16 ms
+        value = (value + 7_919) & 0xFFFFFF;
+        histogram.record(value);
+    }
+
+    @Benchmark
+    public long percentile99() {
+        return histogram.getValueAtPercentile(99);
+    }
+}
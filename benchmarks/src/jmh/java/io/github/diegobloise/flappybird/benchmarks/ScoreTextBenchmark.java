@@ -0,0 +1,54 @@
+package io.github.diegobloise.flappybird.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+import io.github.diegobloise.flappybird.ui.ScoreText;
+
+/**
+ * Cost of laying out the score text every frame, the old way with a new
+ * layout per frame and the current way through {@link ScoreText}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoreTextBenchmark {
+
+    @Param({ "7", "42", "1337" })
+    public int score;
+
+    private BitmapFont font;
+    private ScoreText scoreText;
+    private NullBatch batch;
+
+    @Setup
+    public void setUp() {
+        font = HeadlessFont.create();
+        scoreText = new ScoreText(font);
+        batch = new NullBatch();
+    }
+
+    @Benchmark
+    public GlyphLayout newLayoutPerFrame() {
+        GlyphLayout scoreText = new GlyphLayout();
+        scoreText.setText(font, Integer.toString(score));
+        return scoreText;
+    }
+
+    @Benchmark
+    public long cachedDigits() {
+        scoreText.draw(batch, score, 72, 226);
+        return batch.vertices;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.diegobloise.flappybird.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.Swarm;
+
+/**
+ * Cost of one swarm tick, for every bird at once. Divide by the size for
+ * the cost per bird.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SwarmBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int birds;
+
+    private Swarm swarm;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        swarm = new Swarm(birds, GameWorld.DEFAULT_TICK_RATE, 1);
+    }
+
+    @Benchmark
+    public Swarm step() {
+        // Dead birds cost as much as live ones, restarting only keeps the course moving
+        if (swarm.getAliveCount() == 0) {
+            swarm.reset(++seed);
+        }
+        swarm.step();
+        return swarm;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.diegobloise.flappybird.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.diegobloise.flappybird.sim.GapFollowerPolicy;
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Cost of simulating the game, one tick at a time and one pipe at a time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WorldBenchmark {
+
+    // Ticks between two pipe spawns at the default tick rate
+    private static final int TICKS_PER_PIPE = (int) (GameWorld.HORIZONTAL_PIPE_GAP / -GameWorld.GAME_SPEED
+            * GameWorld.DEFAULT_TICK_RATE);
+
+    private GameWorld world;
+    private FlapPolicy policy;
+
+    @Setup
+    public void setUp() {
+        world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 1);
+        policy = new GapFollowerPolicy(1, 0);
+    }
+
+    @Benchmark
+    public GameWorld tick() {
+        step();
+        return world;
+    }
+
+    /**
+     * Enough ticks for one pipe to spawn and one to leave the screen, the
+     * score is the time per pipe, not per tick.
+     */
+    @Benchmark
+    public GameWorld pipeSpawnDespawn() {
+        for (int i = 0; i < TICKS_PER_PIPE; i++) {
+            step();
+        }
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld reset() {
+        world.reset(world.getSeed() + 1);
+        return world;
+    }
+
+    private void step() {
+        world.step(policy.shouldFlap(world));
+        if (world.isGameOver()) {
+            world.reset(world.getSeed() + 1);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package io.github.diegobloise.flappybird;
+
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoaderParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import io.github.diegobloise.flappybird.profiling.ResourceTracker;
+
+/**
+ * Central registry for every sprite and sound used by the game.
+ *
+ * All sprites are packed into one {@link TextureAtlas} at build time by the
+ * packTextures task, so the whole scene is drawn from a single texture. The
+ * sprite constants are region names, the file names in assets/sprites
+ * without extension.
+ *
+ * Screens {@link #acquire} the handles they need once and {@link #release}
+ * them when disposed. Handles are reference counted by the underlying
+ * {@link AssetManager}, so an asset shared by two screens is only unloaded
+ * when the last one lets go. Entities only {@link #get} handles that are
+ * already loaded and never touch the disk or the GPU themselves.
+ *
+ * Assets needed later are {@link #load queued} instead and loaded a few
+ * milliseconds per frame by {@link #update}, so nothing blocks the render
+ * thread for longer than a frame.
+ *
+ * Every texture, sound and font the manager holds is reported to a
+ * {@link ResourceTracker}, along with the line that first asked for it.
+ */
+public class Assets implements Disposable {
+
+    public static final String ATLAS = "atlas/sprites.atlas";
+
+    // Loaded on its own so the loading screen can show it before the atlas is in
+    public static final String BOOT_SPLASH_TEXTURE = "sprites/boot_splash.png";
+
+    // Key of the generated game font, rasterized from FONT_FILE and cached by CachedFontLoader
+    public static final String FONT = "font/nokiafc22-24.ttf";
+    public static final String FONT_FILE = "font/nokiafc22.ttf";
+
+    public static final String BACKGROUND_DAY = "background_day";
+    public static final String BACKGROUND_NIGHT = "background_night";
+    public static final String BIRD_1 = "bird_1";
+    public static final String BIRD_2 = "bird_2";
+    public static final String BIRD_3 = "bird_3";
+    public static final String BOOT_SPLASH = "boot_splash";
+    public static final String BTN_HIGHSCORES = "btn_highscores";
+    public static final String BTN_PLAY = "btn_play";
+    public static final String BTN_RATE = "btn_rate";
+    public static final String GAME_OVER = "game_over";
+    public static final String GET_READY = "get_ready";
+    public static final String GROUND = "ground";
+    public static final String NEW_HIGHSCORE = "new_highscore";
+    public static final String PIPE_GREEN = "pipe_green";
+    public static final String PIPE_RED = "pipe_red";
+    public static final String SCORE = "score";
+    public static final String TAP = "tap";
+
+    public static final String SFX_DIE = "audio/sfx_die.wav";
+    public static final String SFX_HIT = "audio/sfx_hit.wav";
+    public static final String SFX_POINT = "audio/sfx_point.wav";
+    public static final String SFX_WING = "audio/sfx_wing.wav";
+
+    public static final String[] BACKGROUNDS = { BACKGROUND_DAY, BACKGROUND_NIGHT };
+    public static final String[] BIRDS = { BIRD_1, BIRD_2, BIRD_3 };
+    public static final String[] PIPES = { PIPE_GREEN, PIPE_RED };
+
+    private final AssetManager manager;
+    private final ResourceTracker resources;
+
+    // Where each asset was first asked for, and the assets handed to the tracker
+    private final ObjectMap<String, Throwable> requestSites = new ObjectMap<>();
+    private final ObjectMap<String, Object> tracked = new ObjectMap<>();
+    private int trackedLoadedAssets;
+
+    private int loadCount;
+
+    public Assets(ResourceTracker resources) {
+        FileHandleResolver resolver = new InternalFileHandleResolver();
+        manager = new AssetManager(resolver);
+        manager.setLoader(BitmapFont.class, ".ttf", new CachedFontLoader(resolver));
+
+        this.resources = resources;
+        resources.addHelperClass(Assets.class);
+    }
+
+    /**
+     * Takes a reference to the given asset, loading it synchronously if this
+     * is the first reference. An asset still queued by {@link #load} is
+     * finished first.
+     */
+    public <T> T acquire(String fileName, Class<T> type) {
+        if (manager.isLoaded(fileName, type)) {
+            manager.setReferenceCount(fileName, manager.getReferenceCount(fileName) + 1);
+            return manager.get(fileName, type);
+        }
+        T asset;
+        if (manager.contains(fileName, type)) {
+            asset = manager.finishLoadingAsset(fileName);
+            manager.setReferenceCount(fileName, manager.getReferenceCount(fileName) + 1);
+        } else {
+            load(fileName, type);
+            asset = manager.finishLoadingAsset(fileName);
+        }
+        track();
+        return asset;
+    }
+
+    /**
+     * Queues the given asset to be loaded by {@link #update}. Takes a
+     * reference like {@link #acquire}, that must be released the same way.
+     */
+    public <T> void load(String fileName, Class<T> type) {
+        load(fileName, type, null);
+    }
+
+    public <T> void load(String fileName, Class<T> type, AssetLoaderParameters<T> parameters) {
+        if (!manager.contains(fileName, type)) {
+            loadCount++;
+            requestSites.put(fileName, new Throwable());
+        }
+        manager.load(fileName, type, parameters);
+    }
+
+    public void loadSounds(String... fileNames) {
+        for (String fileName : fileNames) {
+            load(fileName, Sound.class);
+        }
+    }
+
+    /**
+     * Queues the game font. It comes from the font cache, FreeType only runs
+     * on the first launch or after the font or its parameters change.
+     */
+    public void loadFont() {
+        FreeTypeFontLoaderParameter parameters = new FreeTypeFontLoaderParameter();
+        parameters.fontFileName = FONT_FILE;
+        parameters.fontParameters.size = 24;
+        parameters.fontParameters.borderWidth = 1;
+        parameters.fontParameters.borderColor = Color.BLACK;
+        parameters.fontParameters.mono = true;
+        load(FONT, BitmapFont.class, parameters);
+    }
+
+    /**
+     * Loads queued assets for about {@code millis} milliseconds. Files are
+     * read on a background thread, only the GPU uploads and the font
+     * rasterization run here.
+     *
+     * @return true once everything queued is loaded
+     */
+    public boolean update(int millis) {
+        boolean loaded = manager.update(millis);
+        track();
+        return loaded;
+    }
+
+    /**
+     * Fraction of the queued assets loaded so far, 1 when nothing is queued.
+     */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    public TextureAtlas acquireAtlas() {
+        return acquire(ATLAS, TextureAtlas.class);
+    }
+
+    public void acquireSounds(String... fileNames) {
+        for (String fileName : fileNames) {
+            acquire(fileName, Sound.class);
+        }
+    }
+
+    /**
+     * Drops a reference taken with {@link #acquire}. The asset is disposed when
+     * no references are left.
+     */
+    public void release(String... fileNames) {
+        for (String fileName : fileNames) {
+            manager.unload(fileName);
+        }
+        track();
+    }
+
+    /**
+     * Borrows an already acquired asset. Never loads anything.
+     */
+    public <T> T get(String fileName, Class<T> type) {
+        return manager.get(fileName, type);
+    }
+
+    /**
+     * Looks up a sprite in the acquired atlas. Meant for construction time,
+     * the lookup is a linear search.
+     */
+    public AtlasRegion region(String name) {
+        AtlasRegion region = get(ATLAS, TextureAtlas.class).findRegion(name);
+        if (region == null) {
+            throw new IllegalArgumentException("No sprite named " + name + " in " + ATLAS);
+        }
+        return region;
+    }
+
+    public Sound sound(String fileName) {
+        return get(fileName, Sound.class);
+    }
+
+    /**
+     * Number of assets actually read from disk since startup. Stays constant
+     * during play once every screen has acquired its assets.
+     */
+    public int getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Hands newly loaded assets to the tracker and takes back the unloaded
+     * ones. Only rescans when the number of loaded assets changed, which is
+     * never the case during play.
+     */
+    private void track() {
+        if (manager.getLoadedAssets() == trackedLoadedAssets) {
+            return;
+        }
+        trackedLoadedAssets = manager.getLoadedAssets();
+
+        Array<String> names = manager.getAssetNames();
+        for (String name : names) {
+            if (tracked.containsKey(name)) {
+                continue;
+            }
+            // Atlases hold no native memory of their own, their pages are textures
+            Object asset = manager.get(name);
+            Throwable site = requestSites.remove(name);
+            if (asset instanceof Texture) {
+                resources.add(asset, ResourceTracker.TEXTURE, textureBytes((Texture) asset), name, site(site));
+            } else if (asset instanceof Sound) {
+                long size = manager.getFileHandleResolver().resolve(name).length();
+                resources.add(asset, ResourceTracker.SOUND, size, name, site(site));
+            } else if (asset instanceof BitmapFont) {
+                long size = 0;
+                for (TextureRegion region : ((BitmapFont) asset).getRegions()) {
+                    size += textureBytes(region.getTexture());
+                }
+                resources.add(asset, ResourceTracker.FONT, size, name, site(site));
+            } else {
+                continue;
+            }
+            tracked.put(name, asset);
+        }
+
+        for (ObjectMap.Entries<String, Object> entries = tracked.entries(); entries.hasNext();) {
+            ObjectMap.Entry<String, Object> entry = entries.next();
+            if (!manager.isLoaded(entry.key)) {
+                resources.remove(entry.value);
+                entries.remove();
+            }
+        }
+    }
+
+    // Dependencies, like the atlas page, were never asked for by anyone
+    private static Throwable site(Throwable requestSite) {
+        return requestSite != null ? requestSite : new Throwable();
+    }
+
+    private static long textureBytes(Texture texture) {
+        int bytesPerPixel;
+        switch (texture.getTextureData().getFormat()) {
+            case Alpha:
+            case Intensity:
+                bytesPerPixel = 1;
+                break;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                bytesPerPixel = 2;
+                break;
+            case RGB888:
+                bytesPerPixel = 3;
+                break;
+            default:
+                bytesPerPixel = 4;
+        }
+        long size = (long) texture.getWidth() * texture.getHeight() * bytesPerPixel;
+        // A full mipmap chain adds a third
+        return texture.getTextureData().useMipMaps() ? size * 4 / 3 : size;
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+        track();
+    }
+}
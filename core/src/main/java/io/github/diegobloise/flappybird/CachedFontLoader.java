@@ -0,0 +1,241 @@
+package io.github.diegobloise.flappybird;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoaderParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Loads a FreeType font from a cache of pre-rasterized pages in local
+ * storage, and only runs FreeType when the cache is missing or stale.
+ *
+ * Each font asset has a directory holding an AngelCode .fnt file plus PNG
+ * pages, named after checksums of the TTF bytes and of every
+ * {@link FreeTypeFontParameter} field that changes the output. A changed font
+ * or parameter is a new name, so it is regenerated once and the old entry
+ * deleted. The .fnt ends with a metrics line, so line height, ascent and the
+ * like come back exactly as FreeType computed them.
+ *
+ * Generation and cache reads both run on the loader thread. Only the texture
+ * upload is left for the render thread, and the FreeType natives aren't
+ * loaded at all on a cache hit.
+ */
+public class CachedFontLoader extends AsynchronousAssetLoader<BitmapFont, FreeTypeFontLoaderParameter> {
+
+    // Bumped whenever the files written change, so old entries are regenerated
+    private static final int VERSION = 1;
+
+    private static final String CACHE_DIR = "fontcache/";
+
+    private static final int PAGE_SIZE = 512;
+
+    private BitmapFontData data;
+    private Pixmap[] pages;
+
+    public CachedFontLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file,
+            FreeTypeFontLoaderParameter parameter) {
+        if (parameter == null) {
+            throw new GdxRuntimeException("FreeTypeFontLoaderParameter must point at a TTF file: " + fileName);
+        }
+        long start = TimeUtils.nanoTime();
+        FileHandle fontFile = resolve(parameter.fontFileName);
+        FreeTypeFontParameter fontParameters = parameter.fontParameters;
+        FileHandle fntFile = Gdx.files.local(CACHE_DIR + file.nameWithoutExtension())
+                .child(key(fontFile, fontParameters) + ".fnt");
+
+        boolean hit = fntFile.exists() && read(fntFile, fontParameters.flip);
+        if (!hit) {
+            generate(fontFile, fontParameters, fntFile);
+            if (!read(fntFile, fontParameters.flip)) {
+                throw new GdxRuntimeException("Could not read back " + fntFile);
+            }
+        }
+        Gdx.app.log("Assets", "Font cache " + (hit ? "hit " : "miss ") + fntFile.name() + " in "
+                + TimeUtils.timeSinceNanos(start) / 1000 + " us");
+    }
+
+    @Override
+    public BitmapFont loadSync(AssetManager manager, String fileName, FileHandle file,
+            FreeTypeFontLoaderParameter parameter) {
+        FreeTypeFontParameter fontParameters = parameter.fontParameters;
+        Array<TextureRegion> regions = new Array<>(pages.length);
+        for (Pixmap page : pages) {
+            Texture texture = new Texture(page, fontParameters.genMipMaps);
+            texture.setFilter(fontParameters.minFilter, fontParameters.magFilter);
+            regions.add(new TextureRegion(texture));
+            page.dispose();
+        }
+        BitmapFont font = new BitmapFont(data, regions, true);
+        font.setOwnsTexture(true);
+
+        data = null;
+        pages = null;
+        return font;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file,
+            FreeTypeFontLoaderParameter parameter) {
+        return null;
+    }
+
+    // Reads an entry into data and pages, false if it is missing or broken
+    private boolean read(FileHandle fntFile, boolean flip) {
+        try {
+            BitmapFontData fontData = new BitmapFontData(fntFile, flip);
+            Pixmap[] pixmaps = new Pixmap[fontData.imagePaths.length];
+            for (int i = 0; i < pixmaps.length; i++) {
+                pixmaps[i] = new Pixmap(Gdx.files.local(fontData.imagePaths[i]));
+            }
+            data = fontData;
+            pages = pixmaps;
+            return true;
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("Assets", "Dropping broken font cache " + fntFile, e);
+            return false;
+        }
+    }
+
+    private void generate(FileHandle fontFile, FreeTypeFontParameter fontParameters, FileHandle fntFile) {
+        // Whatever is left in the font's directory is stale
+        fntFile.parent().emptyDirectory();
+
+        // A packer of our own keeps the pages as pixmaps, no texture is made here
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false);
+        packer.setTransparentColor(fontParameters.borderWidth > 0 ? fontParameters.borderColor : fontParameters.color);
+        packer.getTransparentColor().a = 0;
+
+        PixmapPacker ownPacker = fontParameters.packer;
+        fontParameters.packer = packer;
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontFile);
+        try {
+            BitmapFontData fontData = generator.generateData(fontParameters);
+
+            String name = fntFile.nameWithoutExtension();
+            Array<PixmapPacker.Page> packerPages = packer.getPages();
+            String[] pageFiles = new String[packerPages.size];
+            for (int i = 0; i < pageFiles.length; i++) {
+                pageFiles[i] = name + '-' + i + ".png";
+                PixmapIO.writePNG(fntFile.sibling(pageFiles[i]), packerPages.get(i).getPixmap());
+            }
+
+            // The .fnt goes last and in one move, its presence marks a complete entry
+            FileHandle partFile = fntFile.sibling(name + ".part");
+            try (Writer writer = partFile.writer(false, "UTF-8")) {
+                writeFnt(writer, fontData, pageFiles);
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Could not write " + partFile, e);
+            }
+            partFile.moveTo(fntFile);
+        } finally {
+            generator.dispose();
+            packer.dispose();
+            fontParameters.packer = ownPacker;
+        }
+    }
+
+    private static void writeFnt(Writer writer, BitmapFontData data, String[] pageFiles) throws IOException {
+        writer.write("info face=\"" + data.name + "\" padding=" + (int) data.padTop + ',' + (int) data.padRight
+                + ',' + (int) data.padBottom + ',' + (int) data.padLeft + " spacing=0,0\n");
+        writer.write("common lineHeight=" + (int) data.lineHeight + " base=" + (int) (data.capHeight + data.ascent)
+                + " scaleW=" + PAGE_SIZE + " scaleH=" + PAGE_SIZE + " pages=" + pageFiles.length + " packed=0\n");
+        for (int i = 0; i < pageFiles.length; i++) {
+            writer.write("page id=" + i + " file=\"" + pageFiles[i] + "\"\n");
+        }
+
+        Array<Glyph> glyphs = new Array<>();
+        for (Glyph[] page : data.glyphs) {
+            if (page == null) {
+                continue;
+            }
+            for (Glyph glyph : page) {
+                if (glyph != null) {
+                    glyphs.add(glyph);
+                }
+            }
+        }
+        if (data.missingGlyph != null && !glyphs.contains(data.missingGlyph, true)) {
+            glyphs.add(data.missingGlyph);
+        }
+
+        writer.write("chars count=" + glyphs.size + '\n');
+        for (Glyph glyph : glyphs) {
+            // The reader turns the file's top-down offset back into this one
+            int yoffset = data.flipped ? glyph.yoffset : -(glyph.height + glyph.yoffset);
+            writer.write("char id=" + glyph.id + " x=" + glyph.srcX + " y=" + glyph.srcY + " width="
+                    + glyph.width + " height=" + glyph.height + " xoffset=" + glyph.xoffset + " yoffset="
+                    + yoffset + " xadvance=" + glyph.xadvance + " page=" + glyph.page + " chnl=0\n");
+        }
+
+        // Always written, the reader only looks for metrics after a kernings block
+        StringBuilder kernings = new StringBuilder();
+        int kerningCount = 0;
+        for (int i = 0; i < glyphs.size; i++) {
+            Glyph first = glyphs.get(i);
+            for (int j = 0; j < glyphs.size; j++) {
+                Glyph second = glyphs.get(j);
+                int amount = first.getKerning((char) second.id);
+                if (amount != 0) {
+                    kernings.append("kerning first=").append(first.id).append(" second=").append(second.id)
+                            .append(" amount=").append(amount).append('\n');
+                    kerningCount++;
+                }
+            }
+        }
+        writer.write("kernings count=" + kerningCount + '\n');
+        writer.write(kernings.toString());
+
+        writer.write("metrics ascent=" + data.ascent + " descent=" + data.descent + " down=" + data.down
+                + " capHeight=" + data.capHeight + " lineHeight=" + data.lineHeight + " spaceXAdvance="
+                + data.spaceXadvance + " xHeight=" + data.xHeight + '\n');
+    }
+
+    // Checksums of the font bytes and of every parameter that changes the glyphs. Not
+    // a MessageDigest, setting up the security providers costs more than a cache hit
+    private static String key(FileHandle fontFile, FreeTypeFontParameter p) {
+        String parameters = VERSION + " " + p.size + ' ' + p.mono + ' ' + p.hinting + ' ' + p.color + ' '
+                + p.gamma + ' ' + p.renderCount + ' ' + p.borderWidth + ' ' + p.borderColor + ' '
+                + p.borderStraight + ' ' + p.borderGamma + ' ' + p.shadowOffsetX + ' ' + p.shadowOffsetY + ' '
+                + p.shadowColor + ' ' + p.spaceX + ' ' + p.spaceY + ' ' + p.padTop + ' ' + p.padLeft + ' '
+                + p.padBottom + ' ' + p.padRight + ' ' + p.kerning + ' ' + p.flip + ' ' + p.characters;
+
+        CRC32 checksum = new CRC32();
+        checksum.update(fontFile.readBytes());
+        long fontHash = checksum.getValue();
+        checksum.reset();
+        try {
+            checksum.update(parameters.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new GdxRuntimeException(e);
+        }
+        String key = Long.toHexString(fontHash << 32 | checksum.getValue());
+        return "0000000000000000".substring(key.length()) + key;
+    }
+}
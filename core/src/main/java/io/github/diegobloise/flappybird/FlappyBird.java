@@ -1,15 +1,25 @@
 package io.github.diegobloise.flappybird;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
+import io.github.diegobloise.flappybird.profiling.FrameProfiler;
+import io.github.diegobloise.flappybird.profiling.GcTimer;
+import io.github.diegobloise.flappybird.profiling.ResourceTracker;
+import io.github.diegobloise.flappybird.scores.ScoreStore;
+import io.github.diegobloise.flappybird.screens.GameScreen;
+import io.github.diegobloise.flappybird.screens.LoadingScreen;
 import io.github.diegobloise.flappybird.screens.MainMenuScreen;
+import io.github.diegobloise.flappybird.screens.SwarmScreen;
+import io.github.diegobloise.flappybird.world.Swarm;
 
 /**
  * {@link com.badlogic.gdx.ApplicationListener} implementation shared by all
@@ -20,31 +30,61 @@ public class FlappyBird extends Game {
     public final int SCREEN_WIDTH = 144;
     public final int SCREEN_HEIGHT = 256;
 
+    // Sprites per flush, the most a SpriteBatch can index, so a whole swarm takes a couple of render calls
+    private static final int BATCH_SIZE = 8191;
+
+    // Simulation ticks per second, independent from the display refresh rate
+    public int tickRate = 120;
+
+    // Set by the launcher, null where the platform can't measure GC time
+    public GcTimer gcTimer;
+
+    // Local file the frame profile is written to on exit, CSV or .json
+    public String profileReport;
+
+    // Replay file to play when the game starts, and the speed multiplier of replays
+    public String replayFile;
+    public float replaySpeed = 1;
+
+    // Seconds of play kept to rewind through with the arrow keys
+    public int rewindSeconds = 10;
+
+    // Local file every finished run is logged to
+    public String scoreLog = "scores/scores.log";
+
+    // Birds flying at once in swarm mode
+    public int swarmSize = Swarm.DEFAULT_SIZE;
+
     public SpriteBatch batch;
+    // Set by the loading screen once generated, owned by the assets
     public BitmapFont font;
     public FitViewport viewport;
+    public Assets assets;
+    public FrameProfiler profiler;
+    public GLProfiler glProfiler;
+    public ResourceTracker resources;
+    // Null if the score log can't be opened, the game is then played without one
+    public ScoreStore scores;
+
+    // Created once and switched between, never rebuilt
+    public MainMenuScreen mainMenuScreen;
+    public GameScreen gameScreen;
+    // Built the first time swarm mode is opened
+    public SwarmScreen swarmScreen;
 
     public void create() {
-        batch = new SpriteBatch();
+        resources = new ResourceTracker();
+        batch = new SpriteBatch(BATCH_SIZE);
+        resources.add(batch, ResourceTracker.RENDERER, ResourceTracker.spriteBatchBytes(BATCH_SIZE), "batch");
+        assets = new Assets(resources);
+        profiler = new FrameProfiler(gcTimer);
+        glProfiler = new GLProfiler(Gdx.graphics);
         viewport = new FitViewport(SCREEN_WIDTH, SCREEN_HEIGHT);
+        scores = openScores();
 
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("font/nokiafc22.ttf"));
-        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
-
-        parameter.size = 24;
-        parameter.borderWidth = 1;
-        parameter.borderColor = Color.BLACK;
-        parameter.mono = true;
+        assets.loadFont();
 
-        font = generator.generateFont(parameter);
-
-        generator.dispose();
-
-        font.setUseIntegerPositions(false);
-        // font.getData().setScale(viewport.getWorldHeight() /
-        // Gdx.graphics.getHeight());
-
-        this.setScreen(new MainMenuScreen(this));
+        this.setScreen(new LoadingScreen(this));
     }
 
     public void render() {
@@ -53,7 +93,64 @@ public class FlappyBird extends Game {
 
     public void dispose() {
         batch.dispose();
-        font.dispose();
-        screen.dispose();
+        resources.remove(batch);
+        // The loading screen disposes itself once done
+        if (mainMenuScreen == null) {
+            screen.dispose();
+        } else {
+            mainMenuScreen.dispose();
+        }
+        if (gameScreen != null) {
+            gameScreen.dispose();
+        }
+        if (swarmScreen != null) {
+            swarmScreen.dispose();
+        }
+        assets.dispose();
+        closeScores();
+
+        Gdx.app.log("FrameProfiler", profiler.toString());
+        // Everything must be disposed by now, what is left leaked
+        if (resources.getTotalCount() > 0) {
+            Gdx.app.error("ResourceTracker", "Leaked at exit:\n" + resources);
+        } else {
+            Gdx.app.log("ResourceTracker", "No leaks, peak usage:\n" + resources);
+        }
+        if (profileReport != null) {
+            writeProfileReport();
+        }
+    }
+
+    private ScoreStore openScores() {
+        File file = Gdx.files.local(scoreLog).file();
+        try {
+            return new ScoreStore(file);
+        } catch (IOException e) {
+            Gdx.app.error("ScoreStore", "Could not open " + file, e);
+            return null;
+        }
+    }
+
+    private void closeScores() {
+        if (scores == null) {
+            return;
+        }
+        try {
+            scores.close();
+        } catch (IOException e) {
+            Gdx.app.error("ScoreStore", "Could not close the score log", e);
+        }
+    }
+
+    private void writeProfileReport() {
+        try (Writer writer = Gdx.files.local(profileReport).writer(false)) {
+            if (profileReport.endsWith(".json")) {
+                profiler.writeJson(writer);
+            } else {
+                profiler.writeCsv(writer);
+            }
+        } catch (IOException e) {
+            Gdx.app.error("FrameProfiler", "Could not write " + profileReport, e);
+        }
     }
 }
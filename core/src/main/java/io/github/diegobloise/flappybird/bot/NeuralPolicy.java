@@ -0,0 +1,159 @@
+package io.github.diegobloise.flappybird.bot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Flaps when a small feed-forward network says so. The network sees the
+ * bird's height and velocity and the distance and height of the next pipe
+ * gap, feeds them through one tanh hidden layer and flaps if its single
+ * output is positive.
+ *
+ * The weights, the genome, are evolved by the trainer in the sim module and
+ * saved with {@link #write}. The binary format is the magic "FBNN", a version
+ * byte, the hidden layer size as a byte, then every weight as a big endian
+ * float.
+ *
+ * Deciding allocates nothing, and {@link #setWeights} swaps the genome in
+ * place, so one instance can evaluate any number of genomes.
+ */
+public class NeuralPolicy implements FlapPolicy {
+
+    public static final int INPUTS = 4;
+    public static final int DEFAULT_HIDDEN = 8;
+
+    private static final int MAGIC = 0x46424E4E; // "FBNN"
+    private static final int VERSION = 1;
+
+    private final int hidden;
+    private final float[] weights;
+    private final float[] inputs = new float[INPUTS];
+    private final float[] activations;
+
+    public NeuralPolicy(int hidden) {
+        this.hidden = hidden;
+        this.weights = new float[weightCount(hidden)];
+        this.activations = new float[hidden];
+    }
+
+    public NeuralPolicy(int hidden, float[] weights) {
+        this(hidden);
+        setWeights(weights);
+    }
+
+    /**
+     * Weights of a network with the given hidden layer size, every neuron
+     * with a bias.
+     */
+    public static int weightCount(int hidden) {
+        return (INPUTS + 1) * hidden + hidden + 1;
+    }
+
+    /**
+     * Copies a genome of {@link #weightCount} weights in.
+     */
+    public void setWeights(float[] weights) {
+        if (weights.length != this.weights.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + this.weights.length + " weights, got " + weights.length);
+        }
+        System.arraycopy(weights, 0, this.weights, 0, weights.length);
+    }
+
+    public float[] getWeights() {
+        return weights;
+    }
+
+    public int getHidden() {
+        return hidden;
+    }
+
+    @Override
+    public boolean shouldFlap(GameWorld world) {
+        // The first flap starts the game
+        if (!world.isPlaying()) {
+            return true;
+        }
+
+        observe(world, inputs, 0);
+        return evaluate(inputs) > 0;
+    }
+
+    /**
+     * Writes the {@link #INPUTS} values the network sees into {@code into},
+     * from {@code offset} on: the bird's height and velocity, and how far and
+     * how high the next gap is, all scaled to about -1 to 1.
+     */
+    public static void observe(GameWorld world, float[] into, int offset) {
+        int next = world.getNextPipe();
+        float birdCenter = world.getBirdY() + GameWorld.BIRD_HEIGHT / 2f;
+        into[offset] = birdCenter / GameWorld.HEIGHT;
+        into[offset + 1] = world.getBirdVelocity() / GameWorld.FLAP_FORCE;
+        into[offset + 2] = (world.getPipeX(next) + GameWorld.PIPE_WIDTH - GameWorld.BIRD_X) / GameWorld.WIDTH;
+        into[offset + 3] = (world.getPipeGapY(next) - birdCenter) / GameWorld.VERTICAL_PIPE_GAP;
+    }
+
+    /**
+     * Runs the network on {@link #INPUTS} values.
+     */
+    public float evaluate(float[] inputs) {
+        int w = 0;
+        for (int j = 0; j < hidden; j++) {
+            float sum = weights[w++];
+            for (int i = 0; i < INPUTS; i++) {
+                sum += weights[w++] * inputs[i];
+            }
+            activations[j] = tanh(sum);
+        }
+        float output = weights[w++];
+        for (int j = 0; j < hidden; j++) {
+            output += weights[w++] * activations[j];
+        }
+        return output;
+    }
+
+    // Rational approximation, close enough for a policy and far cheaper than Math.tanh
+    private static float tanh(float x) {
+        if (x <= -3) {
+            return -1;
+        }
+        if (x >= 3) {
+            return 1;
+        }
+        float x2 = x * x;
+        return x * (27 + x2) / (27 + 9 * x2);
+    }
+
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(hidden);
+        for (float weight : weights) {
+            data.writeFloat(weight);
+        }
+        data.flush();
+    }
+
+    public static NeuralPolicy read(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a policy genome");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported genome version " + version);
+        }
+        NeuralPolicy policy = new NeuralPolicy(data.readUnsignedByte());
+        for (int i = 0; i < policy.weights.length; i++) {
+            policy.weights[i] = data.readFloat();
+        }
+        return policy;
+    }
+}
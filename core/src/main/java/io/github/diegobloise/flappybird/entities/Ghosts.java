@@ -0,0 +1,270 @@
+package io.github.diegobloise.flappybird.entities;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import io.github.diegobloise.flappybird.Assets;
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.replay.GhostPlayer;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
+
+/**
+ * Draws the ghosts of a race, earlier runs on the course of the live one,
+ * as translucent birds.
+ *
+ * A ghost is a {@link GhostPlayer} streaming its track, not a {@link Bird}
+ * with animations and a sprite of its own. All of them share one set of
+ * flapping frames and are drawn from the atlas in the same pass as the
+ * pipes, so a hundred ghosts add no texture switch and no render call.
+ *
+ * Listing a course's tracks and reading their headers is left to a loader
+ * thread, a race shows its ghosts from the first frame after they are
+ * open. The players belong to the loader until then, and to the render
+ * thread from then until the next {@link #open} or {@link #close}.
+ */
+public class Ghosts {
+
+    final FlappyBird game;
+
+    public static final int MAX_GHOSTS = 128;
+    public static final String EXTENSION = "fbg";
+
+    private static final int QUANTITY_OF_FRAMES = 4;
+    private static final float FRAME_DURATION = 0.1f;
+    private static final float GHOST_ALPHA = 0.35f;
+
+    // Rotation follows the velocity, like in swarm mode
+    private static final float ROTATION_PER_VELOCITY = 30 / GameWorld.FLAP_FORCE;
+    private static final float MIN_ROTATION = -70;
+    private static final float MAX_ROTATION = 30;
+
+    // Best first, by the score the recorder puts in front of the file name
+    private static final Comparator<FileHandle> BEST_FIRST = new Comparator<FileHandle>() {
+        @Override
+        public int compare(FileHandle a, FileHandle b) {
+            return Integer.compare(scoreOf(b), scoreOf(a));
+        }
+    };
+
+    private final GhostPlayer[] players = new GhostPlayer[MAX_GHOSTS];
+    private int count;
+    private int tickRate;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Ghost loader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    // Counts the opens and closes, a load that finishes after the next one was asked for is not shown
+    private int generation;
+    // A race's ghosts are open or being opened
+    private boolean opened;
+    // The ones being opened aren't shown yet
+    private boolean loading;
+    // Written by the loader, the count first so it is seen along with its generation
+    private volatile int loadedCount;
+    private volatile int loadedGeneration;
+
+    private final TextureRegion[] frames;
+    private final float originX;
+    private final float originY;
+    private final Color color = new Color(1, 1, 1, GHOST_ALPHA);
+
+    public Ghosts(FlappyBird game) {
+        this.game = game;
+
+        TextureRegion birdSheet = game.assets.region(Assets.BIRDS[0]);
+        frames = birdSheet.split(birdSheet.getRegionWidth() / QUANTITY_OF_FRAMES, birdSheet.getRegionHeight())[0];
+        // Same pivot as the Bird sprite
+        originX = frames[0].getRegionWidth() / 2f + 2;
+        originY = frames[0].getRegionHeight() / 2f;
+
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new GhostPlayer();
+        }
+    }
+
+    /**
+     * Starts opening the best tracks in a directory for a race on their
+     * course, closing the ghosts of the race before. Tracks of another
+     * course or tick rate are left out, they would fly off the course.
+     */
+    public void open(final FileHandle directory, final long seed, final int tickRate) {
+        this.tickRate = tickRate;
+        count = 0;
+        opened = true;
+        loading = true;
+        final int opening = ++generation;
+        loader.execute(new Runnable() {
+            @Override
+            public void run() {
+                closeAll();
+                loadedCount = load(directory, seed, tickRate);
+                loadedGeneration = opening;
+            }
+        });
+    }
+
+    /**
+     * Closes the ghosts of the race, on the loader thread.
+     */
+    public void close() {
+        if (!opened) {
+            return;
+        }
+        count = 0;
+        opened = false;
+        loading = false;
+        final int closing = ++generation;
+        loader.execute(new Runnable() {
+            @Override
+            public void run() {
+                closeAll();
+                loadedCount = 0;
+                loadedGeneration = closing;
+            }
+        });
+    }
+
+    /**
+     * Closes the ghosts and waits for the loader to finish.
+     */
+    public void dispose() {
+        close();
+        loader.shutdown();
+        try {
+            loader.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // On the loader thread, the number of tracks opened
+    private int load(FileHandle directory, long seed, int tickRate) {
+        FileHandle[] files = directory.list(EXTENSION);
+        Arrays.sort(files, BEST_FIRST);
+        int loaded = 0;
+        for (int i = 0; i < files.length && loaded < MAX_GHOSTS; i++) {
+            GhostPlayer player = players[loaded];
+            try {
+                player.open(files[i].read());
+                if (player.getSeed() == seed && player.getTickRate() == tickRate) {
+                    loaded++;
+                } else {
+                    player.close();
+                }
+            } catch (IOException | GdxRuntimeException e) {
+                Gdx.app.error("Ghosts", "Could not read " + files[i], e);
+                closeQuietly(player);
+            }
+        }
+        return loaded;
+    }
+
+    // On the loader thread, closes what the last load opened
+    private void closeAll() {
+        for (GhostPlayer player : players) {
+            closeQuietly(player);
+        }
+    }
+
+    private static void closeQuietly(GhostPlayer player) {
+        try {
+            player.close();
+        } catch (IOException e) {
+            Gdx.app.error("Ghosts", "Could not close a track", e);
+        }
+    }
+
+    /**
+     * Decodes every ghost up to the play tick of the snapshot. A ghost whose
+     * track can't be read any more drops out of the race.
+     */
+    public void update(WorldSnapshot snapshot) {
+        if (loading && loadedGeneration == generation) {
+            count = loadedCount;
+            loading = false;
+        }
+        int playTick = snapshot.getPlayTicks();
+        for (int i = 0; i < count; i++) {
+            try {
+                players[i].advance(playTick);
+            } catch (IOException e) {
+                Gdx.app.error("Ghosts", "Could not read a track", e);
+                closeQuietly(players[i]);
+                GhostPlayer dropped = players[i];
+                players[i] = players[count - 1];
+                players[count - 1] = dropped;
+                count--;
+                i--;
+            }
+        }
+    }
+
+    /**
+     * Draws the ghosts still flying between their last two heights.
+     *
+     * @param alpha how far the current frame is into the next tick, 0 to 1
+     */
+    public void draw(WorldSnapshot snapshot, float alpha) {
+        int playTick = snapshot.getPlayTicks();
+        TextureRegion region = frames[(int) (snapshot.getAnimationTime() / FRAME_DURATION) % QUANTITY_OF_FRAMES];
+        float width = region.getRegionWidth();
+        float height = region.getRegionHeight();
+
+        game.batch.setColor(color);
+        for (int i = 0; i < count; i++) {
+            GhostPlayer player = players[i];
+            if (player.isFinished(playTick)) {
+                continue;
+            }
+            float y = player.getY();
+            float previousY = player.getPreviousY();
+            float rotation = Math.min(Math.max((y - previousY) * tickRate * ROTATION_PER_VELOCITY, MIN_ROTATION),
+                    MAX_ROTATION);
+            game.batch.draw(region, GameWorld.BIRD_X, previousY + (y - previousY) * alpha, originX, originY,
+                    width, height, 1, 1, rotation);
+        }
+        game.batch.setColor(Color.WHITE);
+    }
+
+    /**
+     * Ghosts in the race, crashed ones included.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * File name of a track, best ones sort first.
+     */
+    public static String fileName(int score, long time) {
+        return score + "-" + time + "." + EXTENSION;
+    }
+
+    private static int scoreOf(FileHandle file) {
+        String name = file.name();
+        int dash = name.indexOf('-');
+        try {
+            return Integer.parseInt(dash < 0 ? name : name.substring(0, dash));
+        } catch (NumberFormatException e) {
+            // Other players' tracks may be named anything, they go last
+            return -1;
+        }
+    }
+}
@@ -1,47 +1,43 @@
 package io.github.diegobloise.flappybird.entities;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 
+import io.github.diegobloise.flappybird.Assets;
 import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
 
+/**
+ * Draws the scrolling ground of a {@link GameWorld}.
+ */
 public class Ground {
     final FlappyBird game;
 
-    private Texture groundTexture;
+    private TextureRegion groundRegion;
     private Sprite groundSprite;
 
-    private Rectangle groundRectangle;
-
     public Ground(FlappyBird game) {
         this.game = game;
-        groundTexture = new Texture("sprites/ground.png");
-        groundSprite = new Sprite(groundTexture);
-        groundRectangle = new Rectangle(0, 0, groundTexture.getWidth(), groundTexture.getHeight());
-    }
-
-    public void dispose() {
-        groundTexture.dispose();
+        groundRegion = game.assets.region(Assets.GROUND);
+        groundSprite = new Sprite(groundRegion);
     }
 
-    public void draw() {
-        groundSprite.draw(game.batch);
+    /**
+     * Moves the ground back to the start for the next run, keeping the sprite.
+     */
+    public void reset() {
+        groundSprite.setX(0);
     }
 
-    public void playAnimation(float gameSpeed, float deltaTime) {
-        groundSprite.translateX(gameSpeed * deltaTime);
-        if (groundSprite.getX() + groundSprite.getWidth() < game.viewport.getWorldWidth()) {
-            groundSprite.setX(0);
-        }
+    public void draw(WorldSnapshot snapshot, float alpha) {
+        draw(MathUtils.lerp(snapshot.getPreviousGroundX(), snapshot.getGroundX(), alpha));
     }
 
-    public Rectangle getGroundRectangle() {
-        return groundRectangle;
-    }
-
-    public void setGroundRectangle(Rectangle groundRectangle) {
-        this.groundRectangle = groundRectangle;
+    public void draw(float x) {
+        groundSprite.setX(x);
+        groundSprite.draw(game.batch);
     }
 
     public Sprite getGroundSprite() {
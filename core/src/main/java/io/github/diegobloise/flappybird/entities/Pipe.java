@@ -1,130 +1,72 @@
 package io.github.diegobloise.flappybird.entities;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
 
+import io.github.diegobloise.flappybird.Assets;
 import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
 
+/**
+ * Draws every pipe of a {@link GameWorld} with a single pair of sprites.
+ */
 public class Pipe {
-    private final int VERTICAL_PIPE_GAP = 27;
 
     final FlappyBird game;
 
-    private final float minPipesHeight;
-    private final float maxPipesHeight;
-
-    private List<Texture> pipeTextures;
-    private Texture pipeTexture;
+    private TextureRegion[] pipeRegions;
 
     private Sprite topSprite;
     private Sprite bottomSprite;
 
-    private Rectangle topRectangle;
-    private Rectangle bottomRectangle;
-
-    private Rectangle scoreRectangle;
-
     public Pipe(FlappyBird game) {
         this.game = game;
 
-        pipeTextures = new ArrayList<>();
-        pipeTextures.add(new Texture(Gdx.files.internal("sprites/pipe_green.png")));
-        pipeTextures.add(new Texture(Gdx.files.internal("sprites/pipe_red.png")));
-        pipeTexture = pipeTextures.get(MathUtils.random(pipeTextures.size() - 1));
-
-        minPipesHeight = (game.viewport.getWorldHeight() / 2) - 20;
-        maxPipesHeight = (game.viewport.getWorldHeight() / 2) + 70;
-
-        topSprite = new Sprite(pipeTexture);
-        bottomSprite = new Sprite(pipeTexture);
-
-        float randomPosition = MathUtils.random(minPipesHeight, maxPipesHeight);
-        Vector2 pipePosition = new Vector2(game.viewport.getWorldWidth(), randomPosition);
-
-        // Create Top pipe
-        topSprite.setBounds(pipePosition.x, pipePosition.y + VERTICAL_PIPE_GAP, pipeTexture.getWidth(),
-                pipeTexture.getHeight());
-        topSprite.setFlip(false, true);
-        topRectangle = new Rectangle(pipePosition.x, pipePosition.y + VERTICAL_PIPE_GAP, pipeTexture.getWidth(),
-                pipeTexture.getHeight());
-
-        // Create Bottom pipe
-        bottomSprite.setBounds(pipePosition.x, pipePosition.y - pipeTexture.getHeight() - VERTICAL_PIPE_GAP,
-                pipeTexture.getWidth(),
-                pipeTexture.getHeight());
-        bottomRectangle = new Rectangle(pipePosition.x, pipePosition.y - pipeTexture.getHeight() - VERTICAL_PIPE_GAP,
-                pipeTexture.getWidth(),
-                pipeTexture.getHeight());
-
-        // Create Score Area
-        scoreRectangle = new Rectangle(
-                pipePosition.x + pipeTexture.getWidth() + 5,
-                pipePosition.y - (VERTICAL_PIPE_GAP * 1.5f),
-                20,
-                VERTICAL_PIPE_GAP * 3);
-    }
-
-    public void dispose() {
-        for (Texture texture : pipeTextures) {
-            texture.dispose();
+        pipeRegions = new TextureRegion[Assets.PIPES.length];
+        for (int i = 0; i < pipeRegions.length; i++) {
+            pipeRegions[i] = game.assets.region(Assets.PIPES[i]);
         }
-        pipeTexture.dispose();
-    }
 
-    public void draw() {
-        topSprite.draw(game.batch);
-        bottomSprite.draw(game.batch);
+        topSprite = new Sprite();
+        bottomSprite = new Sprite();
     }
 
-    public void move(float gameSpeed, float deltaTime) {
-        topSprite.translateX(gameSpeed * deltaTime);
-        bottomSprite.setX(topSprite.getX());
+    public void draw(WorldSnapshot snapshot, float alpha) {
+        for (int i = 0; i < snapshot.getPipeCount(); i++) {
+            draw(snapshot, i, alpha);
+        }
     }
 
-    public void updateCollisions(float gameSpeed, float deltaTime) {
-        scoreRectangle.setX(scoreRectangle.getX() + gameSpeed * deltaTime);
-        topRectangle.setX(topSprite.getX());
-        bottomRectangle.setX(bottomSprite.getX());
+    private void draw(WorldSnapshot snapshot, int index, float alpha) {
+        draw(MathUtils.lerp(snapshot.getPreviousPipeX(index), snapshot.getPipeX(index), alpha),
+                snapshot.getPipeGapY(index), snapshot.getPipeId(index));
     }
 
-	public Rectangle getScoreRectangle() {
-		return scoreRectangle;
-	}
-
-	public void setScoreRectangle(Rectangle scoreRectangle) {
-		this.scoreRectangle = scoreRectangle;
-	}
+    /**
+     * Draws one pair of pipes around the gap at {@code gapY}, colored by the
+     * pipe's spawn index.
+     */
+    public void draw(float x, float gapY, int pipeId) {
+        TextureRegion pipeRegion = pipeRegions[color(pipeId)];
 
-    public Rectangle getTopRectangle() {
-        return topRectangle;
-    }
-
-    public void setTopRectangle(Rectangle topRectangle) {
-        this.topRectangle = topRectangle;
-    }
+        // Top pipe
+        topSprite.setRegion(pipeRegion);
+        topSprite.setBounds(x, gapY + GameWorld.VERTICAL_PIPE_GAP, GameWorld.PIPE_WIDTH, GameWorld.PIPE_HEIGHT);
+        topSprite.setFlip(false, true);
+        topSprite.draw(game.batch);
 
-    public Rectangle getBottomRectangle() {
-        return bottomRectangle;
+        // Bottom pipe
+        bottomSprite.setRegion(pipeRegion);
+        bottomSprite.setBounds(x, gapY - GameWorld.PIPE_HEIGHT - GameWorld.VERTICAL_PIPE_GAP,
+                GameWorld.PIPE_WIDTH,
+                GameWorld.PIPE_HEIGHT);
+        bottomSprite.draw(game.batch);
     }
 
-    public void setBottomRectangle(Rectangle bottomRectangle) {
-        this.bottomRectangle = bottomRectangle;
+    // Cosmetic only, mixes the spawn index so colors look random but stay put
+    private int color(int pipeId) {
+        return ((pipeId * 0x9E3779B9) >>> 16) % pipeRegions.length;
     }
-
-	public Sprite getBottomSprite() {
-		return bottomSprite;
-	}
-
-	public void setBottomSprite(Sprite bottomSprite) {
-		this.bottomSprite = bottomSprite;
-	}
-
-
 }
@@ -0,0 +1,50 @@
+package io.github.diegobloise.flappybird.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+/**
+ * Captures every flap, a space press or a touch, as its own event stamped
+ * with the time the backend received it. Unlike polling once per frame, two
+ * taps in one frame stay two flaps and each can be applied at the tick it
+ * happened in.
+ */
+public class FlapInput extends InputAdapter {
+
+    private final TimestampQueue flaps;
+    private int dropped;
+
+    public FlapInput(TimestampQueue flaps) {
+        this.flaps = flaps;
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode != Input.Keys.SPACE) {
+            return false;
+        }
+        push();
+        return true;
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        push();
+        return true;
+    }
+
+    private void push() {
+        // Same clock as System.nanoTime() on every backend
+        if (!flaps.offer(Gdx.input.getCurrentEventTime())) {
+            dropped++;
+        }
+    }
+
+    /**
+     * Flaps lost because the queue was full.
+     */
+    public int getDropped() {
+        return dropped;
+    }
+}
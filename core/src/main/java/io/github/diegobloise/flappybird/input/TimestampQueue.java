@@ -0,0 +1,83 @@
+package io.github.diegobloise.flappybird.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of event timestamps for one producer thread and one consumer
+ * thread. Lock and allocation free: the producer only moves the tail and the
+ * consumer only the head, each published with an ordered store, so neither
+ * ever waits for the other.
+ */
+public final class TimestampQueue {
+
+    /** Returned by {@link #poll} when no event is due. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private final long[] timestamps;
+    private final int mask;
+
+    // Next slot to read, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity a power of two
+     */
+    public TimestampQueue(int capacity) {
+        if (capacity <= 0 || (capacity & capacity - 1) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        timestamps = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Producer side. Adds an event at the back of the queue.
+     *
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean offer(long timestamp) {
+        long t = tail.get();
+        if (t - head.get() == timestamps.length) {
+            return false;
+        }
+        timestamps[(int) t & mask] = timestamp;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side. Removes the oldest event if it happened at or before
+     * {@code deadline}.
+     *
+     * @return its timestamp, or {@link #NONE}
+     */
+    public long poll(long deadline) {
+        long h = head.get();
+        if (h == tail.get()) {
+            return NONE;
+        }
+        long timestamp = timestamps[(int) h & mask];
+        if (timestamp > deadline) {
+            return NONE;
+        }
+        head.lazySet(h + 1);
+        return timestamp;
+    }
+
+    /**
+     * Consumer side. Drops every queued event.
+     */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
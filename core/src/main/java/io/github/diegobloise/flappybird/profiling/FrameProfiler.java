@@ -0,0 +1,145 @@
+package io.github.diegobloise.flappybird.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Always-on frame profiler. Every frame records the update and draw time,
+ * the SpriteBatch render calls, the texture binds and the GC time into one
+ * {@link Histogram} each, so recording costs a few array writes and never
+ * allocates. The input latency of every flap goes into one more.
+ */
+public class FrameProfiler {
+
+    public static final int UPDATE = 0;
+    public static final int DRAW = 1;
+    public static final int RENDER_CALLS = 2;
+    public static final int TEXTURE_BINDS = 3;
+    public static final int GC = 4;
+    public static final int INPUT_LATENCY = 5;
+    public static final int METRICS = 6;
+
+    private static final String[] NAMES = {
+            "update_ns", "draw_ns", "render_calls", "texture_binds", "gc_ns", "input_latency_ns" };
+    private static final double[] PERCENTILES = { 50, 95, 99 };
+
+    private static final long MAX_NANOS = 10_000_000_000L;
+    private static final long MAX_COUNT = 100_000;
+
+    private final Histogram[] histograms = new Histogram[METRICS];
+    private final GcTimer gcTimer;
+
+    private long updateStart;
+    private long drawStart;
+    private long lastGcNanos;
+
+    /**
+     * @param gcTimer source of the GC time, or null if the platform has none
+     */
+    public FrameProfiler(GcTimer gcTimer) {
+        this.gcTimer = gcTimer;
+        histograms[UPDATE] = new Histogram(MAX_NANOS);
+        histograms[DRAW] = new Histogram(MAX_NANOS);
+        histograms[RENDER_CALLS] = new Histogram(MAX_COUNT);
+        histograms[TEXTURE_BINDS] = new Histogram(MAX_COUNT);
+        histograms[GC] = new Histogram(MAX_NANOS);
+        histograms[INPUT_LATENCY] = new Histogram(MAX_NANOS);
+        if (gcTimer != null) {
+            lastGcNanos = gcTimer.getCollectionNanos();
+        }
+    }
+
+    public void beginUpdate() {
+        updateStart = System.nanoTime();
+    }
+
+    public void endUpdate() {
+        histograms[UPDATE].record(System.nanoTime() - updateStart);
+    }
+
+    public void beginDraw() {
+        drawStart = System.nanoTime();
+    }
+
+    public void endDraw() {
+        histograms[DRAW].record(System.nanoTime() - drawStart);
+    }
+
+    /**
+     * @param textureBinds binds of this frame, or a negative number when they
+     *                     were not counted
+     */
+    public void endFrame(int renderCalls, int textureBinds) {
+        histograms[RENDER_CALLS].record(renderCalls);
+        if (textureBinds >= 0) {
+            histograms[TEXTURE_BINDS].record(textureBinds);
+        }
+        if (gcTimer != null) {
+            long gcNanos = gcTimer.getCollectionNanos();
+            histograms[GC].record(gcNanos - lastGcNanos);
+            lastGcNanos = gcNanos;
+        }
+    }
+
+    /**
+     * Records the time from an input event to the buffer swap of the first
+     * frame showing its effect.
+     */
+    public void recordInputLatency(long nanos) {
+        histograms[INPUT_LATENCY].record(nanos);
+    }
+
+    public Histogram getHistogram(int metric) {
+        return histograms[metric];
+    }
+
+    public static String getName(int metric) {
+        return NAMES[metric];
+    }
+
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("metric,count,min,mean,p50,p95,p99,max\n");
+        for (int metric = 0; metric < METRICS; metric++) {
+            Histogram histogram = histograms[metric];
+            writer.write(String.format(Locale.ROOT, "%s,%d,%d,%.1f", NAMES[metric],
+                    histogram.getTotalCount(), histogram.getMin(), histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                writer.write("," + histogram.getValueAtPercentile(percentile));
+            }
+            writer.write("," + histogram.getMax() + "\n");
+        }
+    }
+
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\n");
+        for (int metric = 0; metric < METRICS; metric++) {
+            Histogram histogram = histograms[metric];
+            writer.write(String.format(Locale.ROOT, "  \"%s\": {\"count\": %d, \"min\": %d, \"mean\": %.1f",
+                    NAMES[metric], histogram.getTotalCount(), histogram.getMin(), histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                writer.write(String.format(Locale.ROOT, ", \"p%.0f\": %d",
+                        percentile, histogram.getValueAtPercentile(percentile)));
+            }
+            writer.write(", \"max\": " + histogram.getMax() + "}" + (metric < METRICS - 1 ? "," : "") + "\n");
+        }
+        writer.write("}\n");
+    }
+
+    @Override
+    public String toString() {
+        Histogram update = histograms[UPDATE];
+        Histogram draw = histograms[DRAW];
+        return String.format(Locale.ROOT, "%d frames, update p50 %.2f p99 %.2f max %.2f ms,"
+                + " draw p50 %.2f p99 %.2f max %.2f ms",
+                update.getTotalCount(),
+                update.getValueAtPercentile(50) / 1e6, update.getValueAtPercentile(99) / 1e6, update.getMax() / 1e6,
+                draw.getValueAtPercentile(50) / 1e6, draw.getValueAtPercentile(99) / 1e6, draw.getMax() / 1e6);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.diegobloise.flappybird.profiling;
+
+/**
+ * Total time the platform's garbage collector has run. Supplied by the
+ * launcher, since the JVM management API is not available on Android.
+ */
+public interface GcTimer {
+
+    long getCollectionNanos();
+}
@@ -0,0 +1,105 @@
+package io.github.diegobloise.flappybird.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of non-negative long values, bucketed like
+ * HdrHistogram: values below {@code 2 * SUB_BUCKETS} get a bucket each, and
+ * every power of two above that is split into {@code SUB_BUCKETS} linear
+ * buckets. Percentiles are within 1 / SUB_BUCKETS (about 3%) of the recorded
+ * value and recording never allocates.
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts;
+    private final long highestValue;
+
+    private long totalCount;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * @param highestValue values above this are counted in the last bucket,
+     *                     although {@link #getMax()} stays exact
+     */
+    public Histogram(long highestValue) {
+        this.highestValue = highestValue;
+        this.counts = new long[indexOf(highestValue) + 1];
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(Math.min(value, highestValue))]++;
+        totalCount++;
+        total += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Highest value that at least {@code percentile} percent of the recorded
+     * values are lower than or equal to, 0 when nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) total / totalCount;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS * 2) {
+            return (int) value;
+        }
+        // Shift the value until it has SUB_BITS + 1 significant bits
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS * 2) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
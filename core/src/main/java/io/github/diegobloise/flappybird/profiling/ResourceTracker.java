@@ -0,0 +1,179 @@
+package io.github.diegobloise.flappybird.profiling;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accounts for every native resource the game holds: textures, sounds,
+ * renderers and fonts. Each one is {@link #add added} with its size in
+ * bytes when created and {@link #remove removed} when disposed, so the live
+ * counts and bytes per kind are plain fields the debug overlay can read every
+ * frame.
+ *
+ * The creation site of every live resource is kept, so whatever is still
+ * here when the game exits is a leak {@link #toString} can point at.
+ *
+ * Nothing is tracked that isn't added. Assets are added by {@link
+ * io.github.diegobloise.flappybird.Assets}, the sprite batch and the shape
+ * renderers, with their meshes and shaders, by the code that constructs
+ * them. The page textures a font makes for itself are counted in the font.
+ * The tracker can't see what libGDX and the backend hold on their own: pixmaps
+ * while a font is generated or read back, the audio device and the GL
+ * context. A texture constructed with {@code new} anywhere else is a leak
+ * it won't report.
+ */
+public class ResourceTracker {
+
+    public static final int TEXTURE = 0;
+    public static final int SOUND = 1;
+    // Sprite batches and shape renderers
+    public static final int RENDERER = 2;
+    public static final int FONT = 3;
+    public static final int KINDS = 4;
+
+    private static final String[] NAMES = { "texture", "sound", "renderer", "font" };
+
+    // Vertex buffer of a default ShapeRenderer, 5000 positions with a packed color
+    public static final long SHAPE_RENDERER_BYTES = 5000 * 16;
+
+    /**
+     * Vertex and index buffers of a SpriteBatch of the given size, four
+     * vertices of a position, a packed color and texture coordinates, and
+     * six short indices per sprite.
+     */
+    public static long spriteBatchBytes(int size) {
+        return size * (4 * 20L + 6 * 2L);
+    }
+
+    private final Map<Object, Entry> live = new IdentityHashMap<>();
+    private final Set<String> helperClasses = new HashSet<>();
+
+    private final int[] counts = new int[KINDS];
+    private final long[] bytes = new long[KINDS];
+    private final int[] peakCounts = new int[KINDS];
+    private final long[] peakBytes = new long[KINDS];
+
+    public ResourceTracker() {
+        helperClasses.add(ResourceTracker.class.getName());
+    }
+
+    /**
+     * Makes creation sites skip the frames of a class that creates resources
+     * for others, so they point at the code that asked for them.
+     */
+    public void addHelperClass(Class<?> type) {
+        helperClasses.add(type.getName());
+    }
+
+    /**
+     * Starts tracking a resource created by the caller.
+     */
+    public void add(Object resource, int kind, long size, String name) {
+        add(resource, kind, size, name, new Throwable());
+    }
+
+    /**
+     * Starts tracking a resource created on behalf of the code that made
+     * {@code site}, like an asset queued long before it finished loading.
+     */
+    public void add(Object resource, int kind, long size, String name, Throwable site) {
+        if (live.containsKey(resource)) {
+            return;
+        }
+        live.put(resource, new Entry(kind, size, name, creationSite(site)));
+        counts[kind]++;
+        bytes[kind] += size;
+        peakCounts[kind] = Math.max(peakCounts[kind], counts[kind]);
+        peakBytes[kind] = Math.max(peakBytes[kind], bytes[kind]);
+    }
+
+    /**
+     * Stops tracking a resource that was disposed. Unknown resources are
+     * ignored.
+     */
+    public void remove(Object resource) {
+        Entry entry = live.remove(resource);
+        if (entry != null) {
+            counts[entry.kind]--;
+            bytes[entry.kind] -= entry.size;
+        }
+    }
+
+    public int getCount(int kind) {
+        return counts[kind];
+    }
+
+    public long getBytes(int kind) {
+        return bytes[kind];
+    }
+
+    public int getPeakCount(int kind) {
+        return peakCounts[kind];
+    }
+
+    public long getPeakBytes(int kind) {
+        return peakBytes[kind];
+    }
+
+    public int getTotalCount() {
+        return live.size();
+    }
+
+    public long getTotalBytes() {
+        long total = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            total += bytes[kind];
+        }
+        return total;
+    }
+
+    public String getName(int kind) {
+        return NAMES[kind];
+    }
+
+    // First frame outside the helper classes, the line that asked for the resource
+    private StackTraceElement creationSite(Throwable site) {
+        for (StackTraceElement element : site.getStackTrace()) {
+            if (!helperClasses.contains(element.getClassName())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Live and peak count and bytes per kind, then one line per live resource
+     * with the place it was created.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int kind = 0; kind < KINDS; kind++) {
+            text.append(String.format(Locale.ROOT, "%-15s live %4d %10d B   peak %4d %10d B%n",
+                    NAMES[kind], counts[kind], bytes[kind], peakCounts[kind], peakBytes[kind]));
+        }
+        for (Entry entry : live.values()) {
+            text.append(String.format(Locale.ROOT, "  %s %s, %d B, created at %s%n",
+                    NAMES[entry.kind], entry.name, entry.size, entry.site));
+        }
+        return text.toString();
+    }
+
+    private static final class Entry {
+
+        final int kind;
+        final long size;
+        final String name;
+        final StackTraceElement site;
+
+        Entry(int kind, long size, String name, StackTraceElement site) {
+            this.kind = kind;
+            this.size = size;
+            this.name = name;
+            this.site = site;
+        }
+    }
+}
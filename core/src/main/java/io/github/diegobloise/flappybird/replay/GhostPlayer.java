@@ -0,0 +1,165 @@
+package io.github.diegobloise.flappybird.replay;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flies a track written by a {@link GhostRecorder} again, decoding it as
+ * the race goes on. Only the header is read when the track is opened, the
+ * heights are read from the stream a small buffer at a time as the course
+ * scrolls, so a long run is never held in memory.
+ *
+ * A player is reused from track to track, only {@link #open} and
+ * {@link #close} touch anything but its own fields. The stream stays open
+ * after the ghost crashes, closing a file allocates and the race is still
+ * going, it is closed with the race.
+ */
+public class GhostPlayer {
+
+    // About four seconds of flight per read
+    private static final int BUFFER_SIZE = 512;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private InputStream input;
+
+    private long seed;
+    private int tickRate;
+    private int score;
+    private int count;
+
+    private int decoded;
+    private int height;
+    private float y;
+    private float previousY;
+
+    /**
+     * Starts streaming a track, closing the one before.
+     *
+     * @throws IOException if the stream is not a ghost track
+     */
+    public void open(InputStream input) throws IOException {
+        close();
+        this.input = input;
+        position = 0;
+        limit = 0;
+
+        if (readInt() != GhostRecorder.MAGIC) {
+            throw new IOException("Not a ghost track");
+        }
+        int version = read();
+        if (version != GhostRecorder.VERSION) {
+            throw new IOException("Unsupported ghost track version " + version);
+        }
+        seed = (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+        tickRate = readVarint();
+        score = readVarint();
+        count = readVarint();
+
+        decoded = 0;
+        height = 0;
+        y = 0;
+        advance(1);
+        previousY = y;
+    }
+
+    /**
+     * Decodes the track up to the given play tick. The ghost waits at its
+     * first height before the race starts.
+     */
+    public void advance(int playTick) throws IOException {
+        int target = Math.min(Math.max(playTick, 1), count);
+        try {
+            while (decoded < target) {
+                previousY = y;
+                int zigzag = readVarint();
+                height += (zigzag >>> 1) ^ -(zigzag & 1);
+                y = (float) height / GhostRecorder.UNITS_PER_PIXEL;
+                decoded++;
+            }
+        } catch (EOFException e) {
+            // A track cut short, by a crash while saving it say, ends where it was cut
+            count = decoded;
+        }
+    }
+
+    /**
+     * Whether the ghost crashed before the given play tick.
+     */
+    public boolean isFinished(int playTick) {
+        return playTick > count;
+    }
+
+    public void close() throws IOException {
+        if (input != null) {
+            InputStream closing = input;
+            input = null;
+            closing.close();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            if (input == null) {
+                throw new EOFException();
+            }
+            limit = Math.max(0, input.read(buffer, 0, buffer.length));
+            position = 0;
+            if (limit == 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+        return read() << 24 | read() << 16 | read() << 8 | read();
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = read();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Play ticks the ghost flew before it crashed.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Height at the play tick last advanced to.
+     */
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * Height one play tick earlier, to draw between the two.
+     */
+    public float getPreviousY() {
+        return previousY;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.diegobloise.flappybird.replay;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Records the height of the bird on every play tick of a run, the track a
+ * {@link GhostPlayer} flies again next to a live run on the same course.
+ * Call {@link #record} after every step.
+ *
+ * Unlike a {@link Replay} a track needs no world to play back, so dozens of
+ * ghosts cost a few bytes of decoding per frame each. The format is the
+ * magic "FBGH", a version byte, the seed as 8 big endian bytes, then the
+ * tick rate, the score and the number of heights as unsigned varints. The
+ * heights follow in 1/{@value #UNITS_PER_PIXEL} pixels, each as a zigzag
+ * varint delta from the one before, so nearly every tick takes one byte.
+ * The first height is that of play tick 1.
+ */
+public class GhostRecorder {
+
+    static final int MAGIC = 0x46424748; // "FBGH"
+    // Bumped with the replay version, a track only fits the course it was flown on
+    static final int VERSION = 2;
+    static final int UNITS_PER_PIXEL = 16;
+
+    private byte[] deltas = new byte[1024];
+    private int size;
+    private int count;
+    private int previous;
+    private long seed;
+    private int tickRate;
+    private int score;
+
+    /**
+     * Starts recording a world that was just reset.
+     */
+    public void begin(GameWorld world) {
+        seed = world.getSeed();
+        tickRate = world.getTickRate();
+        score = 0;
+        size = 0;
+        count = 0;
+        previous = 0;
+    }
+
+    public void record(GameWorld world) {
+        if (world.getPlayTicks() != count + 1) {
+            return;
+        }
+        int height = Math.round(world.getBirdY() * UNITS_PER_PIXEL);
+        int delta = height - previous;
+        previous = height;
+        count++;
+        score = world.getScore();
+
+        if (size + 5 > deltas.length) {
+            deltas = Arrays.copyOf(deltas, deltas.length * 2);
+        }
+        int zigzag = (delta << 1) ^ (delta >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            deltas[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        deltas[size++] = (byte) zigzag;
+    }
+
+    /**
+     * Play ticks recorded so far.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        writeVarint(data, tickRate);
+        writeVarint(data, score);
+        writeVarint(data, count);
+        data.write(deltas, 0, size);
+        data.flush();
+    }
+
+    private static void writeVarint(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.diegobloise.flappybird.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * One recorded run: the course seed, the tick rate and the ticks the player
+ * flapped on, plus the score and tick the run ended with so playback can be
+ * checked against them.
+ *
+ * The binary format is the magic "FBRP", a version byte, the seed as 8 big
+ * endian bytes, then the tick rate, end tick, score and flap count as
+ * unsigned varints, followed by the flap ticks as varint deltas from the
+ * previous flap. A minute long run usually fits in a couple hundred bytes.
+ */
+public class Replay {
+
+    private static final int MAGIC = 0x46425250; // "FBRP"
+    // Bumped whenever the rules change, since old flaps would play a different game.
+    // 2: swept collisions
+    // 3: seeds mixed before they start the course generator
+    private static final int VERSION = 3;
+
+    private static final int INITIAL_FLAPS = 256;
+
+    private final long seed;
+    private final int tickRate;
+    private final int[] flapTicks;
+    private final int endTick;
+    private final int score;
+
+    /**
+     * @param flapTicks ticks, counted from 0, whose step received a flap, in
+     *                  increasing order
+     */
+    public Replay(long seed, int tickRate, int[] flapTicks, int endTick, int score) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.flapTicks = flapTicks;
+        this.endTick = endTick;
+        this.score = score;
+    }
+
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        writeVarint(data, tickRate);
+        writeVarint(data, endTick);
+        writeVarint(data, score);
+        writeVarint(data, flapTicks.length);
+        int previous = 0;
+        for (int tick : flapTicks) {
+            writeVarint(data, tick - previous);
+            previous = tick;
+        }
+        data.flush();
+    }
+
+    public static Replay read(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        long seed = data.readLong();
+        int tickRate = readVarint(data);
+        int endTick = readVarint(data);
+        int score = readVarint(data);
+        int flapCount = readVarint(data);
+        // Varints past 31 bits read as negative
+        if (tickRate <= 0 || endTick < 0 || score < 0 || flapCount < 0) {
+            throw new IOException("Malformed replay");
+        }
+        // Grown as flaps come in, so a corrupt count can't allocate more than the data holds
+        int[] flapTicks = new int[Math.min(flapCount, INITIAL_FLAPS)];
+        int tick = 0;
+        for (int i = 0; i < flapCount; i++) {
+            if (i == flapTicks.length) {
+                flapTicks = Arrays.copyOf(flapTicks, (int) Math.min((long) i * 2, flapCount));
+            }
+            int delta = readVarint(data);
+            if (delta < 0 || tick + delta < 0) {
+                throw new IOException("Malformed replay");
+            }
+            tick += delta;
+            flapTicks[i] = tick;
+        }
+        return new Replay(seed, tickRate, flapTicks, endTick, score);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + flapTicks.length);
+        try {
+            write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Replay fromBytes(byte[] bytes) throws IOException {
+        return read(new ByteArrayInputStream(bytes));
+    }
+
+    private static void writeVarint(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public int getFlapCount() {
+        return flapTicks.length;
+    }
+
+    public int getFlapTick(int index) {
+        return flapTicks[index];
+    }
+
+    public int getEndTick() {
+        return endTick;
+    }
+
+    public int getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.diegobloise.flappybird.replay;
+
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Feeds the flaps of a {@link Replay} back to a world reset with its seed.
+ * The world is deterministic, so the run is reproduced tick for tick.
+ */
+public class ReplayPlayer implements FlapPolicy {
+
+    private final Replay replay;
+    private int next;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Resets the world to the start of the replay.
+     */
+    public void start(GameWorld world) {
+        if (world.getTickRate() != replay.getTickRate()) {
+            throw new IllegalArgumentException("Replay was recorded at " + replay.getTickRate()
+                    + " ticks per second, the world runs at " + world.getTickRate());
+        }
+        world.reset(replay.getSeed());
+        next = 0;
+    }
+
+    /**
+     * Goes back to the first flap, for a world rewound to an earlier tick.
+     * The flaps before its tick are skipped again as it steps.
+     */
+    public void rewind() {
+        next = 0;
+    }
+
+    @Override
+    public boolean shouldFlap(GameWorld world) {
+        int tick = world.getTick();
+        while (next < replay.getFlapCount() && replay.getFlapTick(next) < tick) {
+            next++;
+        }
+        if (next < replay.getFlapCount() && replay.getFlapTick(next) == tick) {
+            next++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isFinished(GameWorld world) {
+        return world.getTick() >= replay.getEndTick();
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Plays the whole replay as fast as possible on the given world.
+     *
+     * @return true if the run ended with the recorded score at the recorded
+     *         tick, and not a tick earlier
+     */
+    public static boolean verify(Replay replay, GameWorld world) {
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.start(world);
+        while (!player.isFinished(world)) {
+            if (world.isGameOver()) {
+                // Ticks past the crash can't score, but a run doesn't go on after it either
+                return false;
+            }
+            world.step(player.shouldFlap(world));
+        }
+        return world.isGameOver() && world.getScore() == replay.getScore();
+    }
+}
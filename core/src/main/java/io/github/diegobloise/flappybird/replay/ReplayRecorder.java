@@ -0,0 +1,52 @@
+package io.github.diegobloise.flappybird.replay;
+
+import java.util.Arrays;
+
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Records the flaps fed to a {@link GameWorld}. Call {@link #record} with the
+ * input of every step, before stepping.
+ */
+public class ReplayRecorder {
+
+    private int[] flapTicks = new int[256];
+    private int flapCount;
+    private long seed;
+    private int tickRate;
+
+    /**
+     * Starts recording a world that was just reset.
+     */
+    public void begin(GameWorld world) {
+        seed = world.getSeed();
+        tickRate = world.getTickRate();
+        flapCount = 0;
+    }
+
+    public void record(GameWorld world, boolean flap) {
+        if (!flap) {
+            return;
+        }
+        if (flapCount == flapTicks.length) {
+            flapTicks = Arrays.copyOf(flapTicks, flapCount * 2);
+        }
+        flapTicks[flapCount++] = world.getTick();
+    }
+
+    /**
+     * Forgets the flaps from the given tick on, for a run rewound to it.
+     */
+    public void rewind(int tick) {
+        while (flapCount > 0 && flapTicks[flapCount - 1] >= tick) {
+            flapCount--;
+        }
+    }
+
+    /**
+     * The run so far, ending at the world's current tick and score.
+     */
+    public Replay finish(GameWorld world) {
+        return new Replay(seed, tickRate, Arrays.copyOf(flapTicks, flapCount), world.getTick(), world.getScore());
+    }
+}
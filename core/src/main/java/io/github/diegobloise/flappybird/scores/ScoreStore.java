@@ -0,0 +1,508 @@
+package io.github.diegobloise.flappybird.scores;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Persistent log of finished runs, the player's and the bots', built to
+ * hold millions of them.
+ *
+ * The file is a 16 byte header followed by fixed-width 24 byte records:
+ * score, duration in ticks, course seed and the time the run ended. Records
+ * are only ever appended, and read back through memory maps. Once enough of
+ * them pile up, a background {@link #compact compaction} rewrites the log
+ * sorted best first. The header keeps how many leading records are sorted,
+ * so opening only reads the best few from the front and scans what was
+ * appended since. A compaction holds the lock only to swap the files, runs
+ * keep being added while it sorts, copies and syncs.
+ *
+ * The best runs are kept in memory, best first, so finding the rank of a
+ * score, and whether it is a new highscore, is a binary search.
+ *
+ * All methods are thread safe.
+ */
+public class ScoreStore implements Closeable {
+
+    public static final int RECORD_BYTES = 24;
+    static final int HEADER_BYTES = 16;
+
+    public static final int DEFAULT_TOP = 10;
+
+    // "FBHS", then the format version
+    private static final int MAGIC = 0x46424853;
+    private static final int VERSION = 1;
+
+    // Unsorted records past which a compaction starts by itself
+    private static final long COMPACT_THRESHOLD = 1 << 16;
+
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+
+    // Records per mapping, well under the 2 GB a single one can hold
+    private static final int MAP_RECORDS = 1 << 24;
+
+    private final File file;
+    private FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_RECORDS * RECORD_BYTES);
+
+    // Records in the file and in the write buffer, and how many lead the file sorted
+    private long count;
+    private long sortedCount;
+
+    // The best runs, best first, ties in the order they were added
+    private final int[] topScores;
+    private final int[] topTicks;
+    private final long[] topSeeds;
+    private final long[] topTimes;
+    private int topCount;
+
+    private Thread compaction;
+    private IOException compactionError;
+    // A failed compaction isn't started again by itself before the log reaches this many runs
+    private long retryCount;
+
+    // Unmaps a buffer at once, null where the runtime has no way to, Java 8 and Android
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    public ScoreStore(File file) throws IOException {
+        this(file, DEFAULT_TOP);
+    }
+
+    /**
+     * Opens the log, creating it if missing, and reads the best {@code top}
+     * runs into memory.
+     */
+    public ScoreStore(File file, int top) throws IOException {
+        this.file = file;
+        topScores = new int[top];
+        topTicks = new int[top];
+        topSeeds = new long[top];
+        topTimes = new long[top];
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            open();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void open() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            writeHeader(channel, 0);
+            size = HEADER_BYTES;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a score log: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported score log version " + version + ": " + file);
+            }
+            sortedCount = header.getLong();
+        }
+
+        // A crash while appending may leave part of a record behind
+        count = (size - HEADER_BYTES) / RECORD_BYTES;
+        channel.truncate(HEADER_BYTES + count * RECORD_BYTES);
+        sortedCount = Math.min(sortedCount, count);
+        channel.position(channel.size());
+
+        MappedByteBuffer[] maps = map(channel, count);
+        try {
+            // The sorted records start with the best ones, only the tail needs a full scan
+            long sortedTop = Math.min(sortedCount, topScores.length);
+            for (long i = 0; i < sortedTop; i++) {
+                insert(maps, i);
+            }
+            for (long i = sortedCount; i < count; i++) {
+                insert(maps, i);
+            }
+        } finally {
+            unmap(maps);
+        }
+
+        if (count - sortedCount >= COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * Appends a run. It reaches the file on the next {@link #flush}, or
+     * once a few thousand are buffered.
+     *
+     * @param time when the run ended, in milliseconds since the epoch
+     */
+    public synchronized void add(int score, int ticks, long seed, long time) throws IOException {
+        if (!writeBuffer.hasRemaining()) {
+            writeBuffered();
+        }
+        writeBuffer.putInt(score).putInt(ticks).putLong(seed).putLong(time);
+        count++;
+        insert(score, ticks, seed, time);
+    }
+
+    /**
+     * Writes the buffered runs, and starts a compaction if enough unsorted
+     * ones piled up, unless the last one failed and not enough were added
+     * since.
+     */
+    public synchronized void flush() throws IOException {
+        writeBuffered();
+        if (count - sortedCount >= COMPACT_THRESHOLD && count >= retryCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Starts rewriting the log sorted best first on a background thread,
+     * unless one is already running or the log is sorted. Runs added in the
+     * meantime are kept, after the sorted ones.
+     */
+    public synchronized void compact() throws IOException {
+        if (compaction != null || count == sortedCount) {
+            return;
+        }
+        writeBuffered();
+        final long records = count;
+        compaction = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                compact(records);
+            }
+        }, "Score compaction");
+        compaction.setDaemon(true);
+        compaction.start();
+    }
+
+    /**
+     * The error of the last compaction that failed, if nobody took it yet.
+     * The log is then left as it was before that compaction.
+     *
+     * @return null if no compaction failed since the last call
+     */
+    public synchronized IOException takeCompactionError() {
+        IOException error = compactionError;
+        compactionError = null;
+        return error;
+    }
+
+    /**
+     * Waits for a running compaction, then writes the buffered runs and
+     * closes the file.
+     *
+     * @throws IOException also if a compaction failed and its error wasn't
+     *         {@link #takeCompactionError taken}
+     */
+    @Override
+    public void close() throws IOException {
+        Thread running;
+        synchronized (this) {
+            writeBuffered();
+            running = compaction;
+        }
+        if (running != null) {
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            channel.close();
+            if (compactionError != null) {
+                throw compactionError;
+            }
+        }
+    }
+
+    /**
+     * Position a score would take among the best runs, 0 if it beats them
+     * all. Ties rank after the runs already there.
+     */
+    public synchronized int rank(int score) {
+        int low = 0;
+        int high = topCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (topScores[middle] >= score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Whether a score beats every run so far. Nothing beats an empty log
+     * with 0.
+     */
+    public synchronized boolean isNewHighscore(int score) {
+        return score > 0 && rank(score) == 0;
+    }
+
+    public synchronized int getBest() {
+        return topCount == 0 ? 0 : topScores[0];
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getSortedCount() {
+        return sortedCount;
+    }
+
+    public synchronized int getTopCount() {
+        return topCount;
+    }
+
+    /**
+     * @param rank 0 for the best run
+     */
+    public synchronized int getTopScore(int rank) {
+        return topScores[rank];
+    }
+
+    public synchronized int getTopTicks(int rank) {
+        return topTicks[rank];
+    }
+
+    public synchronized long getTopSeed(int rank) {
+        return topSeeds[rank];
+    }
+
+    public synchronized long getTopTime(int rank) {
+        return topTimes[rank];
+    }
+
+    private void insert(MappedByteBuffer[] maps, long index) {
+        ByteBuffer map = maps[(int) (index / MAP_RECORDS)];
+        int offset = (int) (index % MAP_RECORDS) * RECORD_BYTES;
+        insert(map.getInt(offset), map.getInt(offset + 4), map.getLong(offset + 8), map.getLong(offset + 16));
+    }
+
+    private void insert(int score, int ticks, long seed, long time) {
+        int rank = rank(score);
+        if (rank == topScores.length) {
+            return;
+        }
+        int moved = Math.min(topCount, topScores.length - 1) - rank;
+        System.arraycopy(topScores, rank, topScores, rank + 1, moved);
+        System.arraycopy(topTicks, rank, topTicks, rank + 1, moved);
+        System.arraycopy(topSeeds, rank, topSeeds, rank + 1, moved);
+        System.arraycopy(topTimes, rank, topTimes, rank + 1, moved);
+        topScores[rank] = score;
+        topTicks[rank] = ticks;
+        topSeeds[rank] = seed;
+        topTimes[rank] = time;
+        topCount = Math.min(topCount + 1, topScores.length);
+    }
+
+    private void writeBuffered() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    // Runs on the compaction thread, the store stays usable until the swap
+    private void compact(long records) {
+        File sorted = new File(file.getPath() + ".compact");
+        try {
+            writeSorted(records, sorted);
+            swap(records, sorted);
+        } catch (IOException e) {
+            sorted.delete();
+            synchronized (this) {
+                compactionError = e;
+                retryCount = count + COMPACT_THRESHOLD;
+            }
+        } finally {
+            synchronized (this) {
+                compaction = null;
+            }
+        }
+    }
+
+    private void writeSorted(long records, File sorted) throws IOException {
+        if (records > Integer.MAX_VALUE) {
+            throw new IOException("Too many runs to sort: " + records);
+        }
+        try (FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                FileChannel target = FileChannel.open(sorted.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            MappedByteBuffer[] maps = map(source, records);
+            try {
+                writeSorted(maps, records, target);
+            } finally {
+                unmap(maps);
+            }
+        }
+    }
+
+    private static void writeSorted(MappedByteBuffer[] maps, long records, FileChannel target)
+            throws IOException {
+        // Negated score above the index, so sorting the keys puts the best first, ties in order
+        long[] keys = new long[(int) records];
+        for (int i = 0; i < keys.length; i++) {
+            int offset = (i % MAP_RECORDS) * RECORD_BYTES;
+            keys[i] = (long) -maps[i / MAP_RECORDS].getInt(offset) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        writeHeader(target, records);
+        target.position(HEADER_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_RECORDS * RECORD_BYTES);
+        for (long key : keys) {
+            int index = (int) key;
+            ByteBuffer map = maps[index / MAP_RECORDS];
+            int offset = (index % MAP_RECORDS) * RECORD_BYTES;
+            if (!buffer.hasRemaining()) {
+                writeFully(target, buffer);
+            }
+            buffer.putInt(map.getInt(offset)).putInt(map.getInt(offset + 4))
+                    .putLong(map.getLong(offset + 8)).putLong(map.getLong(offset + 16));
+        }
+        writeFully(target, buffer);
+        target.force(true);
+    }
+
+    /**
+     * Moves the sorted log in place of this one, with the runs added since
+     * behind it. Those are copied and synced without the lock, pass after
+     * pass until one finds nothing new. The lock is then only held to copy
+     * what was written in between, unsynced like any append, and to swap
+     * the files.
+     */
+    private void swap(long records, File sorted) throws IOException {
+        FileChannel target = FileChannel.open(sorted.toPath(), StandardOpenOption.WRITE);
+        try {
+            long copied = HEADER_BYTES + records * RECORD_BYTES;
+            long end;
+            while (copied < (end = writtenEnd())) {
+                copied = transfer(copied, end, target);
+            }
+            target.force(true);
+
+            synchronized (this) {
+                transfer(copied, writtenEnd(), target);
+                target.close();
+
+                // Windows won't replace a mapped file, this one is unmapped unless the runtime can't
+                channel.close();
+                try {
+                    Files.move(sorted.toPath(), file.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    sortedCount = records;
+                } finally {
+                    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    channel.position(channel.size());
+                }
+            }
+        } finally {
+            target.close();
+        }
+    }
+
+    // End of the runs in the file, the buffered ones go to whichever file is current when written
+    private synchronized long writtenEnd() {
+        return HEADER_BYTES + count * RECORD_BYTES - writeBuffer.position();
+    }
+
+    // Appends the records of this file between two offsets to the target, returns the end
+    private long transfer(long position, long end, FileChannel target) throws IOException {
+        target.position(target.size());
+        while (position < end) {
+            position += channel.transferTo(position, end - position, target);
+        }
+        return end;
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long records) throws IOException {
+        MappedByteBuffer[] maps = new MappedByteBuffer[(int) ((records + MAP_RECORDS - 1) / MAP_RECORDS)];
+        for (int i = 0; i < maps.length; i++) {
+            long first = (long) i * MAP_RECORDS;
+            long size = Math.min(MAP_RECORDS, records - first) * RECORD_BYTES;
+            maps[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * RECORD_BYTES, size);
+        }
+        return maps;
+    }
+
+    // A mapping holds on to the file until the garbage collector gets to the buffer
+    private static void unmap(MappedByteBuffer[] maps) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        for (MappedByteBuffer map : maps) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, map);
+            } catch (ReflectiveOperationException e) {
+                return;
+            }
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, long sortedCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sortedCount);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+}
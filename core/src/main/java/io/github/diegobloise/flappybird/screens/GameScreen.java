@@ -1,108 +1,197 @@
 package io.github.diegobloise.flappybird.screens;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 
+import io.github.diegobloise.flappybird.Assets;
 import io.github.diegobloise.flappybird.FlappyBird;
 import io.github.diegobloise.flappybird.entities.Bird;
+import io.github.diegobloise.flappybird.entities.Ghosts;
 import io.github.diegobloise.flappybird.entities.Ground;
 import io.github.diegobloise.flappybird.entities.Pipe;
+import io.github.diegobloise.flappybird.input.FlapInput;
+import io.github.diegobloise.flappybird.input.TimestampQueue;
+import io.github.diegobloise.flappybird.profiling.FrameProfiler;
+import io.github.diegobloise.flappybird.profiling.ResourceTracker;
+import io.github.diegobloise.flappybird.ui.DebugText;
+import io.github.diegobloise.flappybird.ui.ScoreText;
+import io.github.diegobloise.flappybird.ui.WindowTitle;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldHistory;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
 
 public class GameScreen implements Screen {
 
     final FlappyBird game;
 
-    private final float GAME_SPEED = -40;
-    private final int HORIZONTAL_PIPE_GAP = 70;
+    // Preloaded by the main menu
+    static final String[] SOUNDS = {
+            Assets.SFX_WING, Assets.SFX_HIT, Assets.SFX_DIE, Assets.SFX_POINT };
+
+    // The window title is a native call, so the FPS is only refreshed this often
+    private static final float TITLE_INTERVAL = 1f;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
 
-    private float deltaTime;
+    // Far more flaps than fit in a frame
+    private static final int FLAP_QUEUE_CAPACITY = 64;
 
-    private Bird bird;
-    private Ground ground;
+    // P plays the last run back, UP and DOWN change its speed
+    private static final float MAX_REPLAY_SPEED = 64;
 
-    private List<Pipe> pipes;
+    // Flaps captured by FlapInput, each consumed by the tick it happened in
+    final TimestampQueue flaps = new TimestampQueue(FLAP_QUEUE_CAPACITY);
+    private final FlapInput flapInput = new FlapInput(flaps);
 
-    private List<Texture> backgroundTextures;
+    // Ticks the world on its own thread, this screen only draws its snapshots
+    final GameSimulation simulation;
+    private WorldSnapshot snapshot;
+    private float alpha;
+    private float replaySpeed;
 
-    private Texture backgroundTexture;
+    // Counts from the last snapshot drawn, a change means something happened since
+    private int run;
+    private long flapEvents;
+    private long scoreEvents;
+    private long hitEvents;
+    private long dieEvents;
+    private long appliedFlaps;
+    // A flap the last frame showed first, its latency is taken once that frame is swapped
+    private boolean flapShown;
+    private long shownFlapTime;
 
-    private Texture tapTexture;
-    private Texture getReadyTexture;
+    private final Bird bird;
+    private final Ground ground;
+    private final Pipe pipe;
+    // Raced with the G key, opened again for every run of the race
+    private final Ghosts ghosts;
+    // Ghosts only fly forward, they sit out a rewind and start over after it
+    private boolean rewinding;
 
-    private Texture scoreTexture;
-    private Texture gameOverTexture;
+    private final TextureRegion[] backgroundRegions;
+    private TextureRegion backgroundRegion;
 
-    private Texture btnPlayTexture;
-    private Texture btnHighscoresTexture;
+    private TextureRegion tapRegion;
+    private TextureRegion getReadyRegion;
+
+    private TextureRegion scoreRegion;
+    private TextureRegion gameOverRegion;
+    private TextureRegion newHighscoreRegion;
+
+    private TextureRegion btnPlayRegion;
+    private TextureRegion btnHighscoresRegion;
 
     private Sound wingSound;
     private Sound hitSound;
     private Sound dieSound;
     private Sound pointSound;
 
-    private Integer score;
+    private final ScoreText scoreText;
+    private final DebugText debugText;
+    // Indexed by the autopilot and race bits
+    private final WindowTitle[] titles = {
+            new WindowTitle(""), new WindowTitle(" - Autopilot"),
+            new WindowTitle(" - Race"), new WindowTitle(" - Autopilot - Race") };
+    private float titleTime = TITLE_INTERVAL;
 
     private ShapeRenderer shape;
-    private Boolean debugMode;
-
-    private boolean isPlaying;
-
-    private boolean gameOver;
-
-    private boolean dieSoundPlayed;
-
-    private boolean birdIsOnGround;
+    private boolean debugMode;
 
     public GameScreen(final FlappyBird game) {
         this.game = game;
 
-        backgroundTextures = new ArrayList<>();
-        backgroundTextures.add(new Texture(Gdx.files.internal("sprites/background_day.png")));
-        backgroundTextures.add(new Texture(Gdx.files.internal("sprites/background_night.png")));
-        backgroundTexture = backgroundTextures.get(0);
+        game.assets.acquireAtlas();
+        game.assets.acquireSounds(SOUNDS);
+
+        tapRegion = game.assets.region(Assets.TAP);
+        getReadyRegion = game.assets.region(Assets.GET_READY);
+        scoreRegion = game.assets.region(Assets.SCORE);
+        gameOverRegion = game.assets.region(Assets.GAME_OVER);
+        newHighscoreRegion = game.assets.region(Assets.NEW_HIGHSCORE);
+        btnPlayRegion = game.assets.region(Assets.BTN_PLAY);
+        btnHighscoresRegion = game.assets.region(Assets.BTN_HIGHSCORES);
+
+        wingSound = game.assets.sound(Assets.SFX_WING);
+        hitSound = game.assets.sound(Assets.SFX_HIT);
+        dieSound = game.assets.sound(Assets.SFX_DIE);
+        pointSound = game.assets.sound(Assets.SFX_POINT);
+
+        backgroundRegions = new TextureRegion[Assets.BACKGROUNDS.length];
+        for (int i = 0; i < backgroundRegions.length; i++) {
+            backgroundRegions[i] = game.assets.region(Assets.BACKGROUNDS[i]);
+        }
 
-        tapTexture = new Texture("sprites/tap.png");
-        getReadyTexture = new Texture("sprites/get_ready.png");
-        scoreTexture = new Texture("sprites/score.png");
-        gameOverTexture = new Texture("sprites/game_over.png");
-        btnPlayTexture = new Texture("sprites/btn_play.png");
-        btnHighscoresTexture = new Texture("sprites/btn_highscores.png");
+        bird = new Bird(game);
+        ground = new Ground(game);
+        pipe = new Pipe(game);
+        ghosts = new Ghosts(game);
 
-        wingSound = Gdx.audio.newSound(Gdx.files.internal("audio/sfx_wing.wav"));
-        hitSound = Gdx.audio.newSound(Gdx.files.internal("audio/sfx_hit.wav"));
-        dieSound = Gdx.audio.newSound(Gdx.files.internal("audio/sfx_die.wav"));
-        pointSound = Gdx.audio.newSound(Gdx.files.internal("audio/sfx_point.wav"));
+        scoreText = new ScoreText(game.font);
+        debugText = new DebugText(game.font);
 
         shape = new ShapeRenderer();
+        game.resources.add(shape, ResourceTracker.RENDERER, ResourceTracker.SHAPE_RENDERER_BYTES, "debug shapes");
         debugMode = false;
+        replaySpeed = game.replaySpeed;
 
-        resetGame();
+        simulation = new GameSimulation(flaps, game.scores, game.tickRate, replaySpeed, game.replayFile,
+                game.rewindSeconds);
+        snapshot = simulation.getSnapshot();
+        run = snapshot.getRun();
+        resetView();
     }
 
     @Override
     public void show() {
-
+        Gdx.input.setInputProcessor(flapInput);
+        simulation.start();
     }
 
     @Override
     public void render(float delta) {
-        Gdx.graphics.setTitle("Java Flappy Bird (FPS: " + Integer.toString(Gdx.graphics.getFramesPerSecond()) + ")");
+        recordInputLatency();
+        updateTitle(delta);
+
+        game.profiler.beginUpdate();
         input();
-        logic();
+        update();
+        game.profiler.endUpdate();
+
+        int renderCalls = game.batch.totalRenderCalls;
+        game.profiler.beginDraw();
         draw();
+        game.profiler.endDraw();
+        game.profiler.endFrame(game.batch.totalRenderCalls - renderCalls, textureBinds());
+    }
+
+    // Texture binds are only counted while the debug overlay enables the GL profiler
+    private int textureBinds() {
+        if (!game.glProfiler.isEnabled()) {
+            return -1;
+        }
+        int binds = game.glProfiler.getTextureBindings();
+        game.glProfiler.reset();
+        return binds;
+    }
+
+    void setDebugMode(boolean debugMode) {
+        this.debugMode = debugMode;
+        // The GL profiler checks for errors after every call, so it only runs while visible
+        if (debugMode) {
+            game.glProfiler.enable();
+            game.glProfiler.reset();
+        } else {
+            game.glProfiler.disable();
+        }
     }
 
     @Override
@@ -112,141 +201,224 @@ public class GameScreen implements Screen {
 
     @Override
     public void hide() {
+        simulation.stop();
+        if (Gdx.input.getInputProcessor() == flapInput) {
+            Gdx.input.setInputProcessor(null);
+        }
     }
 
     @Override
     public void pause() {
+        simulation.stop();
     }
 
     @Override
     public void resume() {
+        simulation.start();
     }
 
     @Override
     public void dispose() {
-        bird.dispose();
-        for (Pipe pipe : pipes) {
-            pipe.dispose();
-        }
-        ground.dispose();
+        simulation.dispose();
+        game.assets.release(Assets.ATLAS);
+        game.assets.release(SOUNDS);
+
+        ghosts.dispose();
+        shape.dispose();
+        game.resources.remove(shape);
+        game.glProfiler.disable();
+    }
 
-        for (Texture texture : backgroundTextures) {
-            texture.dispose();
+    // The frame that showed the flap was swapped by the time the next one starts
+    private void recordInputLatency() {
+        if (flapShown) {
+            game.profiler.recordInputLatency(TimeUtils.nanoTime() - shownFlapTime);
+            flapShown = false;
         }
+    }
 
-        backgroundTexture.dispose();
-
-        tapTexture.dispose();
-        getReadyTexture.dispose();
-        gameOverTexture.dispose();
-        btnPlayTexture.dispose();
-        btnHighscoresTexture.dispose();
+    private void updateTitle(float delta) {
+        titleTime += delta;
+        if (titleTime < TITLE_INTERVAL) {
+            return;
+        }
+        titleTime = 0;
 
-        wingSound.dispose();
-        dieSound.dispose();
-        pointSound.dispose();
+        int mode = (simulation.isAutopilot() ? 1 : 0) | (simulation.isRacing() ? 2 : 0);
+        Gdx.graphics.setTitle(titles[mode].get(Gdx.graphics.getFramesPerSecond()));
     }
 
     private void drawBackground() {
-        game.batch.draw(backgroundTexture, 0, 10, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
+        game.batch.draw(backgroundRegion, 0, 10, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
     }
 
     private void drawGetReady() {
         game.batch.draw(
-                getReadyTexture,
-                (game.viewport.getWorldWidth() / 2) - getReadyTexture.getWidth() / 2,
-                (game.viewport.getWorldHeight() / 2) - getReadyTexture.getHeight() / 2 + tapTexture.getHeight());
+                getReadyRegion,
+                (game.viewport.getWorldWidth() / 2) - getReadyRegion.getRegionWidth() / 2,
+                (game.viewport.getWorldHeight() / 2) - getReadyRegion.getRegionHeight() / 2 + tapRegion.getRegionHeight());
         game.batch.draw(
-                tapTexture,
-                (game.viewport.getWorldWidth() / 2) - tapTexture.getWidth() / 2,
-                (game.viewport.getWorldHeight() / 2) - tapTexture.getHeight() / 2);
+                tapRegion,
+                (game.viewport.getWorldWidth() / 2) - tapRegion.getRegionWidth() / 2,
+                (game.viewport.getWorldHeight() / 2) - tapRegion.getRegionHeight() / 2);
     }
 
     private void drawGameOverScreen() {
         game.batch.draw(
-                gameOverTexture,
-                (game.viewport.getWorldWidth() / 2) - gameOverTexture.getWidth() / 2,
-                (game.viewport.getWorldHeight() / 2) - gameOverTexture.getHeight() / 2 + tapTexture.getHeight());
+                gameOverRegion,
+                (game.viewport.getWorldWidth() / 2) - gameOverRegion.getRegionWidth() / 2,
+                (game.viewport.getWorldHeight() / 2) - gameOverRegion.getRegionHeight() / 2 + tapRegion.getRegionHeight());
         game.batch.draw(
-                scoreTexture,
-                (game.viewport.getWorldWidth() / 2) - scoreTexture.getWidth() / 2,
-                (game.viewport.getWorldHeight() / 2) - scoreTexture.getHeight() / 2);
+                scoreRegion,
+                (game.viewport.getWorldWidth() / 2) - scoreRegion.getRegionWidth() / 2,
+                (game.viewport.getWorldHeight() / 2) - scoreRegion.getRegionHeight() / 2);
+        if (snapshot.isNewHighscore()) {
+            game.batch.draw(
+                    newHighscoreRegion,
+                    (game.viewport.getWorldWidth() / 2) + 20,
+                    (game.viewport.getWorldHeight() / 2) - newHighscoreRegion.getRegionHeight());
+        }
         game.batch.draw(
-                btnPlayTexture,
-                (game.viewport.getWorldWidth() / 2) - btnPlayTexture.getWidth() - 7,
-                (game.viewport.getWorldHeight() / 2) - btnPlayTexture.getHeight() / 2 - scoreTexture.getHeight() + 5);
+                btnPlayRegion,
+                (game.viewport.getWorldWidth() / 2) - btnPlayRegion.getRegionWidth() - 7,
+                (game.viewport.getWorldHeight() / 2) - btnPlayRegion.getRegionHeight() / 2 - scoreRegion.getRegionHeight() + 5);
         game.batch.draw(
-                btnHighscoresTexture,
+                btnHighscoresRegion,
                 (game.viewport.getWorldWidth() / 2) + 7,
-                (game.viewport.getWorldHeight() / 2) - btnHighscoresTexture.getHeight() / 2 - scoreTexture.getHeight()
+                (game.viewport.getWorldHeight() / 2) - btnHighscoresRegion.getRegionHeight() / 2 - scoreRegion.getRegionHeight()
                         + 5);
     }
 
     private void input() {
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || Gdx.input.justTouched()) {
-            if (!isPlaying) {
-                isPlaying = true;
-            }
+        // Flaps are queued by FlapInput and taken by the simulation, which also restarts on them
+        if ((Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || Gdx.input.justTouched())
+                && Gdx.input.getY() < game.viewport.getScreenHeight() / 6) {
+            setDebugMode(!debugMode);
+        }
 
-            if (!gameOver) {
-                if (bird.getSprite().getY() < game.viewport.getWorldHeight() - 25 && bird.getSprite().getY() > 0) {
-                    // birdVelocity += FLAP_FORCE; += or = ?
-                    bird.flap();
-                    wingSound.play();
-                } else {
-                    bird.setVelocity(0);
-                }
-            }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.D)) {
+            setDebugMode(!debugMode);
+        }
 
-            if (gameOver && birdIsOnGround) {
-                resetGame();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            simulation.requestRestart();
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.A) && !simulation.setAutopilot(!simulation.isAutopilot())) {
+            Gdx.app.log("Autopilot", "No genome at " + GameSimulation.AUTOPILOT + ", train one with :sim:train");
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.G)) {
+            simulation.requestRace();
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.W)) {
+            if (game.swarmScreen == null) {
+                game.swarmScreen = new SwarmScreen(game);
             }
+            game.setScreen(game.swarmScreen);
+            return;
+        }
 
-            if (Gdx.input.getY() < game.viewport.getScreenHeight() / 6) {
-                debugMode = !debugMode;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.P)) {
+            if (snapshot.isReplaying()) {
+                simulation.requestRestart();
+            } else {
+                simulation.requestReplay();
             }
         }
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.D)) {
-            debugMode = !debugMode;
+        // Held to scrub back and forth through the last seconds
+        int scrub = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+            scrub--;
         }
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+            scrub++;
+        }
+        simulation.setScrub(scrub);
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
-            resetGame();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.UP)) {
+            replaySpeed = Math.min(replaySpeed * 2, MAX_REPLAY_SPEED);
+            simulation.setReplaySpeed(replaySpeed);
         }
-    }
 
-    private void logic() {
-        deltaTime = Gdx.graphics.getDeltaTime();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) {
+            replaySpeed = Math.max(replaySpeed / 2, 1 / MAX_REPLAY_SPEED);
+            simulation.setReplaySpeed(replaySpeed);
+        }
+    }
 
-        if (isPlaying) {
-            if (!gameOver) {
-                addPipes();
-                removePipes();
-                for (Pipe pipe : pipes) {
-                    pipe.move(GAME_SPEED, deltaTime);
-                }
-            }
-            bird.applyPhisics(ground.getGroundRectangle(), deltaTime);
+    // Takes the latest snapshot and catches up with whatever happened since the last one
+    private void update() {
+        snapshot = simulation.getSnapshot();
+        alpha = snapshot.getAlpha(TimeUtils.nanoTime());
+
+        if (snapshot.getRun() != run) {
+            run = snapshot.getRun();
+            resetView();
+            startGhosts();
+        } else if (rewinding && !snapshot.isRewinding()) {
+            startGhosts();
+        }
+        rewinding = snapshot.isRewinding();
+        if (!rewinding) {
+            ghosts.update(snapshot);
         }
 
-        if (!gameOver) {
-            ground.playAnimation(GAME_SPEED, deltaTime);
+        int events = 0;
+        if (snapshot.getFlapEvents() != flapEvents) {
+            events |= GameWorld.EVENT_FLAP;
+        }
+        if (snapshot.getScoreEvents() != scoreEvents) {
+            events |= GameWorld.EVENT_SCORE;
+        }
+        if (snapshot.getHitEvents() != hitEvents) {
+            events |= GameWorld.EVENT_HIT;
+        }
+        if (snapshot.getDieEvents() != dieEvents) {
+            events |= GameWorld.EVENT_DIE;
+        }
+        flapEvents = snapshot.getFlapEvents();
+        scoreEvents = snapshot.getScoreEvents();
+        hitEvents = snapshot.getHitEvents();
+        dieEvents = snapshot.getDieEvents();
+        // Sounds of a fast forwarded replay would pile up
+        if (!snapshot.isReplaying() || replaySpeed <= 1) {
+            playSounds(events);
         }
 
-        bird.playAnimation(gameOver, isPlaying, deltaTime);
+        // Only the latest flap of a skipped snapshot is measured
+        if (snapshot.getAppliedFlaps() != appliedFlaps) {
+            appliedFlaps = snapshot.getAppliedFlaps();
+            shownFlapTime = snapshot.getLastFlapTime();
+            flapShown = true;
+        }
+    }
 
-        if (isPlaying && !gameOver) {
-            updateCollisions();
-            checkCollisions();
+    // Every run of a race starts its ghosts over, a replay has none
+    private void startGhosts() {
+        if (snapshot.isRacing() && !snapshot.isReplaying()) {
+            ghosts.open(Gdx.files.local(GameSimulation.ghostDirectory(snapshot.getSeed())), snapshot.getSeed(),
+                    snapshot.getTickRate());
+        } else {
+            ghosts.close();
         }
+    }
 
-        if (gameOver && bird.getSprite().getRotation() < 20 && !dieSoundPlayed) {
+    private void playSounds(int events) {
+        if ((events & GameWorld.EVENT_FLAP) != 0) {
+            wingSound.play();
+        }
+        if ((events & GameWorld.EVENT_SCORE) != 0) {
+            pointSound.play();
+        }
+        if ((events & GameWorld.EVENT_HIT) != 0) {
+            hitSound.play();
+        }
+        if ((events & GameWorld.EVENT_DIE) != 0) {
             dieSound.play();
-            dieSoundPlayed = true;
         }
-
-        birdIsOnGround = bird.getSprite().getY() <= ground.getGroundRectangle().height;
     }
 
     private void draw() {
@@ -257,29 +429,27 @@ public class GameScreen implements Screen {
         game.batch.begin();
 
         drawBackground();
-        if (!isPlaying) {
+        if (!snapshot.isPlaying()) {
             drawGetReady();
         }
 
-        for (Pipe pipe : pipes) {
-            pipe.draw();
+        pipe.draw(snapshot, alpha);
+        if (!rewinding) {
+            ghosts.draw(snapshot, alpha);
         }
-        bird.draw();
-        ground.draw();
-
-        if (isPlaying && !gameOver && !debugMode) {
-            GlyphLayout scoreText = new GlyphLayout();
-            scoreText.setText(game.font, score.toString());
+        bird.draw(snapshot, alpha);
+        ground.draw(snapshot, alpha);
 
+        if (snapshot.isPlaying() && !snapshot.isGameOver() && !debugMode) {
             game.font.setColor(Color.WHITE);
-            game.font.draw(
+            scoreText.draw(
                     game.batch,
-                    scoreText,
-                    (game.viewport.getWorldWidth() / 2) - scoreText.width / 2,
+                    snapshot.getScore(),
+                    game.viewport.getWorldWidth() / 2,
                     game.viewport.getWorldHeight() - 30);
         }
 
-        if (gameOver && birdIsOnGround) {
+        if (snapshot.isGameOver() && snapshot.isBirdOnGround()) {
             drawGameOverScreen();
         }
 
@@ -288,63 +458,16 @@ public class GameScreen implements Screen {
         debug();
     }
 
-    private void resetGame() {
-        bird = new Bird(this.game);
-        ground = new Ground(this.game);
-
-        pipes = new ArrayList<>();
-        pipes.add(new Pipe(this.game));
-
-        score = 0;
-        isPlaying = false;
-        gameOver = false;
-        dieSoundPlayed = false;
+    /**
+     * Restarts the views in place for the run the simulation just started.
+     * Entities are reset, not rebuilt, so a restart loads and allocates
+     * nothing.
+     */
+    private void resetView() {
+        bird.reset();
+        ground.reset();
 
-        backgroundTexture = backgroundTextures.get(MathUtils.random(backgroundTextures.size() - 1));
-    }
-
-    private void updateCollisions() {
-        for (Pipe pipe : pipes) {
-            pipe.updateCollisions(GAME_SPEED, deltaTime);
-        }
-        bird.updateCollision();
-    }
-
-    private void checkCollision(Rectangle rectangle) {
-        if (bird.getRectangle().overlaps(rectangle)) {
-            gameOver = true;
-            hitSound.play();
-        }
-    }
-
-    private void checkCollisions() {
-        for (Pipe pipe : pipes) {
-            checkCollision(pipe.getTopRectangle());
-            checkCollision(pipe.getBottomRectangle());
-        }
-        checkCollision(ground.getGroundRectangle());
-        checkScore();
-    }
-
-    private void checkScore() {
-        if (bird.getRectangle().overlaps(pipes.get(0).getScoreRectangle())) {
-            score++;
-            pipes.get(0).setScoreRectangle(new Rectangle());
-            pointSound.play();
-        }
-    }
-
-    private void addPipes() {
-        if (pipes.get(pipes.size() - 1).getBottomRectangle().getX() < game.viewport.getWorldWidth()
-                - HORIZONTAL_PIPE_GAP) {
-            pipes.add(new Pipe(this.game));
-        }
-    }
-
-    private void removePipes() {
-        if (pipes.get(0).getBottomSprite().getX() < -pipes.get(0).getBottomSprite().getWidth()) {
-            pipes.remove(0);
-        }
+        backgroundRegion = backgroundRegions[MathUtils.random(backgroundRegions.length - 1)];
     }
 
     @SuppressWarnings("unused")
@@ -353,45 +476,50 @@ public class GameScreen implements Screen {
             shape.begin(ShapeType.Filled);
 
             // Pipes Collisions
-            for (Pipe pipe : pipes) {
+            for (int i = 0; i < snapshot.getPipeCount(); i++) {
+                float x = snapshot.getPipeX(i);
+                float gapY = snapshot.getPipeGapY(i);
                 shape.setColor(Color.RED);
                 shape.rect(
-                        pipe.getTopRectangle().getX() * 2,
-                        pipe.getTopRectangle().getY() * 2,
-                        pipe.getTopRectangle().getWidth() * 2,
-                        pipe.getTopRectangle().getHeight() * 2);
+                        x * 2,
+                        (gapY + GameWorld.VERTICAL_PIPE_GAP) * 2,
+                        GameWorld.PIPE_WIDTH * 2,
+                        GameWorld.PIPE_HEIGHT * 2);
                 shape.rect(
-                        pipe.getBottomRectangle().getX() * 2,
-                        pipe.getBottomRectangle().getY() * 2,
-                        pipe.getBottomRectangle().getWidth() * 2,
-                        pipe.getBottomRectangle().getHeight() * 2);
+                        x * 2,
+                        (gapY - GameWorld.PIPE_HEIGHT - GameWorld.VERTICAL_PIPE_GAP) * 2,
+                        GameWorld.PIPE_WIDTH * 2,
+                        GameWorld.PIPE_HEIGHT * 2);
             }
 
             // Score area
-            for (Pipe pipe : pipes) {
+            for (int i = 0; i < snapshot.getPipeCount(); i++) {
+                if (snapshot.isPipeScored(i)) {
+                    continue;
+                }
                 shape.setColor(Color.GREEN);
                 shape.rect(
-                        pipe.getScoreRectangle().getX() * 2,
-                        pipe.getScoreRectangle().getY() * 2,
-                        pipe.getScoreRectangle().getWidth() * 2,
-                        pipe.getScoreRectangle().getHeight() * 2);
+                        (snapshot.getPipeX(i) + GameWorld.SCORE_ZONE_OFFSET) * 2,
+                        (snapshot.getPipeGapY(i) - GameWorld.VERTICAL_PIPE_GAP * 1.5f) * 2,
+                        GameWorld.SCORE_ZONE_WIDTH * 2,
+                        GameWorld.SCORE_ZONE_HEIGHT * 2);
             }
 
             // Bird Collision
             shape.setColor(Color.YELLOW);
             shape.rect(
-                    bird.getRectangle().getX() * 2,
-                    bird.getRectangle().getY() * 2,
-                    bird.getRectangle().getWidth() * 2,
-                    bird.getRectangle().getHeight() * 2);
+                    snapshot.getBirdHitboxX() * 2,
+                    snapshot.getBirdHitboxY() * 2,
+                    GameWorld.BIRD_HITBOX * 2,
+                    GameWorld.BIRD_HITBOX * 2);
 
             // Ground Collision
             shape.setColor(Color.RED);
             shape.rect(
-                    ground.getGroundRectangle().getX() * 2,
-                    ground.getGroundRectangle().getY() * 2,
-                    ground.getGroundRectangle().getWidth() * 2,
-                    ground.getGroundRectangle().getHeight() * 2);
+                    0,
+                    0,
+                    GameWorld.GROUND_WIDTH * 2,
+                    GameWorld.GROUND_HEIGHT * 2);
 
             shape.end();
 
@@ -399,14 +527,54 @@ public class GameScreen implements Screen {
             game.batch.begin();
             game.font.getData().setScale(0.55f);
             game.font.setColor(Color.WHITE);
-            game.font.draw(game.batch, "COLLISIONS: " + pipes.size() * 2, 0,
-                    game.viewport.getWorldHeight());
-            game.font.draw(game.batch, "SCORE AREAS: " + pipes.size(), 0,
-                    game.viewport.getWorldHeight() - 14);
-            game.font.draw(game.batch, "TOTAL PIPES: " + pipes.size() * 2, 0,
-                    game.viewport.getWorldHeight() - 28);
-            game.font.draw(game.batch, "SCORE: " + score, 0,
-                    game.viewport.getWorldHeight() - 50);
+            float y = game.viewport.getWorldHeight();
+            debugText.draw(game.batch, "COLLISIONS: ", snapshot.getPipeCount() * 2, 0, y);
+            debugText.draw(game.batch, "SCORE AREAS: ", snapshot.getPipeCount(), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "TOTAL PIPES: ", snapshot.getPipeCount() * 2, 0, y -= DebugText.LINE_HEIGHT);
+            // Spawns into a ring slot a pipe had left, out of all spawns, and spawns refused by a full ring
+            debugText.drawFraction(game.batch, "RECYCLED: ", snapshot.getRecycledPipes(), snapshot.getSpawnedPipes(),
+                    "FULL: ", snapshot.getRefusedPipes(), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "SCORE: ", snapshot.getScore(), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "ASSET LOADS: ", game.assets.getLoadCount(), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "TICK: ", snapshot.getTick(), 0, y -= DebugText.LINE_HEIGHT);
+            // Seconds of rewind history and the memory each second of it takes
+            debugText.drawPerSecond(game.batch, snapshot.isRewinding() ? "REWIND" : "HISTORY",
+                    snapshot.getHistoryTicks() / snapshot.getTickRate(),
+                    (long) WorldHistory.BYTES_PER_TICK * snapshot.getTickRate(), 0, y -= DebugText.LINE_HEIGHT);
+
+            // Frame profile: p50 p95 p99 max
+            FrameProfiler profiler = game.profiler;
+            debugText.draw(game.batch, "UPD", profiler.getHistogram(FrameProfiler.UPDATE), NANOS_PER_MILLI, 0,
+                    y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "DRW", profiler.getHistogram(FrameProfiler.DRAW), NANOS_PER_MILLI, 0,
+                    y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "GC", profiler.getHistogram(FrameProfiler.GC), NANOS_PER_MILLI, 0,
+                    y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "RC", profiler.getHistogram(FrameProfiler.RENDER_CALLS), 1, 0,
+                    y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "TEX", profiler.getHistogram(FrameProfiler.TEXTURE_BINDS), 1, 0,
+                    y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "LAT", profiler.getHistogram(FrameProfiler.INPUT_LATENCY), NANOS_PER_MILLI, 0,
+                    y -= DebugText.LINE_HEIGHT);
+
+            // Live native resources: count and size
+            ResourceTracker resources = game.resources;
+            debugText.draw(game.batch, "TEXTURES", resources.getCount(ResourceTracker.TEXTURE),
+                    resources.getBytes(ResourceTracker.TEXTURE), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "SOUNDS", resources.getCount(ResourceTracker.SOUND),
+                    resources.getBytes(ResourceTracker.SOUND), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "RENDERERS", resources.getCount(ResourceTracker.RENDERER),
+                    resources.getBytes(ResourceTracker.RENDERER), 0, y -= DebugText.LINE_HEIGHT);
+            debugText.draw(game.batch, "FONTS", resources.getCount(ResourceTracker.FONT),
+                    resources.getBytes(ResourceTracker.FONT), 0, y -= DebugText.LINE_HEIGHT);
+
+            // A replay races no ghosts, the two share the last line
+            y -= DebugText.LINE_HEIGHT;
+            if (snapshot.isReplaying()) {
+                debugText.draw(game.batch, "REPLAY %: ", (long) (replaySpeed * 100), 0, y);
+            } else if (snapshot.isRacing()) {
+                debugText.draw(game.batch, "GHOSTS: ", ghosts.getCount(), 0, y);
+            }
             game.batch.end();
         } else {
             game.font.getData().setScale(1f);
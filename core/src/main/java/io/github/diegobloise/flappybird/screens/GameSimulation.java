@@ -0,0 +1,552 @@
+package io.github.diegobloise.flappybird.screens;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import io.github.diegobloise.flappybird.bot.NeuralPolicy;
+import io.github.diegobloise.flappybird.entities.Ghosts;
+import io.github.diegobloise.flappybird.input.TimestampQueue;
+import io.github.diegobloise.flappybird.replay.GhostRecorder;
+import io.github.diegobloise.flappybird.replay.Replay;
+import io.github.diegobloise.flappybird.replay.ReplayPlayer;
+import io.github.diegobloise.flappybird.replay.ReplayRecorder;
+import io.github.diegobloise.flappybird.scores.ScoreStore;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.SnapshotBuffer;
+import io.github.diegobloise.flappybird.world.WorldHistory;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
+
+/**
+ * Runs the {@link GameWorld} of the {@link GameScreen} on a thread of its
+ * own, one tick every {@code 1 / tickRate} seconds of wall clock time, so a
+ * slow frame or a vsync wait on the render thread never delays a tick.
+ *
+ * Flaps come in through a {@link TimestampQueue}, restarts and replays
+ * through request bits, and the state after every batch of ticks goes out as
+ * a {@link WorldSnapshot}. Recording and playing back replays, and logging
+ * finished runs to the {@link ScoreStore}, happen here too, the render
+ * thread never touches the world. So does the autopilot, a trained
+ * {@link NeuralPolicy} that flies instead of the player while switched on.
+ *
+ * The track of a run that sets a new highscore, or of any run in a race,
+ * is saved as a ghost in the directory of its course. A race restarts on
+ * the course of the best run that has ghosts, again and again until it is
+ * switched off.
+ *
+ * Every tick is also saved to a {@link WorldHistory}, the game can be
+ * scrubbed back and forth through its last seconds. A run played on from a
+ * rewound tick is practice, it is neither logged nor saved as a ghost.
+ *
+ * The files a finished run leaves behind are written by a {@link RunWriter},
+ * a tick never waits for the disk.
+ */
+class GameSimulation implements Runnable {
+
+    // Every finished run is saved here
+    static final String LAST_REPLAY = "replays/last.fbr";
+    // Written by the trainer in the sim module
+    static final String AUTOPILOT = "bots/autopilot.nn";
+    // Ghost tracks, a directory per course seed
+    static final String GHOSTS = "ghosts/";
+
+    private static final int REQUEST_RESTART = 1;
+    private static final int REQUEST_REPLAY = 1 << 1;
+    private static final int REQUEST_RACE = 1 << 2;
+
+    // A stall longer than this is skipped instead of caught up, like a clamped frame
+    private static final long MAX_LAG_NANOS = 250_000_000L;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    // The autopilot restarts by itself once the game over screen was shown this long
+    private static final float AUTOPILOT_RESTART_SECONDS = 1;
+
+    // Ticks of history scrubbed through per tick while a scrub key is held
+    private static final int SCRUB_SPEED = 2;
+
+    private final TimestampQueue flaps;
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile float replaySpeed;
+    private volatile boolean running;
+    private Thread thread;
+
+    private final int tickRate;
+    private GameWorld world;
+    // Seeds courses, MathUtils.random belongs to the render thread
+    private final RandomXS128 random = new RandomXS128();
+    private long nextTick;
+
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private boolean recording;
+    private Replay lastReplay;
+    private ReplayPlayer replayPlayer;
+
+    private final WorldHistory history;
+    // -1, 0 or 1, set by the render thread while a scrub key is held
+    private volatile int scrubDirection;
+    // Tick the world is rewound to, -1 while it runs
+    private int scrubTick = -1;
+    private boolean rewound;
+
+    private final GhostRecorder ghostRecorder = new GhostRecorder();
+    private volatile boolean racing;
+    private long raceSeed;
+
+    // May be null, runs are then not logged
+    private final ScoreStore scores;
+    private boolean newHighscore;
+    private final RunWriter writer;
+
+    // Null without a trained genome
+    private final NeuralPolicy autopilot;
+    private volatile boolean autopilotOn;
+    // Runs the autopilot flew any part of aren't the player's scores
+    private boolean autopiloted;
+    private int gameOverTicks;
+
+    private int run;
+    private long flapEvents;
+    private long scoreEvents;
+    private long hitEvents;
+    private long dieEvents;
+    private long appliedFlaps;
+    private long lastFlapTime;
+
+    GameSimulation(TimestampQueue flaps, ScoreStore scores, int tickRate, float replaySpeed, String replayFile,
+            int rewindSeconds) {
+        this.flaps = flaps;
+        this.scores = scores;
+        writer = new RunWriter(scores);
+        this.tickRate = tickRate;
+        this.replaySpeed = replaySpeed;
+        history = new WorldHistory(Math.max(1, rewindSeconds * tickRate));
+        autopilot = loadAutopilot();
+
+        world = new GameWorld(tickRate, 0);
+        nextTick = TimeUtils.nanoTime();
+        restart();
+
+        if (replayFile != null) {
+            lastReplay = loadReplay(replayFile);
+            if (lastReplay != null) {
+                startReplay(lastReplay);
+            }
+        } else {
+            lastReplay = loadReplay(LAST_REPLAY);
+        }
+        // Published before the thread starts, so the first frame has something to draw
+        publish();
+    }
+
+    /**
+     * Starts ticking from now on. Time spent stopped is not caught up.
+     */
+    void start() {
+        if (thread != null) {
+            return;
+        }
+        flaps.clear();
+        nextTick = TimeUtils.nanoTime();
+        running = true;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops ticking and waits for the thread to finish its last batch, and
+     * for the runs it finished to be written.
+     */
+    void stop() {
+        if (thread != null) {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        awaitWrites();
+    }
+
+    /**
+     * Stops for good, once the runs finished so far are written.
+     */
+    void dispose() {
+        stop();
+        writer.close();
+    }
+
+    /**
+     * Waits until the replays, scores and ghosts of the runs finished so far
+     * are written.
+     */
+    void awaitWrites() {
+        writer.await();
+    }
+
+    /**
+     * Restarts the game at the next tick, ending a replay.
+     */
+    void requestRestart() {
+        request(REQUEST_RESTART);
+    }
+
+    /**
+     * Plays the last replay back at the next tick, if there is one.
+     */
+    void requestReplay() {
+        request(REQUEST_REPLAY);
+    }
+
+    /**
+     * Starts racing the ghosts of the best run at the next tick, or stops
+     * if racing already.
+     */
+    void requestRace() {
+        request(REQUEST_RACE);
+    }
+
+    boolean isRacing() {
+        return racing;
+    }
+
+    static String ghostDirectory(long seed) {
+        return GHOSTS + String.format(Locale.ROOT, "%016x", seed);
+    }
+
+    /**
+     * Scrubs through the history while non-zero, -1 backward and 1 forward.
+     * A rewound run then waits at its tick for a tap to play on from there,
+     * a replay or the autopilot play on by themselves.
+     */
+    void setScrub(int direction) {
+        scrubDirection = direction;
+    }
+
+    void setReplaySpeed(float replaySpeed) {
+        this.replaySpeed = replaySpeed;
+    }
+
+    /**
+     * Switches the autopilot on or off from the next tick.
+     *
+     * @return false if there is no autopilot to switch on
+     */
+    boolean setAutopilot(boolean on) {
+        if (on && autopilot == null) {
+            return false;
+        }
+        autopilotOn = on;
+        return true;
+    }
+
+    boolean isAutopilot() {
+        return autopilotOn;
+    }
+
+    /**
+     * The latest state, see {@link SnapshotBuffer#getFront()}. Only called by
+     * the render thread.
+     */
+    WorldSnapshot getSnapshot() {
+        return snapshots.getFront();
+    }
+
+    private void request(int request) {
+        int current;
+        do {
+            current = requests.get();
+        } while (!requests.compareAndSet(current, current | request));
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            update(TimeUtils.nanoTime());
+            LockSupport.parkNanos(this, nextTick - TimeUtils.nanoTime());
+        }
+    }
+
+    /**
+     * Handles the pending requests, runs every tick due by {@code now} and
+     * publishes the state after them. Called by the thread, or by a test
+     * that drives a simulation it never started with a clock of its own.
+     */
+    void update(long now) {
+        handleRequests(now);
+
+        if (now - nextTick > MAX_LAG_NANOS) {
+            nextTick = now - MAX_LAG_NANOS;
+        }
+        if (nextTick <= now) {
+            while (nextTick <= now) {
+                tick();
+                nextTick += tickNanos();
+            }
+            publish();
+        }
+    }
+
+    private long tickNanos() {
+        long nanos = (long) (world.getDeltaTime() * NANOS_PER_SECOND);
+        return replayPlayer == null ? nanos : Math.max(1, (long) (nanos / replaySpeed));
+    }
+
+    private void handleRequests(long now) {
+        int pending = requests.getAndSet(0);
+        if ((pending & REQUEST_RESTART) != 0) {
+            restart();
+        } else if ((pending & REQUEST_REPLAY) != 0 && lastReplay != null) {
+            startReplay(lastReplay);
+            nextTick = now;
+        } else if ((pending & REQUEST_RACE) != 0) {
+            toggleRace();
+        }
+    }
+
+    // The tick due at nextTick, it takes the flaps that happened up to then
+    private void tick() {
+        long flapTime = flaps.poll(nextTick);
+        if (scrub(flapTime)) {
+            return;
+        }
+        boolean autopiloting = autopilotOn && replayPlayer == null;
+        if (world.isGameOver() && world.isBirdOnGround()) {
+            gameOverTicks++;
+            // The tap that restarts isn't a flap of the new run
+            if (flapTime != TimestampQueue.NONE
+                    || autopiloting && gameOverTicks >= AUTOPILOT_RESTART_SECONDS * world.getTickRate()) {
+                restart();
+                return;
+            }
+        }
+
+        boolean flap;
+        if (replayPlayer != null) {
+            // Taps don't steer a replay
+            flap = replayPlayer.shouldFlap(world);
+        } else if (autopiloting) {
+            // Nor the autopilot, which is recorded like the player
+            flap = autopilot.shouldFlap(world);
+            autopiloted = true;
+            if (recording) {
+                recorder.record(world, flap);
+            }
+        } else {
+            flap = flapTime != TimestampQueue.NONE;
+            if (flap) {
+                appliedFlaps++;
+                lastFlapTime = flapTime;
+            }
+            if (recording) {
+                recorder.record(world, flap);
+            }
+        }
+
+        world.step(flap);
+        history.save(world);
+        countEvents(world.getEvents());
+        if (recording) {
+            ghostRecorder.record(world);
+        }
+
+        if (recording && world.isGameOver()) {
+            recording = false;
+            lastReplay = recorder.finish(world);
+            writer.saveReplay(lastReplay, LAST_REPLAY);
+            logScore();
+            if (!autopiloted && !rewound && (racing || newHighscore)) {
+                saveGhost();
+            }
+        }
+    }
+
+    // Moves through the history instead of ticking, false once the world plays on
+    private boolean scrub(long flapTime) {
+        int direction = scrubDirection;
+        if (scrubTick < 0) {
+            if (direction == 0) {
+                return false;
+            }
+            scrubTick = world.getTick();
+        }
+
+        if (direction != 0) {
+            int tick = scrubTick + direction * SCRUB_SPEED;
+            tick = Math.max(history.getOldestTick(), Math.min(history.getNewestTick(), tick));
+            if (tick != scrubTick && history.restore(tick, world)) {
+                scrubTick = tick;
+            }
+            return true;
+        }
+        if (replayPlayer == null && !autopilotOn && flapTime == TimestampQueue.NONE) {
+            return true;
+        }
+
+        // The future that was rewound over is gone, the tap that plays on is the first flap of the new one
+        history.truncate(scrubTick);
+        if (replayPlayer != null) {
+            replayPlayer.rewind();
+        } else {
+            recorder.rewind(scrubTick);
+            recording = !world.isGameOver();
+            rewound = true;
+            newHighscore = false;
+            gameOverTicks = 0;
+        }
+        scrubTick = -1;
+        return false;
+    }
+
+    private void logScore() {
+        if (scores == null || autopiloted || rewound) {
+            return;
+        }
+        newHighscore = scores.isNewHighscore(world.getScore());
+        writer.logScore(world.getScore(), world.getTick(), world.getSeed(), System.currentTimeMillis());
+    }
+
+    private void countEvents(int events) {
+        if ((events & GameWorld.EVENT_FLAP) != 0) {
+            flapEvents++;
+        }
+        if ((events & GameWorld.EVENT_SCORE) != 0) {
+            scoreEvents++;
+        }
+        if ((events & GameWorld.EVENT_HIT) != 0) {
+            hitEvents++;
+        }
+        if ((events & GameWorld.EVENT_DIE) != 0) {
+            dieEvents++;
+        }
+    }
+
+    private void publish() {
+        WorldSnapshot snapshot = snapshots.getBack();
+        // The last tick was due one tick before nextTick
+        long tickNanos = tickNanos();
+        snapshot.set(world, nextTick - tickNanos, tickNanos);
+        snapshot.setSimulation(run, replayPlayer != null, flapEvents, scoreEvents, hitEvents, dieEvents,
+                appliedFlaps, lastFlapTime);
+        snapshot.setNewHighscore(newHighscore);
+        snapshot.setRacing(racing);
+        snapshot.setRewind(scrubTick >= 0, history.getCount());
+        snapshots.publish();
+    }
+
+    private void restart() {
+        if (world.getTickRate() != tickRate) {
+            world = new GameWorld(tickRate, 0);
+        }
+        world.reset(racing ? raceSeed : random.nextLong());
+        flaps.clear();
+        replayPlayer = null;
+        recorder.begin(world);
+        ghostRecorder.begin(world);
+        history.save(world);
+        scrubTick = -1;
+        rewound = false;
+        recording = true;
+        newHighscore = false;
+        autopiloted = false;
+        gameOverTicks = 0;
+        run++;
+    }
+
+    private void startReplay(Replay replay) {
+        restart();
+        recording = false;
+
+        // Replays recorded at another tick rate need a world running at that rate
+        if (world.getTickRate() != replay.getTickRate()) {
+            world = new GameWorld(replay.getTickRate(), replay.getSeed());
+        }
+        replayPlayer = new ReplayPlayer(replay);
+        replayPlayer.start(world);
+        history.save(world);
+    }
+
+    private void toggleRace() {
+        if (!racing) {
+            long seed = findRaceSeed();
+            if (seed == 0) {
+                Gdx.app.log("Race", "No ghosts yet, set a new highscore to race it");
+                return;
+            }
+            raceSeed = seed;
+        }
+        racing = !racing;
+        restart();
+    }
+
+    // Course of the best run with ghosts, or 0 if there is none
+    private long findRaceSeed() {
+        if (scores != null) {
+            for (int rank = 0; rank < scores.getTopCount(); rank++) {
+                long seed = scores.getTopSeed(rank);
+                if (Gdx.files.local(ghostDirectory(seed)).isDirectory()) {
+                    return seed;
+                }
+            }
+        }
+        if (lastReplay != null && Gdx.files.local(ghostDirectory(lastReplay.getSeed())).isDirectory()) {
+            return lastReplay.getSeed();
+        }
+        return 0;
+    }
+
+    private void saveGhost() {
+        if (ghostRecorder.getCount() == 0) {
+            return;
+        }
+        String fileName = ghostDirectory(world.getSeed()) + "/"
+                + Ghosts.fileName(world.getScore(), System.currentTimeMillis());
+        ByteArrayOutputStream ghost = new ByteArrayOutputStream();
+        try {
+            ghostRecorder.write(ghost);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        writer.saveGhost(ghost.toByteArray(), fileName);
+    }
+
+    private NeuralPolicy loadAutopilot() {
+        FileHandle file = Gdx.files.local(AUTOPILOT);
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream input = file.read()) {
+            return NeuralPolicy.read(input);
+        } catch (IOException e) {
+            Gdx.app.error("Autopilot", "Could not read " + AUTOPILOT, e);
+            return null;
+        }
+    }
+
+    private Replay loadReplay(String fileName) {
+        FileHandle file = Gdx.files.local(fileName);
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream input = file.read()) {
+            return Replay.read(input);
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Could not read " + fileName, e);
+            return null;
+        }
+    }
+}
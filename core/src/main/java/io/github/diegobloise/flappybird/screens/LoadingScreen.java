@@ -0,0 +1,114 @@
+package io.github.diegobloise.flappybird.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import io.github.diegobloise.flappybird.Assets;
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.profiling.ResourceTracker;
+
+/**
+ * First screen of the game. Shows the boot splash with a progress bar while
+ * the atlas and the font load a few milliseconds per frame, then switches to
+ * the {@link MainMenuScreen}.
+ */
+public class LoadingScreen implements Screen {
+
+    final FlappyBird game;
+
+    // Time per frame given to the asset manager, the rest is left to draw and swap
+    private static final int LOAD_BUDGET_MILLIS = 10;
+
+    private static final float BAR_WIDTH = 80;
+    private static final float BAR_HEIGHT = 4;
+    private static final float BAR_Y = 40;
+
+    private final long startTime;
+
+    private Texture bootSplashTexture;
+    private ShapeRenderer shape;
+
+    public LoadingScreen(final FlappyBird game) {
+        this.game = game;
+
+        startTime = TimeUtils.nanoTime();
+
+        // The only synchronous load, a single small image so the first frame isn't black
+        bootSplashTexture = game.assets.acquire(Assets.BOOT_SPLASH_TEXTURE, Texture.class);
+        game.assets.load(Assets.ATLAS, TextureAtlas.class);
+
+        shape = new ShapeRenderer();
+        game.resources.add(shape, ResourceTracker.RENDERER, ResourceTracker.SHAPE_RENDERER_BYTES, "loading bar");
+    }
+
+    @Override
+    public void show() {
+    }
+
+    @Override
+    public void render(float delta) {
+        boolean loaded = game.assets.update(LOAD_BUDGET_MILLIS);
+
+        ScreenUtils.clear(Color.BLACK);
+        game.viewport.apply();
+        game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
+
+        game.batch.begin();
+        game.batch.draw(bootSplashTexture, 0, 10, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
+        game.batch.end();
+
+        float x = (game.viewport.getWorldWidth() - BAR_WIDTH) / 2;
+        shape.setProjectionMatrix(game.viewport.getCamera().combined);
+        shape.begin(ShapeType.Filled);
+        shape.setColor(Color.BLACK);
+        shape.rect(x - 1, BAR_Y - 1, BAR_WIDTH + 2, BAR_HEIGHT + 2);
+        shape.setColor(Color.WHITE);
+        shape.rect(x, BAR_Y, BAR_WIDTH * game.assets.getProgress(), BAR_HEIGHT);
+        shape.end();
+
+        if (loaded) {
+            Gdx.app.log("Assets", "Boot loading took " + TimeUtils.timeSinceNanos(startTime) / 1_000_000 + " ms");
+
+            game.font = game.assets.get(Assets.FONT, BitmapFont.class);
+            game.font.setUseIntegerPositions(false);
+
+            // Switch first so the atlas both screens share stays loaded
+            game.mainMenuScreen = new MainMenuScreen(game);
+            game.setScreen(game.mainMenuScreen);
+            dispose();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        game.viewport.update(width, height, true);
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+
+    @Override
+    public void dispose() {
+        game.assets.release(Assets.BOOT_SPLASH_TEXTURE, Assets.ATLAS);
+
+        shape.dispose();
+        game.resources.remove(shape);
+    }
+}
@@ -3,13 +3,13 @@ package io.github.diegobloise.flappybird.screens;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.ScreenUtils;
 
+import io.github.diegobloise.flappybird.Assets;
 import io.github.diegobloise.flappybird.FlappyBird;
 
 public class MainMenuScreen implements Screen {
@@ -18,15 +18,18 @@ public class MainMenuScreen implements Screen {
 
     private final float FLY_SPEED = -40;
 
+    // Background loading of the game assets per frame, the menu is cheap to draw
+    private final int PRELOAD_BUDGET_MILLIS = 4;
+
     private float deltaTime;
     private float time;
 
-    private Texture bootSplashTexture;
-    private Texture groundTexture;
-    private Texture birdTexture;
-    private Texture btnPlayTexture;
-    private Texture btnHighscoresTexture;
-    private Texture btnRateTexture;
+    private TextureRegion bootSplashRegion;
+    private TextureRegion groundRegion;
+    private TextureRegion birdRegion;
+    private TextureRegion btnPlayRegion;
+    private TextureRegion btnHighscoresRegion;
+    private TextureRegion btnRateRegion;
 
     private Animation<TextureRegion> birdAnimation;
     private float animationTime;
@@ -38,13 +41,18 @@ public class MainMenuScreen implements Screen {
     public MainMenuScreen(final FlappyBird game) {
         this.game = game;
 
-        bootSplashTexture = new Texture(Gdx.files.internal("sprites/boot_splash.png"));
-        btnPlayTexture = new Texture("sprites/btn_play.png");
-        btnHighscoresTexture = new Texture("sprites/btn_highscores.png");
-        btnRateTexture = new Texture("sprites/btn_rate.png");
+        game.assets.acquireAtlas();
+
+        // Loaded while the menu shows, so starting the game doesn't hitch
+        game.assets.loadSounds(GameScreen.SOUNDS);
+
+        bootSplashRegion = game.assets.region(Assets.BOOT_SPLASH);
+        btnPlayRegion = game.assets.region(Assets.BTN_PLAY);
+        btnHighscoresRegion = game.assets.region(Assets.BTN_HIGHSCORES);
+        btnRateRegion = game.assets.region(Assets.BTN_RATE);
 
-        groundTexture = new Texture("sprites/ground.png");
-        birdTexture = new Texture(Gdx.files.internal("sprites/bird_1.png"));
+        groundRegion = game.assets.region(Assets.GROUND);
+        birdRegion = game.assets.region(Assets.BIRD_1);
 
         initializeBirdAnimations();
         TextureRegion currentFrame = birdAnimation.getKeyFrame(animationTime);
@@ -60,13 +68,18 @@ public class MainMenuScreen implements Screen {
         birdSprite.setPosition(birdStartPosition.x - birdSprite.getWidth() / 2,
                 birdStartPosition.y - birdSprite.getHeight() / 2);
 
-        groundSprite = new Sprite(groundTexture);
+        groundSprite = new Sprite(groundRegion);
     }
 
     public void show() {
     }
 
     public void render(float delta) {
+        // The game screen is built as soon as its assets are in, a tap only switches to it
+        if (game.assets.update(PRELOAD_BUDGET_MILLIS) && game.gameScreen == null) {
+            game.gameScreen = new GameScreen(game);
+        }
+
         deltaTime = Gdx.graphics.getDeltaTime();
 
         ScreenUtils.clear(Color.BLACK);
@@ -89,29 +102,31 @@ public class MainMenuScreen implements Screen {
 
         game.batch.begin();
 
-        game.batch.draw(bootSplashTexture, 0, 10, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
+        game.batch.draw(bootSplashRegion, 0, 10, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
         birdSprite.draw(game.batch);
         groundSprite.draw(game.batch);
 
         game.batch.draw(
-                btnPlayTexture,
-                (game.viewport.getWorldWidth() / 2) - btnPlayTexture.getWidth() - 7,
-                (game.viewport.getWorldHeight() / 2) - btnPlayTexture.getHeight() / 2 - 57 + 5);
+                btnPlayRegion,
+                (game.viewport.getWorldWidth() / 2) - btnPlayRegion.getRegionWidth() - 7,
+                (game.viewport.getWorldHeight() / 2) - btnPlayRegion.getRegionHeight() / 2 - 57 + 5);
         game.batch.draw(
-                btnHighscoresTexture,
+                btnHighscoresRegion,
                 (game.viewport.getWorldWidth() / 2) + 7,
-                (game.viewport.getWorldHeight() / 2) - btnHighscoresTexture.getHeight() / 2 - 57
+                (game.viewport.getWorldHeight() / 2) - btnHighscoresRegion.getRegionHeight() / 2 - 57
                         + 5);
         game.batch.draw(
-                btnRateTexture,
-                (game.viewport.getWorldWidth() / 2) - btnRateTexture.getWidth() / 2,
+                btnRateRegion,
+                (game.viewport.getWorldWidth() / 2) - btnRateRegion.getRegionWidth() / 2,
                 (game.viewport.getWorldHeight() / 2) - 20);
 
         game.batch.end();
 
         if (Gdx.input.justTouched()) {
-            dispose();
-            game.setScreen(new GameScreen(game));
+            if (game.gameScreen == null) {
+                game.gameScreen = new GameScreen(game);
+            }
+            game.setScreen(game.gameScreen);
         }
     }
 
@@ -129,18 +144,14 @@ public class MainMenuScreen implements Screen {
     }
 
     public void dispose() {
-        bootSplashTexture.dispose();
-        groundTexture.dispose();
-        birdTexture.dispose();
-        btnPlayTexture.dispose();
-        btnHighscoresTexture.dispose();
-        btnRateTexture.dispose();
+        game.assets.release(Assets.ATLAS);
+        game.assets.release(GameScreen.SOUNDS);
     }
 
     private void initializeBirdAnimations() {
-        int frameWidth = birdTexture.getWidth() / 4;
-        int frameHeight = birdTexture.getHeight();
-        TextureRegion[][] regions = TextureRegion.split(birdTexture, frameWidth, frameHeight);
+        int frameWidth = birdRegion.getRegionWidth() / 4;
+        int frameHeight = birdRegion.getRegionHeight();
+        TextureRegion[][] regions = birdRegion.split(frameWidth, frameHeight);
 
         TextureRegion[] frames = regions[0];
 
@@ -0,0 +1,124 @@
+package io.github.diegobloise.flappybird.screens;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Gdx;
+
+import io.github.diegobloise.flappybird.replay.Replay;
+import io.github.diegobloise.flappybird.scores.ScoreStore;
+
+/**
+ * Writes what a finished run leaves behind, its replay, its score and its
+ * ghost, on a thread of its own, so the {@link GameSimulation} never waits
+ * for the disk at game over. Everything handed over is a copy the
+ * simulation doesn't touch again, and is written in the order it was
+ * handed over.
+ */
+class RunWriter {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Run writer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // May be null, runs are then not logged
+    private final ScoreStore scores;
+
+    RunWriter(ScoreStore scores) {
+        this.scores = scores;
+    }
+
+    void saveReplay(final Replay replay, final String fileName) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try (OutputStream output = Gdx.files.local(fileName).write(false)) {
+                    replay.write(output);
+                } catch (IOException e) {
+                    Gdx.app.error("Replay", "Could not write " + fileName, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param time when the run ended, in milliseconds since the epoch
+     */
+    void logScore(final int score, final int ticks, final long seed, final long time) {
+        if (scores == null) {
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scores.add(score, ticks, seed, time);
+                    scores.flush();
+                } catch (IOException e) {
+                    Gdx.app.error("ScoreStore", "Could not log the run", e);
+                }
+                IOException compactionError = scores.takeCompactionError();
+                if (compactionError != null) {
+                    Gdx.app.error("ScoreStore", "Could not compact the score log", compactionError);
+                }
+            }
+        });
+    }
+
+    void saveGhost(final byte[] ghost, final String fileName) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try (OutputStream output = Gdx.files.local(fileName).write(false)) {
+                    output.write(ghost);
+                } catch (IOException e) {
+                    Gdx.app.error("Ghosts", "Could not write " + fileName, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits until everything handed over so far is written.
+     */
+    void await() {
+        if (executor.isShutdown()) {
+            // Closed, and so written already
+            return;
+        }
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes what is left and lets the thread go. Nothing may be handed
+     * over afterwards.
+     */
+    void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package io.github.diegobloise.flappybird.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import io.github.diegobloise.flappybird.Assets;
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.entities.Ground;
+import io.github.diegobloise.flappybird.entities.Pipe;
+import io.github.diegobloise.flappybird.profiling.FrameProfiler;
+import io.github.diegobloise.flappybird.ui.DebugText;
+import io.github.diegobloise.flappybird.ui.ScoreText;
+import io.github.diegobloise.flappybird.ui.WindowTitle;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.Swarm;
+
+/**
+ * Swarm mode, a whole {@link Swarm} of bots flying one course, opened and
+ * closed with the W key. The swarm is stepped on the render thread with a
+ * fixed tick, a step of ten thousand birds takes less time than a
+ * simulation thread would save.
+ *
+ * Every bird is one {@code batch.draw} of a shared atlas region with its
+ * rotation, all in the same pass as the pipes and the ground, so the swarm
+ * costs a couple of render calls and no texture switch.
+ */
+public class SwarmScreen implements Screen {
+
+    final FlappyBird game;
+
+    private static final int QUANTITY_OF_FRAMES = 4;
+    private static final float FRAME_DURATION = 0.1f;
+
+    // Translucent so the density of the swarm shows
+    private static final float BIRD_ALPHA = 0.5f;
+
+    // A dead swarm starts over on a new course once this long has passed
+    private static final float RESTART_SECONDS = 1;
+
+    // A longer frame is clamped instead of caught up
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    private static final float TITLE_INTERVAL = 1f;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Swarm swarm;
+    private float accumulator;
+    private float alpha;
+    private float deadTime;
+
+    // Flapping frames of every bird color, the birds take turns
+    private final TextureRegion[][] birdFrames;
+    private final float birdOriginX;
+    private final float birdOriginY;
+    private final Color birdColor = new Color(1, 1, 1, BIRD_ALPHA);
+
+    private final Ground ground;
+    private final Pipe pipe;
+    private final TextureRegion[] backgroundRegions;
+    private TextureRegion backgroundRegion;
+
+    private final ScoreText scoreText;
+    private final DebugText debugText;
+    private final WindowTitle title = new WindowTitle(" - Swarm");
+    private float titleTime = TITLE_INTERVAL;
+
+    public SwarmScreen(final FlappyBird game) {
+        this.game = game;
+
+        game.assets.acquireAtlas();
+
+        birdFrames = new TextureRegion[Assets.BIRDS.length][];
+        for (int i = 0; i < birdFrames.length; i++) {
+            TextureRegion birdSheet = game.assets.region(Assets.BIRDS[i]);
+            birdFrames[i] = birdSheet.split(birdSheet.getRegionWidth() / QUANTITY_OF_FRAMES,
+                    birdSheet.getRegionHeight())[0];
+        }
+        // Same pivot as the Bird sprite
+        birdOriginX = birdFrames[0][0].getRegionWidth() / 2f + 2;
+        birdOriginY = birdFrames[0][0].getRegionHeight() / 2f;
+
+        backgroundRegions = new TextureRegion[Assets.BACKGROUNDS.length];
+        for (int i = 0; i < backgroundRegions.length; i++) {
+            backgroundRegions[i] = game.assets.region(Assets.BACKGROUNDS[i]);
+        }
+
+        ground = new Ground(game);
+        pipe = new Pipe(game);
+
+        scoreText = new ScoreText(game.font);
+        debugText = new DebugText(game.font);
+
+        swarm = new Swarm(game.swarmSize, game.tickRate, MathUtils.random.nextLong());
+        restart();
+    }
+
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(null);
+        accumulator = 0;
+    }
+
+    @Override
+    public void render(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.W) || Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            game.setScreen(game.gameScreen);
+            return;
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            restart();
+        }
+        updateTitle(delta);
+
+        game.profiler.beginUpdate();
+        update(delta);
+        game.profiler.endUpdate();
+
+        int renderCalls = game.batch.totalRenderCalls;
+        game.profiler.beginDraw();
+        draw();
+        game.profiler.endDraw();
+        game.profiler.endFrame(game.batch.totalRenderCalls - renderCalls, -1);
+    }
+
+    private void restart() {
+        swarm.reset(MathUtils.random.nextLong());
+        ground.reset();
+        backgroundRegion = backgroundRegions[MathUtils.random(backgroundRegions.length - 1)];
+        accumulator = 0;
+        deadTime = 0;
+    }
+
+    private void update(float delta) {
+        float deltaTime = swarm.getDeltaTime();
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        while (accumulator >= deltaTime) {
+            swarm.step();
+            accumulator -= deltaTime;
+        }
+        alpha = accumulator / deltaTime;
+
+        if (swarm.getAliveCount() == 0) {
+            deadTime += delta;
+            if (deadTime >= RESTART_SECONDS) {
+                restart();
+            }
+        }
+    }
+
+    private void updateTitle(float delta) {
+        titleTime += delta;
+        if (titleTime < TITLE_INTERVAL) {
+            return;
+        }
+        titleTime = 0;
+
+        Gdx.graphics.setTitle(title.get(Gdx.graphics.getFramesPerSecond()));
+    }
+
+    private void draw() {
+        ScreenUtils.clear(Color.BLACK);
+        game.viewport.apply();
+        game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
+
+        game.batch.begin();
+
+        game.batch.draw(backgroundRegion, 0, 10, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
+        for (int i = 0; i < swarm.getPipeCount(); i++) {
+            pipe.draw(MathUtils.lerp(swarm.getPreviousPipeX(i), swarm.getPipeX(i), alpha), swarm.getPipeGapY(i),
+                    swarm.getPipeId(i));
+        }
+        drawBirds();
+        ground.draw(MathUtils.lerp(swarm.getPreviousGroundX(), swarm.getGroundX(), alpha));
+
+        game.font.setColor(Color.WHITE);
+        scoreText.draw(game.batch, swarm.getScore(), game.viewport.getWorldWidth() / 2,
+                game.viewport.getWorldHeight() - 30);
+
+        game.font.getData().setScale(0.55f);
+        float y = game.viewport.getWorldHeight();
+        debugText.draw(game.batch, "ALIVE: ", swarm.getAliveCount(), 0, y);
+        FrameProfiler profiler = game.profiler;
+        debugText.draw(game.batch, "UPD", profiler.getHistogram(FrameProfiler.UPDATE), NANOS_PER_MILLI, 0,
+                y -= DebugText.LINE_HEIGHT);
+        debugText.draw(game.batch, "DRW", profiler.getHistogram(FrameProfiler.DRAW), NANOS_PER_MILLI, 0,
+                y -= DebugText.LINE_HEIGHT);
+        debugText.draw(game.batch, "RC", profiler.getHistogram(FrameProfiler.RENDER_CALLS), 1, 0,
+                y -= DebugText.LINE_HEIGHT);
+        game.font.getData().setScale(1f);
+
+        game.batch.end();
+    }
+
+    private void drawBirds() {
+        float[] y = swarm.getY();
+        float[] previousY = swarm.getPreviousY();
+        float[] rotation = swarm.getRotation();
+        float[] alive = swarm.getAlive();
+        float[] phase = swarm.getPhase();
+        float time = swarm.getTime() + alpha * swarm.getDeltaTime();
+        float width = birdFrames[0][0].getRegionWidth();
+        float height = birdFrames[0][0].getRegionHeight();
+
+        game.batch.setColor(birdColor);
+        for (int i = 0; i < swarm.getSize(); i++) {
+            if (alive[i] == 0) {
+                continue;
+            }
+            int frame = (int) ((time + phase[i]) / FRAME_DURATION) % QUANTITY_OF_FRAMES;
+            TextureRegion region = birdFrames[i % birdFrames.length][frame];
+            game.batch.draw(region, GameWorld.BIRD_X, previousY[i] + (y[i] - previousY[i]) * alpha,
+                    birdOriginX, birdOriginY, width, height, 1, 1, rotation[i]);
+        }
+        game.batch.setColor(Color.WHITE);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        game.viewport.update(width, height, true);
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+
+    @Override
+    public void dispose() {
+        game.assets.release(Assets.ATLAS);
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.diegobloise.flappybird.ui;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
+import io.github.diegobloise.flappybird.profiling.Histogram;
+
+/**
+ * Draws "LABEL: value" and percentile lines of the debug overlay through one
+ * reused {@link StringBuilder} instead of concatenating a new string per line.
+ */
+public class DebugText {
+
+    // Spacing of the overlay lines, tight enough for all of them to fit the world height
+    public static final float LINE_HEIGHT = 13;
+
+    // Longer than any line of the overlay
+    private static final int MAX_LINE = 64;
+
+    private final BitmapFont font;
+    private final StringBuilder text = new StringBuilder(MAX_LINE);
+
+    public DebugText(BitmapFont font) {
+        this.font = font;
+
+        // The font cache grows its buffers to fit the longest text so far, a timing that
+        // needs one more digit would allocate mid-game, so they are sized for a full line now
+        for (int i = 0; i < MAX_LINE; i++) {
+            text.append('0');
+        }
+        font.getCache().setText(text, 0, 0);
+        font.getCache().clear();
+    }
+
+    public void draw(Batch batch, String label, long value, float x, float y) {
+        text.setLength(0);
+        text.append(label).append(value);
+        font.draw(batch, text, x, y);
+    }
+
+    /**
+     * Draws "LABEL part/total OTHER other".
+     */
+    public void drawFraction(Batch batch, String label, long part, long total, String otherLabel, long other,
+            float x, float y) {
+        text.setLength(0);
+        text.append(label).append(part).append('/').append(total).append(' ').append(otherLabel).append(other);
+        font.draw(batch, text, x, y);
+    }
+
+    /**
+     * Draws "LABEL count sizeK" of a resource kind, the size in kilobytes.
+     */
+    public void draw(Batch batch, String label, int count, long bytes, float x, float y) {
+        text.setLength(0);
+        text.append(label).append(' ').append(count).append(' ').append((bytes + 512) / 1024).append('K');
+        font.draw(batch, text, x, y);
+    }
+
+    /**
+     * Draws "LABEL secondsS rateK/S" of a recording, how long it is and the
+     * memory each second of it takes in kilobytes.
+     */
+    public void drawPerSecond(Batch batch, String label, int seconds, long bytesPerSecond, float x, float y) {
+        text.setLength(0);
+        text.append(label).append(' ').append(seconds).append("S ").append((bytesPerSecond + 512) / 1024)
+                .append("K/S");
+        font.draw(batch, text, x, y);
+    }
+
+    /**
+     * Draws "LABEL p50 p95 p99 max" of a histogram. Values are divided by
+     * {@code unit} and shown with one decimal, unless the unit is 1.
+     */
+    public void draw(Batch batch, String label, Histogram histogram, long unit, float x, float y) {
+        text.setLength(0);
+        text.append(label);
+        if (histogram.getTotalCount() == 0) {
+            text.append(" -");
+        } else {
+            append(histogram.getValueAtPercentile(50), unit);
+            append(histogram.getValueAtPercentile(95), unit);
+            append(histogram.getValueAtPercentile(99), unit);
+            append(histogram.getMax(), unit);
+        }
+        font.draw(batch, text, x, y);
+    }
+
+    private void append(long value, long unit) {
+        text.append(' ');
+        if (unit == 1) {
+            text.append(value);
+            return;
+        }
+        long tenths = (value * 10 + unit / 2) / unit;
+        text.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
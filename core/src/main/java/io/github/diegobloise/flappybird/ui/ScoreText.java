@@ -0,0 +1,59 @@
+package io.github.diegobloise.flappybird.ui;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * Draws a non-negative number from ten cached digit layouts, so showing the
+ * score allocates nothing per frame.
+ *
+ * The layouts are built with the font scale at construction time.
+ */
+public class ScoreText {
+
+    private static final String[] DIGITS = { "0", "1", "2", "3", "4", "5", "6", "7", "8", "9" };
+
+    private final BitmapFont font;
+    private final GlyphLayout[] layouts = new GlyphLayout[DIGITS.length];
+    private final float[] advances = new float[DIGITS.length];
+
+    // Digits of the value being drawn, least significant first
+    private final int[] digits = new int[10];
+
+    public ScoreText(BitmapFont font) {
+        this.font = font;
+        for (int i = 0; i < DIGITS.length; i++) {
+            layouts[i] = new GlyphLayout(font, DIGITS[i]);
+            Glyph glyph = font.getData().getGlyph(DIGITS[i].charAt(0));
+            advances[i] = glyph.xadvance * font.getData().scaleX;
+        }
+    }
+
+    public float getWidth(int value) {
+        int count = split(value);
+        float width = layouts[digits[0]].width;
+        for (int i = 1; i < count; i++) {
+            width += advances[digits[i]];
+        }
+        return width;
+    }
+
+    public void draw(Batch batch, int value, float centerX, float y) {
+        float x = centerX - getWidth(value) / 2;
+        for (int i = split(value) - 1; i >= 0; i--) {
+            font.draw(batch, layouts[digits[i]], x, y);
+            x += advances[digits[i]];
+        }
+    }
+
+    private int split(int value) {
+        int count = 0;
+        do {
+            digits[count++] = value % 10;
+            value /= 10;
+        } while (value > 0);
+        return count;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.diegobloise.flappybird.ui;
+
+/**
+ * Window titles "Java Flappy Bird (FPS: n)" followed by a suffix, each one
+ * built the first time its frame rate is shown and kept, so refreshing the
+ * title once the frame rate settles allocates nothing.
+ */
+public class WindowTitle {
+
+    // Higher frame rates share the title of this one
+    private static final int MAX_FPS = 999;
+
+    private final String suffix;
+    private final String[] titles = new String[MAX_FPS + 1];
+
+    public WindowTitle(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String get(int fps) {
+        int index = Math.max(0, Math.min(MAX_FPS, fps));
+        String title = titles[index];
+        if (title == null) {
+            title = "Java Flappy Bird (FPS: " + index + ")" + suffix;
+            titles[index] = title;
+        }
+        return title;
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * Decides, tick by tick, whether a bot flaps.
+ */
+public interface FlapPolicy {
+
+    boolean shouldFlap(GameWorld world);
+}
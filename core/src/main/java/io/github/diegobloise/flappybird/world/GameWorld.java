@@ -0,0 +1,688 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * The rules of the game without any rendering, input or libGDX dependency.
+ *
+ * All state is kept in primitive fields and advanced by {@link #step} in fixed
+ * ticks of {@code 1 / tickRate} seconds. The world never allocates after it
+ * is constructed, so it can be stepped headlessly for bots, replays and
+ * tests, and drawn by the entity views when running the real game.
+ */
+public class GameWorld {
+
+    public static final int WIDTH = 144;
+    public static final int HEIGHT = 256;
+
+    public static final int DEFAULT_TICK_RATE = 120;
+
+    // Tuned as 18 px/s lost every frame at 60 FPS, applied per second
+    public static final float GRAVITY = 18 * 60;
+    public static final float FLAP_FORCE = 14 * 18;
+    public static final float ROTATION_SPEED = 5;
+
+    public static final float GAME_SPEED = -40;
+    public static final int HORIZONTAL_PIPE_GAP = 70;
+    public static final int VERTICAL_PIPE_GAP = 27;
+
+    public static final int BIRD_X = 35;
+    public static final int BIRD_WIDTH = 17;
+    public static final int BIRD_HEIGHT = 12;
+    public static final int BIRD_START_Y = HEIGHT / 2 + 10;
+    public static final float BIRD_HITBOX = BIRD_HEIGHT - 5;
+
+    public static final int PIPE_WIDTH = 26;
+    public static final int PIPE_HEIGHT = 160;
+    public static final float MIN_PIPE_HEIGHT = HEIGHT / 2 - 20;
+    public static final float MAX_PIPE_HEIGHT = HEIGHT / 2 + 70;
+
+    public static final float SCORE_ZONE_OFFSET = PIPE_WIDTH + 5;
+    public static final float SCORE_ZONE_WIDTH = 20;
+    public static final float SCORE_ZONE_HEIGHT = VERTICAL_PIPE_GAP * 3;
+
+    public static final int GROUND_WIDTH = 168;
+    public static final int GROUND_HEIGHT = 56;
+
+    // Never more than three pipes fit on screen, the rest is slack
+    public static final int MAX_PIPES = 8;
+
+    // Bits of getEvents(), set by the last step
+    public static final int EVENT_FLAP = 1;
+    public static final int EVENT_SCORE = 1 << 1;
+    public static final int EVENT_HIT = 1 << 2;
+    public static final int EVENT_DIE = 1 << 3;
+
+    // Slots of a saved state, see saveState
+    static final int STATE_LONGS = 2;
+    static final int STATE_INTS = 6;
+    static final int STATE_FLOATS = 7 + 2 * MAX_PIPES;
+
+    private static final int PLAYING = 1;
+    private static final int GAME_OVER = 1 << 1;
+    private static final int DIE_EVENT_SENT = 1 << 2;
+    private static final int BIRD_ON_GROUND = 1 << 3;
+    // Then one bit per pipe in play, whether it was scored
+    private static final int PIPE_SCORED_SHIFT = 8;
+
+    private final int tickRate;
+    private final float deltaTime;
+
+    // Copied out of the rules, they are read on every tick
+    private final Rules rules;
+    private final float gameSpeed;
+    private final float horizontalPipeGap;
+    private final float verticalPipeGap;
+    private final float gravity;
+    private final float flapForce;
+
+    private long seed;
+    private long random;
+
+    private int tick;
+    // Ticks stepped since the first flap, the course only moves from then on
+    private int playTicks;
+    private int events;
+
+    private boolean playing;
+    private boolean gameOver;
+    private boolean dieEventSent;
+    private boolean birdOnGround;
+
+    private int score;
+    private float impactTime;
+
+    private float birdY;
+    private float birdVelocity;
+    private float birdRotation;
+    private float previousBirdY;
+    private float previousBirdRotation;
+    private float floatTime;
+    private float animationTime;
+
+    private float groundX;
+    private float previousGroundX;
+
+    // Ring buffer of the pipes in play, oldest first
+    private final float[] pipeX = new float[MAX_PIPES];
+    private final float[] previousPipeX = new float[MAX_PIPES];
+    private final float[] pipeGapY = new float[MAX_PIPES];
+    private final boolean[] pipeScored = new boolean[MAX_PIPES];
+    private final int[] pipeId = new int[MAX_PIPES];
+    private int firstPipe;
+    private int pipeCount;
+    private int spawnedPipes;
+    // Debug counters since the reset, not part of the saved state so a rewind doesn't take them back
+    private int usedSlots; // bit per ring slot that has held a pipe
+    private int recycledPipes;
+    private int refusedPipes;
+
+    public GameWorld() {
+        this(DEFAULT_TICK_RATE, 0);
+    }
+
+    public GameWorld(int tickRate, long seed) {
+        this(tickRate, seed, Rules.DEFAULT);
+    }
+
+    public GameWorld(int tickRate, long seed, Rules rules) {
+        this.tickRate = tickRate;
+        this.deltaTime = 1f / tickRate;
+        this.rules = rules;
+        this.gameSpeed = rules.getGameSpeed();
+        this.horizontalPipeGap = rules.getHorizontalPipeGap();
+        this.verticalPipeGap = rules.getVerticalPipeGap();
+        this.gravity = rules.getGravity();
+        this.flapForce = rules.getFlapForce();
+        reset(seed);
+    }
+
+    /**
+     * Starts a new game on the course generated by the given seed.
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        this.random = courseState(seed);
+
+        tick = 0;
+        playTicks = 0;
+        events = 0;
+        playing = false;
+        gameOver = false;
+        dieEventSent = false;
+        birdOnGround = false;
+        score = 0;
+        impactTime = Sweep.NO_IMPACT;
+
+        birdY = BIRD_START_Y;
+        birdVelocity = 0;
+        birdRotation = 0;
+        floatTime = 0;
+        animationTime = 0;
+        groundX = 0;
+
+        firstPipe = 0;
+        pipeCount = 0;
+        spawnedPipes = 0;
+        usedSlots = 0;
+        recycledPipes = 0;
+        refusedPipes = 0;
+        spawnPipe();
+
+        savePositions();
+    }
+
+    /**
+     * Advances the game by one tick.
+     *
+     * @param flap whether the player flapped during this tick
+     */
+    public void step(boolean flap) {
+        events = 0;
+        tick++;
+        savePositions();
+
+        if (flap) {
+            flap();
+        }
+
+        if (playing) {
+            playTicks++;
+            if (!gameOver) {
+                addPipes();
+                removePipes();
+                for (int i = 0; i < pipeCount; i++) {
+                    pipeX[slot(i)] += gameSpeed * deltaTime;
+                }
+            }
+            applyPhysics();
+        }
+
+        if (!gameOver) {
+            groundX += gameSpeed * deltaTime;
+            if (groundX + GROUND_WIDTH < WIDTH) {
+                // Shift the previous position too so the wrap is not interpolated
+                previousGroundX -= groundX;
+                groundX = 0;
+            }
+        }
+
+        animateBird();
+
+        if (playing && !gameOver) {
+            checkCollisions();
+        }
+
+        if (gameOver && birdRotation < 20 && !dieEventSent) {
+            events |= EVENT_DIE;
+            dieEventSent = true;
+        }
+
+        birdOnGround = birdY <= GROUND_HEIGHT;
+    }
+
+    /**
+     * Copies the whole state at the end of the last tick into the given
+     * slots, see {@link WorldHistory}. The previous positions are left out,
+     * the next step overwrites them before it reads them. So are the pipe
+     * ids, which count up from the oldest pipe in play.
+     */
+    void saveState(long[] longs, int longOffset, int[] ints, int intOffset, float[] floats, int floatOffset) {
+        longs[longOffset] = seed;
+        longs[longOffset + 1] = random;
+
+        int flags = (playing ? PLAYING : 0) | (gameOver ? GAME_OVER : 0) | (dieEventSent ? DIE_EVENT_SENT : 0)
+                | (birdOnGround ? BIRD_ON_GROUND : 0);
+        for (int i = 0; i < pipeCount; i++) {
+            if (pipeScored[slot(i)]) {
+                flags |= 1 << (PIPE_SCORED_SHIFT + i);
+            }
+        }
+        ints[intOffset] = tick;
+        ints[intOffset + 1] = playTicks;
+        ints[intOffset + 2] = score;
+        ints[intOffset + 3] = pipeCount;
+        ints[intOffset + 4] = spawnedPipes;
+        ints[intOffset + 5] = flags;
+
+        floats[floatOffset] = impactTime;
+        floats[floatOffset + 1] = birdY;
+        floats[floatOffset + 2] = birdVelocity;
+        floats[floatOffset + 3] = birdRotation;
+        floats[floatOffset + 4] = floatTime;
+        floats[floatOffset + 5] = animationTime;
+        floats[floatOffset + 6] = groundX;
+        for (int i = 0; i < pipeCount; i++) {
+            floats[floatOffset + 7 + i] = pipeX[slot(i)];
+            floats[floatOffset + 7 + MAX_PIPES + i] = pipeGapY[slot(i)];
+        }
+    }
+
+    /**
+     * Puts back a state copied by {@link #saveState}. Stepping on from it
+     * plays exactly as stepping on from the tick it was saved at did, only
+     * the first frame after it isn't interpolated.
+     */
+    void restoreState(long[] longs, int longOffset, int[] ints, int intOffset, float[] floats, int floatOffset) {
+        seed = longs[longOffset];
+        random = longs[longOffset + 1];
+
+        int flags = ints[intOffset + 5];
+        tick = ints[intOffset];
+        playTicks = ints[intOffset + 1];
+        score = ints[intOffset + 2];
+        pipeCount = ints[intOffset + 3];
+        spawnedPipes = ints[intOffset + 4];
+        playing = (flags & PLAYING) != 0;
+        gameOver = (flags & GAME_OVER) != 0;
+        dieEventSent = (flags & DIE_EVENT_SENT) != 0;
+        birdOnGround = (flags & BIRD_ON_GROUND) != 0;
+        events = 0;
+
+        impactTime = floats[floatOffset];
+        birdY = floats[floatOffset + 1];
+        birdVelocity = floats[floatOffset + 2];
+        birdRotation = floats[floatOffset + 3];
+        floatTime = floats[floatOffset + 4];
+        animationTime = floats[floatOffset + 5];
+        groundX = floats[floatOffset + 6];
+
+        // The ring starts over at slot 0, only slot() ever reads it
+        firstPipe = 0;
+        for (int i = 0; i < pipeCount; i++) {
+            pipeX[i] = floats[floatOffset + 7 + i];
+            pipeGapY[i] = floats[floatOffset + 7 + MAX_PIPES + i];
+            pipeScored[i] = (flags & 1 << (PIPE_SCORED_SHIFT + i)) != 0;
+            pipeId[i] = spawnedPipes - pipeCount + i;
+        }
+        usedSlots |= (1 << pipeCount) - 1;
+        savePositions();
+    }
+
+    private void flap() {
+        playing = true;
+
+        if (!gameOver) {
+            if (birdY < HEIGHT - 25 && birdY > 0) {
+                birdVelocity = flapForce;
+                events |= EVENT_FLAP;
+            } else {
+                birdVelocity = 0;
+            }
+        }
+    }
+
+    private void savePositions() {
+        previousBirdY = birdY;
+        previousBirdRotation = birdRotation;
+        previousGroundX = groundX;
+        for (int i = 0; i < pipeCount; i++) {
+            previousPipeX[slot(i)] = pipeX[slot(i)];
+        }
+    }
+
+    private void applyPhysics() {
+        birdVelocity -= gravity * deltaTime;
+        birdY += birdVelocity * deltaTime;
+        birdY = clamp(birdY, GROUND_HEIGHT - 5, HEIGHT - BIRD_HEIGHT);
+    }
+
+    private void animateBird() {
+        if (!gameOver) {
+            animationTime += deltaTime;
+        }
+
+        if (playing) {
+            if (birdVelocity > 0) {
+                birdRotation = lerpAngle(birdRotation, 30.0f, (ROTATION_SPEED + 25) * deltaTime);
+            } else {
+                birdRotation = lerpAngle(birdRotation, -50.0f, (ROTATION_SPEED - 2) * deltaTime);
+            }
+            if (gameOver) {
+                birdRotation = lerpAngle(birdRotation, -70.0f, (ROTATION_SPEED + 5) * deltaTime);
+            }
+        } else {
+            floatTime += deltaTime;
+            float floatingOffset = (float) Math.sin(floatTime * 7) * 2;
+            birdY = BIRD_START_Y - BIRD_HEIGHT / 2f + floatingOffset;
+        }
+    }
+
+    // Sweeps the bird's move of this tick, so a long tick can't skip a pipe
+    // edge or a score zone. Scoring counts only if the zone is reached before
+    // the bird hits something.
+    private void checkCollisions() {
+        impactTime = Math.min(getPipeImpactTime(), getGroundImpactTime());
+
+        float left = getBirdHitboxX();
+        float bottom = getPreviousBirdHitboxY();
+        float dy = birdY - previousBirdY;
+        for (int i = 0; i < pipeCount; i++) {
+            int slot = slot(i);
+            float zoneX = previousPipeX[slot] + SCORE_ZONE_OFFSET;
+            float dx = previousPipeX[slot] - pipeX[slot];
+            if (pipeScored[slot] || left >= zoneX + SCORE_ZONE_WIDTH || left + BIRD_HITBOX + dx <= zoneX) {
+                continue;
+            }
+            float zoneTime = Sweep.timeOfImpact(left, bottom, BIRD_HITBOX, BIRD_HITBOX, dx, dy,
+                    zoneX, pipeGapY[slot] - verticalPipeGap * 1.5f, SCORE_ZONE_WIDTH, verticalPipeGap * 3);
+            if (zoneTime < impactTime) {
+                score++;
+                pipeScored[slot] = true;
+                events |= EVENT_SCORE;
+            }
+        }
+
+        if (impactTime != Sweep.NO_IMPACT) {
+            hit();
+        }
+    }
+
+    /**
+     * Earliest time of impact of the bird with any pipe during the last tick,
+     * as a fraction of the tick, or {@link Sweep#NO_IMPACT}.
+     */
+    public float getPipeImpactTime() {
+        float left = getBirdHitboxX();
+        float bottom = getPreviousBirdHitboxY();
+        float dy = birdY - previousBirdY;
+
+        float impact = Sweep.NO_IMPACT;
+        for (int i = 0; i < pipeCount; i++) {
+            int slot = slot(i);
+            // Sweep in the pipe's frame, where the bird also moves right.
+            // Pipes the bird doesn't pass over this tick are skipped early.
+            float x = previousPipeX[slot];
+            float dx = x - pipeX[slot];
+            if (left >= x + PIPE_WIDTH || left + BIRD_HITBOX + dx <= x) {
+                continue;
+            }
+            float gapY = pipeGapY[slot];
+            impact = Math.min(impact, Sweep.timeOfImpact(left, bottom, BIRD_HITBOX, BIRD_HITBOX, dx, dy,
+                    x, gapY + verticalPipeGap, PIPE_WIDTH, PIPE_HEIGHT));
+            impact = Math.min(impact, Sweep.timeOfImpact(left, bottom, BIRD_HITBOX, BIRD_HITBOX, dx, dy,
+                    x, gapY - verticalPipeGap - PIPE_HEIGHT, PIPE_WIDTH, PIPE_HEIGHT));
+        }
+        return impact;
+    }
+
+    private float getGroundImpactTime() {
+        if (Math.min(previousBirdY, birdY) + BIRD_HEIGHT / 2f - BIRD_HITBOX / 2 >= GROUND_HEIGHT) {
+            return Sweep.NO_IMPACT;
+        }
+        // The ground reaches down and sideways past the screen edges
+        return Sweep.timeOfImpact(getBirdHitboxX(), getPreviousBirdHitboxY(), BIRD_HITBOX, BIRD_HITBOX,
+                0, birdY - previousBirdY, -WIDTH, -HEIGHT, WIDTH * 3, HEIGHT + GROUND_HEIGHT);
+    }
+
+    /**
+     * Discrete check at the bird's current position, see
+     * {@link #getPipeImpactTime()} for the swept one the game uses.
+     *
+     * @return whether the bird overlaps any pipe in play
+     */
+    public boolean isBirdHittingPipe() {
+        float left = getBirdHitboxX();
+        float bottom = getBirdHitboxY();
+        float right = left + BIRD_HITBOX;
+        float top = bottom + BIRD_HITBOX;
+
+        // Pipes are taller than the screen, so only the gap edges matter
+        for (int i = 0; i < pipeCount; i++) {
+            int slot = slot(i);
+            float x = pipeX[slot];
+            if (left < x + PIPE_WIDTH && right > x
+                    && (top > pipeGapY[slot] + verticalPipeGap || bottom < pipeGapY[slot] - verticalPipeGap)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void hit() {
+        if (!gameOver) {
+            gameOver = true;
+            events |= EVENT_HIT;
+        }
+    }
+
+    private void addPipes() {
+        if (pipeX[slot(pipeCount - 1)] < WIDTH - horizontalPipeGap) {
+            if (pipeCount < MAX_PIPES) {
+                spawnPipe();
+            } else {
+                refusedPipes++;
+            }
+        }
+    }
+
+    private void removePipes() {
+        if (pipeX[firstPipe] < -PIPE_WIDTH) {
+            firstPipe = (firstPipe + 1) % MAX_PIPES;
+            pipeCount--;
+        }
+    }
+
+    private void spawnPipe() {
+        int slot = slot(pipeCount);
+        if ((usedSlots & 1 << slot) != 0) {
+            recycledPipes++;
+        }
+        usedSlots |= 1 << slot;
+        pipeX[slot] = WIDTH;
+        previousPipeX[slot] = WIDTH;
+        pipeGapY[slot] = MIN_PIPE_HEIGHT + nextFloat() * (MAX_PIPE_HEIGHT - MIN_PIPE_HEIGHT);
+        pipeScored[slot] = false;
+        pipeId[slot] = spawnedPipes++;
+        pipeCount++;
+    }
+
+    private int slot(int index) {
+        return (firstPipe + index) % MAX_PIPES;
+    }
+
+    /**
+     * First state of the course generator for a seed. xorshift never leaves
+     * 0 and carries similar seeds into similar courses for a while, so the
+     * seed goes through splitmix64 first. The one seed that mixes to 0 gets
+     * a fixed state instead.
+     */
+    static long courseState(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z != 0 ? z : 0x9E3779B97F4A7C15L;
+    }
+
+    // xorshift64*, kept inline so the course only depends on the seed
+    private float nextFloat() {
+        random ^= random >>> 12;
+        random ^= random << 25;
+        random ^= random >>> 27;
+        return ((random * 0x2545F4914F6CDD1DL) >>> 40) * 0x1.0p-24f;
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return value < min ? min : value > max ? max : value;
+    }
+
+    // Same as MathUtils.lerpAngleDeg, the result is in [0, 360). Wraps with
+    // branches since float % is a slow library call on the hot path.
+    private static float lerpAngle(float from, float to, float progress) {
+        float delta = wrapAngle(to - from + 180f) - 180f;
+        return wrapAngle(from + delta * progress);
+    }
+
+    private static float wrapAngle(float degrees) {
+        while (degrees < 0) {
+            degrees += 360f;
+        }
+        while (degrees >= 360f) {
+            degrees -= 360f;
+        }
+        return degrees;
+    }
+
+    public float getBirdHitboxX() {
+        return BIRD_X + BIRD_WIDTH / 2f - BIRD_HITBOX / 2;
+    }
+
+    public float getBirdHitboxY() {
+        return birdY + BIRD_HEIGHT / 2f - BIRD_HITBOX / 2;
+    }
+
+    private float getPreviousBirdHitboxY() {
+        return previousBirdY + BIRD_HEIGHT / 2f - BIRD_HITBOX / 2;
+    }
+
+    /**
+     * Fraction of the tick at which the bird hit a pipe or the ground, or
+     * {@link Sweep#NO_IMPACT} while it hasn't.
+     */
+    public float getImpactTime() {
+        return impactTime;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Ticks stepped since the first flap. Runs on the same seed are at the
+     * same point of the course after the same number of play ticks, however
+     * long they waited to start.
+     */
+    public int getPlayTicks() {
+        return playTicks;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isBirdOnGround() {
+        return birdOnGround;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public float getBirdY() {
+        return birdY;
+    }
+
+    public float getBirdVelocity() {
+        return birdVelocity;
+    }
+
+    public float getBirdRotation() {
+        return birdRotation;
+    }
+
+    public float getPreviousBirdY() {
+        return previousBirdY;
+    }
+
+    public float getPreviousBirdRotation() {
+        return previousBirdRotation;
+    }
+
+    public float getAnimationTime() {
+        return animationTime;
+    }
+
+    public float getGroundX() {
+        return groundX;
+    }
+
+    public float getPreviousGroundX() {
+        return previousGroundX;
+    }
+
+    public int getPipeCount() {
+        return pipeCount;
+    }
+
+    /**
+     * Pipes spawned since the reset.
+     */
+    public int getSpawnedPipes() {
+        return spawnedPipes;
+    }
+
+    /**
+     * Spawns since the reset that went into a ring slot an earlier pipe had
+     * held, rewound ticks included.
+     */
+    public int getRecycledPipes() {
+        return recycledPipes;
+    }
+
+    /**
+     * Ticks since the reset a pipe was due but all {@value #MAX_PIPES} slots
+     * of the ring were in play, so it wasn't spawned. {@link Rules} keep the
+     * pipes far enough apart for this to stay 0.
+     */
+    public int getRefusedPipes() {
+        return refusedPipes;
+    }
+
+    /**
+     * @return index of the first pipe the bird has not passed yet
+     */
+    public int getNextPipe() {
+        for (int i = 0; i < pipeCount; i++) {
+            if (pipeX[slot(i)] + PIPE_WIDTH > BIRD_X) {
+                return i;
+            }
+        }
+        return pipeCount - 1;
+    }
+
+    /**
+     * @param index 0 for the oldest pipe in play
+     */
+    public float getPipeX(int index) {
+        return pipeX[slot(index)];
+    }
+
+    public float getPreviousPipeX(int index) {
+        return previousPipeX[slot(index)];
+    }
+
+    public float getPipeGapY(int index) {
+        return pipeGapY[slot(index)];
+    }
+
+    public boolean isPipeScored(int index) {
+        return pipeScored[slot(index)];
+    }
+
+    public int getPipeId(int index) {
+        return pipeId[slot(index)];
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * The difficulty settings of a {@link GameWorld}. The game always plays
+ * {@link #DEFAULT}, the values of the GameWorld constants; other rules are
+ * for headless sweeps, so the entity views keep drawing with the constants.
+ */
+public class Rules {
+
+    // Pipes closer than (WIDTH + PIPE_WIDTH) / MAX_PIPES fill the ring of GameWorld before the oldest
+    // scrolls off and stop spawning. One spacing is kept spare for the tick a spawn or a removal lags.
+    public static final float MIN_HORIZONTAL_PIPE_GAP = (GameWorld.WIDTH + GameWorld.PIPE_WIDTH)
+            / (GameWorld.MAX_PIPES - 1f);
+
+    public static final Rules DEFAULT = new Rules(GameWorld.GAME_SPEED, GameWorld.HORIZONTAL_PIPE_GAP,
+            GameWorld.VERTICAL_PIPE_GAP, GameWorld.GRAVITY, GameWorld.FLAP_FORCE);
+
+    private final float gameSpeed;
+    private final float horizontalPipeGap;
+    private final float verticalPipeGap;
+    private final float gravity;
+    private final float flapForce;
+
+    /**
+     * @param gameSpeed         horizontal speed of the pipes and ground, negative
+     * @param horizontalPipeGap distance from a pipe to the next one, at least
+     *                          {@link #MIN_HORIZONTAL_PIPE_GAP}
+     * @param verticalPipeGap   half the height of the opening between the pipes
+     */
+    public Rules(float gameSpeed, float horizontalPipeGap, float verticalPipeGap, float gravity, float flapForce) {
+        if (gameSpeed >= 0 || horizontalPipeGap < MIN_HORIZONTAL_PIPE_GAP || verticalPipeGap <= 0) {
+            throw new IllegalArgumentException("Pipes must scroll left and be spaced at least "
+                    + MIN_HORIZONTAL_PIPE_GAP + " apart: " + gameSpeed + ", " + horizontalPipeGap + ", "
+                    + verticalPipeGap);
+        }
+        this.gameSpeed = gameSpeed;
+        this.horizontalPipeGap = horizontalPipeGap;
+        this.verticalPipeGap = verticalPipeGap;
+        this.gravity = gravity;
+        this.flapForce = flapForce;
+    }
+
+    public float getGameSpeed() {
+        return gameSpeed;
+    }
+
+    public float getHorizontalPipeGap() {
+        return horizontalPipeGap;
+    }
+
+    public float getVerticalPipeGap() {
+        return verticalPipeGap;
+    }
+
+    public float getGravity() {
+        return gravity;
+    }
+
+    public float getFlapForce() {
+        return flapForce;
+    }
+
+    @Override
+    public String toString() {
+        return "speed " + gameSpeed + "  spacing " + horizontalPipeGap + "  gap " + verticalPipeGap + "  gravity "
+                + gravity + "  flap " + flapForce;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.diegobloise.flappybird.world;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer of {@link WorldSnapshot}s between one writer thread
+ * and one reader thread.
+ *
+ * The writer fills the back snapshot and publishes it, the reader takes the
+ * front one. The third sits in the middle and is swapped with either side in
+ * one atomic step, so the writer never waits for a slow reader and the reader
+ * always gets the latest complete snapshot. Snapshots published in between
+ * two reads are skipped.
+ */
+public final class SnapshotBuffer {
+
+    // Set on the middle index while it holds a snapshot the reader hasn't taken
+    private static final int FRESH = 4;
+    private static final int INDEX = 3;
+
+    private final WorldSnapshot[] snapshots = {
+            new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot() };
+
+    private final AtomicInteger middle = new AtomicInteger(1);
+    // Only touched by the writer
+    private int back = 0;
+    // Only touched by the reader
+    private int front = 2;
+
+    /**
+     * Writer side. The snapshot to fill before the next {@link #publish}.
+     */
+    public WorldSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Writer side. Hands the back snapshot to the reader and takes a free one.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Reader side. The latest published snapshot, which stays untouched
+     * until the next call.
+     */
+    public WorldSnapshot getFront() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,372 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * Thousands of birds flying the same course at once, for watching a whole
+ * population play. Follows the rules of {@link GameWorld}, a swarm and a
+ * world reset with the same seed see the same pipes.
+ *
+ * The birds are kept as structure of arrays, one primitive array per field,
+ * and {@link #step} updates them in flat loops over those arrays without a
+ * single branch, so the JIT can vectorize them. Conditions are turned into
+ * 0 or 1 factors with min and max, which vectorize, where a ternary would
+ * be a mispredicted branch per bird. All birds share their x position, so
+ * only the nearest pipe can touch any of them and the collision loop is a
+ * range check against its gap. Dead birds stay in the arrays, masked out by
+ * a 0 in {@link #getAlive}, so the loops never shrink or reorder.
+ *
+ * Every bird flies like the gap follower bot, flapping whenever it falls
+ * under the gap with an aiming error of its own for every pipe, which is
+ * what thins the swarm out. Nothing is allocated after construction.
+ */
+public class Swarm {
+
+    public static final int DEFAULT_SIZE = 10_000;
+
+    // Aiming errors are spread over this many pixels either way, start heights too
+    private static final float AIM_SPREAD = 12;
+    private static final float START_SPREAD = 40;
+
+    // The rotation follows the velocity instead of easing towards it, a flap tilts up all the way
+    private static final float ROTATION_PER_VELOCITY = 30 / GameWorld.FLAP_FORCE;
+    private static final float MIN_ROTATION = -70;
+    private static final float MAX_ROTATION = 30;
+
+    // Flapping animation of four frames of 0.1 s, every bird starts at its own phase
+    private static final float ANIMATION_PERIOD = 0.4f;
+
+    private static final float HITBOX_X = GameWorld.BIRD_X + GameWorld.BIRD_WIDTH / 2f - GameWorld.BIRD_HITBOX / 2;
+    private static final float HITBOX_OFFSET = GameWorld.BIRD_HEIGHT / 2f - GameWorld.BIRD_HITBOX / 2;
+
+    // Far larger than any distance in the world, see step()
+    private static final float STEP_SCALE = 1e30f;
+
+    private final int size;
+    private final int tickRate;
+    private final float deltaTime;
+
+    private final float[] y;
+    private final float[] previousY;
+    private final float[] velocity;
+    private final float[] rotation;
+    // 1 while alive and 0 once dead, a float so it can scale the physics
+    private final float[] alive;
+    private final float[] phase;
+    private final float[] aim;
+    private int aliveCount;
+
+    private long seed;
+    private long random;
+    private int tick;
+    private int score;
+    private int nextPipeId;
+
+    private float groundX;
+    private float previousGroundX;
+
+    // Ring buffer of the pipes in play, oldest first, like GameWorld's
+    private final float[] pipeX = new float[GameWorld.MAX_PIPES];
+    private final float[] previousPipeX = new float[GameWorld.MAX_PIPES];
+    private final float[] pipeGapY = new float[GameWorld.MAX_PIPES];
+    private final int[] pipeId = new int[GameWorld.MAX_PIPES];
+    private int firstPipe;
+    private int pipeCount;
+    private int spawnedPipes;
+
+    public Swarm(int size, int tickRate, long seed) {
+        this.size = size;
+        this.tickRate = tickRate;
+        this.deltaTime = 1f / tickRate;
+        y = new float[size];
+        previousY = new float[size];
+        velocity = new float[size];
+        rotation = new float[size];
+        alive = new float[size];
+        phase = new float[size];
+        aim = new float[size];
+        reset(seed);
+    }
+
+    /**
+     * Brings every bird back to life on the course of the given seed. Each
+     * bird's start height, aiming error and animation phase also follow from
+     * the seed.
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        this.random = GameWorld.courseState(seed);
+
+        tick = 0;
+        score = 0;
+        nextPipeId = 0;
+        groundX = 0;
+        previousGroundX = 0;
+
+        for (int i = 0; i < size; i++) {
+            y[i] = GameWorld.BIRD_START_Y + (birdFloat(seed, i, 0) * 2 - 1) * START_SPREAD;
+            previousY[i] = y[i];
+            velocity[i] = 0;
+            rotation[i] = 0;
+            alive[i] = 1;
+            phase[i] = birdFloat(seed, i, 1) * ANIMATION_PERIOD;
+        }
+        aliveCount = size;
+        aim(0);
+
+        firstPipe = 0;
+        pipeCount = 0;
+        spawnedPipes = 0;
+        spawnPipe();
+    }
+
+    /**
+     * Advances every bird by one tick. Once the whole swarm is dead the
+     * course stops scrolling.
+     */
+    public void step() {
+        tick++;
+        System.arraycopy(y, 0, previousY, 0, size);
+        previousGroundX = groundX;
+        for (int i = 0; i < pipeCount; i++) {
+            previousPipeX[slot(i)] = pipeX[slot(i)];
+        }
+        if (aliveCount == 0) {
+            return;
+        }
+
+        addPipes();
+        removePipes();
+        for (int i = 0; i < pipeCount; i++) {
+            pipeX[slot(i)] += GameWorld.GAME_SPEED * deltaTime;
+        }
+        groundX += GameWorld.GAME_SPEED * deltaTime;
+        if (groundX + GameWorld.GROUND_WIDTH < GameWorld.WIDTH) {
+            previousGroundX -= groundX;
+            groundX = 0;
+        }
+
+        int next = nextPipe();
+        if (pipeId[slot(next)] != nextPipeId) {
+            // The swarm passed a pipe
+            nextPipeId = pipeId[slot(next)];
+            score++;
+            aim(nextPipeId);
+        }
+        float gapY = pipeGapY[slot(next)];
+        move(gapY - GameWorld.VERTICAL_PIPE_GAP / 2f);
+        collide(next, gapY);
+    }
+
+    // New aiming errors for the pipe with the given spawn index
+    private void aim(int pipe) {
+        for (int i = 0; i < size; i++) {
+            aim[i] = (birdFloat(seed, i, pipe + 2) * 2 - 1) * AIM_SPREAD;
+        }
+    }
+
+    // One loop per array written, C2 gives up on vectorizing the fused loop.
+    // The flap check of GameWorld, birdY < HEIGHT - 25, always holds below an aim.
+    private void move(float target) {
+        float gravity = GameWorld.GRAVITY * deltaTime;
+        float dt = deltaTime;
+        float minY = GameWorld.GROUND_HEIGHT - 5;
+        float maxY = GameWorld.HEIGHT - GameWorld.BIRD_HEIGHT;
+        for (int i = 0; i < size; i++) {
+            float v = velocity[i];
+            // Under the aim and falling, both negative
+            float flap = step(-Math.max(y[i] - target - aim[i], v));
+            velocity[i] = (v + (GameWorld.FLAP_FORCE - v) * flap - gravity) * alive[i];
+        }
+        for (int i = 0; i < size; i++) {
+            y[i] = Math.min(Math.max(y[i] + velocity[i] * dt, minY), maxY);
+        }
+        for (int i = 0; i < size; i++) {
+            float a = alive[i];
+            rotation[i] = Math.min(Math.max(velocity[i] * ROTATION_PER_VELOCITY, MIN_ROTATION), MAX_ROTATION) * a
+                    + rotation[i] * (1 - a);
+        }
+    }
+
+    // Discrete, unlike GameWorld's sweep. A tick moves a bird a few pixels at
+    // most, far less than a pipe is wide or the ground is deep. A hitbox
+    // exactly on an edge counts as a hit.
+    private void collide(int next, float gapY) {
+        float x = pipeX[slot(next)];
+        boolean overPipe = HITBOX_X < x + GameWorld.PIPE_WIDTH && HITBOX_X + GameWorld.BIRD_HITBOX > x;
+        // Lowest and highest y whose hitbox touches nothing
+        float minY = overPipe ? gapY - GameWorld.VERTICAL_PIPE_GAP : GameWorld.GROUND_HEIGHT;
+        float maxY = overPipe ? gapY + GameWorld.VERTICAL_PIPE_GAP - GameWorld.BIRD_HITBOX : GameWorld.HEIGHT;
+        minY = Math.max(minY, GameWorld.GROUND_HEIGHT) - HITBOX_OFFSET;
+        maxY -= HITBOX_OFFSET;
+
+        for (int i = 0; i < size; i++) {
+            float birdY = y[i];
+            alive[i] *= step(Math.min(birdY - minY, maxY - birdY));
+        }
+
+        // A float sum is exact up to 2^24 birds and cheaper than converting each one
+        float count = 0;
+        for (int i = 0; i < size; i++) {
+            count += alive[i];
+        }
+        aliveCount = (int) count;
+    }
+
+    // 1 for positive values, 0 for the rest, without a branch
+    private static float step(float value) {
+        return Math.min(Math.max(value * STEP_SCALE, 0), 1);
+    }
+
+    private int nextPipe() {
+        for (int i = 0; i < pipeCount; i++) {
+            if (pipeX[slot(i)] + GameWorld.PIPE_WIDTH > GameWorld.BIRD_X) {
+                return i;
+            }
+        }
+        return pipeCount - 1;
+    }
+
+    private void addPipes() {
+        if (pipeCount < GameWorld.MAX_PIPES
+                && pipeX[slot(pipeCount - 1)] < GameWorld.WIDTH - GameWorld.HORIZONTAL_PIPE_GAP) {
+            spawnPipe();
+        }
+    }
+
+    private void removePipes() {
+        if (pipeX[firstPipe] < -GameWorld.PIPE_WIDTH) {
+            firstPipe = (firstPipe + 1) % GameWorld.MAX_PIPES;
+            pipeCount--;
+        }
+    }
+
+    private void spawnPipe() {
+        int slot = slot(pipeCount);
+        pipeX[slot] = GameWorld.WIDTH;
+        previousPipeX[slot] = GameWorld.WIDTH;
+        pipeGapY[slot] = GameWorld.MIN_PIPE_HEIGHT
+                + nextFloat() * (GameWorld.MAX_PIPE_HEIGHT - GameWorld.MIN_PIPE_HEIGHT);
+        pipeId[slot] = spawnedPipes++;
+        pipeCount++;
+    }
+
+    private int slot(int index) {
+        return (firstPipe + index) % GameWorld.MAX_PIPES;
+    }
+
+    // Same xorshift64* as GameWorld, so the course matches
+    private float nextFloat() {
+        random ^= random >>> 12;
+        random ^= random << 25;
+        random ^= random >>> 27;
+        return ((random * 0x2545F4914F6CDD1DL) >>> 40) * 0x1.0p-24f;
+    }
+
+    // splitmix64 of the seed and the bird, kept apart from the course generator
+    private static float birdFloat(long seed, int bird, int trait) {
+        long z = seed + (bird * 3L + trait + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 40) * 0x1.0p-24f;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    /**
+     * Pipes the swarm passed with at least one bird alive.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * The bird arrays, indexed by bird. Read only, they are the swarm's own
+     * and change with every step.
+     */
+    public float[] getY() {
+        return y;
+    }
+
+    public float[] getPreviousY() {
+        return previousY;
+    }
+
+    public float[] getVelocity() {
+        return velocity;
+    }
+
+    public float[] getRotation() {
+        return rotation;
+    }
+
+    public float[] getAlive() {
+        return alive;
+    }
+
+    /**
+     * Animation time offsets, 0 to the length of one flapping cycle.
+     */
+    public float[] getPhase() {
+        return phase;
+    }
+
+    /**
+     * Seconds the swarm has flown.
+     */
+    public float getTime() {
+        return tick * deltaTime;
+    }
+
+    public float getGroundX() {
+        return groundX;
+    }
+
+    public float getPreviousGroundX() {
+        return previousGroundX;
+    }
+
+    public int getPipeCount() {
+        return pipeCount;
+    }
+
+    /**
+     * @param index 0 for the oldest pipe in play
+     */
+    public float getPipeX(int index) {
+        return pipeX[slot(index)];
+    }
+
+    public float getPreviousPipeX(int index) {
+        return previousPipeX[slot(index)];
+    }
+
+    public float getPipeGapY(int index) {
+        return pipeGapY[slot(index)];
+    }
+
+    public int getPipeId(int index) {
+        return pipeId[slot(index)];
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * Swept axis-aligned box test. A box moving in a straight line during one
+ * tick is checked against a box standing still, so nothing is skipped however
+ * far the box moves in that tick. Moving targets are handled by sweeping with
+ * the relative motion.
+ */
+public final class Sweep {
+
+    /** Returned when the boxes never overlap during the tick. */
+    public static final float NO_IMPACT = Float.POSITIVE_INFINITY;
+
+    private Sweep() {
+    }
+
+    /**
+     * Time of impact of a box starting at {@code left, bottom} and moving by
+     * {@code dx, dy} against a static box. Touching edges don't count, like
+     * {@code Rectangle.overlaps()}.
+     *
+     * @return the fraction of the move, 0 to 1, at which the boxes first
+     *         overlap, 0 if they already do, or {@link #NO_IMPACT}
+     */
+    public static float timeOfImpact(
+            float left, float bottom, float width, float height, float dx, float dy,
+            float boxLeft, float boxBottom, float boxWidth, float boxHeight) {
+        float entry = 0;
+        float exit = 1;
+
+        // Slab method: intersect the time spans the boxes overlap on each
+        // axis. Most boxes are far away sideways, so x is tested first.
+        if (dx == 0) {
+            if (left >= boxLeft + boxWidth || left + width <= boxLeft) {
+                return NO_IMPACT;
+            }
+        } else {
+            float inverse = 1 / dx;
+            float near = ((dx > 0 ? boxLeft - width : boxLeft + boxWidth) - left) * inverse;
+            float far = ((dx > 0 ? boxLeft + boxWidth : boxLeft - width) - left) * inverse;
+            entry = Math.max(entry, near);
+            exit = Math.min(exit, far);
+            if (entry >= exit) {
+                return NO_IMPACT;
+            }
+        }
+
+        if (dy == 0) {
+            if (bottom >= boxBottom + boxHeight || bottom + height <= boxBottom) {
+                return NO_IMPACT;
+            }
+        } else {
+            float inverse = 1 / dy;
+            float near = ((dy > 0 ? boxBottom - height : boxBottom + boxHeight) - bottom) * inverse;
+            float far = ((dy > 0 ? boxBottom + boxHeight : boxBottom - height) - bottom) * inverse;
+            entry = Math.max(entry, near);
+            exit = Math.min(exit, far);
+        }
+
+        return entry < exit ? entry : NO_IMPACT;
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * The state of a {@link GameWorld} at each of its last ticks, to rewind it.
+ *
+ * A ring buffer of primitive arrays, allocated once. Every tick is stored
+ * at the same stride, so saving one and restoring any of them is a fixed
+ * amount of copying, whatever the capacity. Saving a tick that doesn't
+ * follow the newest one, after a restart say, starts the history over.
+ */
+public class WorldHistory {
+
+    public static final int BYTES_PER_TICK = GameWorld.STATE_LONGS * 8 + GameWorld.STATE_INTS * 4
+            + GameWorld.STATE_FLOATS * 4;
+
+    private final int capacity;
+    private final long[] longs;
+    private final int[] ints;
+    private final float[] floats;
+
+    private int newestTick;
+    private int count;
+
+    /**
+     * @param capacity ticks kept, the oldest is overwritten once full
+     */
+    public WorldHistory(int capacity) {
+        this.capacity = capacity;
+        longs = new long[capacity * GameWorld.STATE_LONGS];
+        ints = new int[capacity * GameWorld.STATE_INTS];
+        floats = new float[capacity * GameWorld.STATE_FLOATS];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Stores the state of the world after its last tick.
+     */
+    public void save(GameWorld world) {
+        int tick = world.getTick();
+        if (count > 0 && tick != newestTick + 1) {
+            count = 0;
+        }
+        int slot = tick % capacity;
+        world.saveState(longs, slot * GameWorld.STATE_LONGS, ints, slot * GameWorld.STATE_INTS, floats,
+                slot * GameWorld.STATE_FLOATS);
+        newestTick = tick;
+        count = Math.min(count + 1, capacity);
+    }
+
+    /**
+     * Puts the world back to how it was after the given tick.
+     *
+     * @return false if the tick is not in the history, the world is then
+     *         left alone
+     */
+    public boolean restore(int tick, GameWorld world) {
+        if (count == 0 || tick < getOldestTick() || tick > newestTick) {
+            return false;
+        }
+        int slot = tick % capacity;
+        world.restoreState(longs, slot * GameWorld.STATE_LONGS, ints, slot * GameWorld.STATE_INTS, floats,
+                slot * GameWorld.STATE_FLOATS);
+        return true;
+    }
+
+    /**
+     * Forgets every tick after the given one, the world went on from there
+     * another way.
+     */
+    public void truncate(int tick) {
+        if (count > 0 && tick < newestTick) {
+            count = Math.max(0, count - (newestTick - tick));
+            newestTick = tick;
+        }
+    }
+
+    public int getOldestTick() {
+        return newestTick - count + 1;
+    }
+
+    public int getNewestTick() {
+        return newestTick;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Size of the buffers, all allocated up front.
+     */
+    public long getBytes() {
+        return (long) capacity * BYTES_PER_TICK;
+    }
+}
@@ -0,0 +1,330 @@
+package io.github.diegobloise.flappybird.world;
+
+/**
+ * Copy of everything a frame draws from a {@link GameWorld}, taken after a
+ * tick. The simulation thread fills one and hands it to the render thread
+ * through a {@link SnapshotBuffer}. It is never written again while the
+ * renderer holds it, so the renderer reads it without any locking.
+ *
+ * Instances are reused, {@link #set} copies into the existing arrays and
+ * never allocates.
+ */
+public class WorldSnapshot {
+
+    private int tick;
+    private int playTicks;
+    private int tickRate;
+    private long seed;
+    // Wall clock time the tick was due at, and the wall clock length of a tick
+    private long time;
+    private long tickNanos;
+
+    private boolean playing;
+    private boolean gameOver;
+    private boolean birdOnGround;
+    private int score;
+
+    private float birdY;
+    private float previousBirdY;
+    private float birdRotation;
+    private float previousBirdRotation;
+    private float animationTime;
+    private float birdHitboxY;
+
+    private float groundX;
+    private float previousGroundX;
+
+    // Pipes in play, oldest first
+    private final float[] pipeX = new float[GameWorld.MAX_PIPES];
+    private final float[] previousPipeX = new float[GameWorld.MAX_PIPES];
+    private final float[] pipeGapY = new float[GameWorld.MAX_PIPES];
+    private final boolean[] pipeScored = new boolean[GameWorld.MAX_PIPES];
+    private final int[] pipeId = new int[GameWorld.MAX_PIPES];
+    private int pipeCount;
+    private int spawnedPipes;
+    private int recycledPipes;
+    private int refusedPipes;
+
+    // Kept by the simulation, see the getters
+    private int run;
+    private boolean replaying;
+    private long flapEvents;
+    private long scoreEvents;
+    private long hitEvents;
+    private long dieEvents;
+    private long appliedFlaps;
+    private long lastFlapTime;
+    private boolean newHighscore;
+    private boolean racing;
+    private boolean rewinding;
+    private int historyTicks;
+
+    /**
+     * Copies the state of the world after its last tick.
+     */
+    public void set(GameWorld world, long time, long tickNanos) {
+        this.tick = world.getTick();
+        this.playTicks = world.getPlayTicks();
+        this.tickRate = world.getTickRate();
+        this.seed = world.getSeed();
+        this.time = time;
+        this.tickNanos = tickNanos;
+
+        playing = world.isPlaying();
+        gameOver = world.isGameOver();
+        birdOnGround = world.isBirdOnGround();
+        score = world.getScore();
+
+        birdY = world.getBirdY();
+        previousBirdY = world.getPreviousBirdY();
+        birdRotation = world.getBirdRotation();
+        previousBirdRotation = world.getPreviousBirdRotation();
+        animationTime = world.getAnimationTime();
+        birdHitboxY = world.getBirdHitboxY();
+
+        groundX = world.getGroundX();
+        previousGroundX = world.getPreviousGroundX();
+
+        pipeCount = world.getPipeCount();
+        spawnedPipes = world.getSpawnedPipes();
+        recycledPipes = world.getRecycledPipes();
+        refusedPipes = world.getRefusedPipes();
+        for (int i = 0; i < pipeCount; i++) {
+            pipeX[i] = world.getPipeX(i);
+            previousPipeX[i] = world.getPreviousPipeX(i);
+            pipeGapY[i] = world.getPipeGapY(i);
+            pipeScored[i] = world.isPipeScored(i);
+            pipeId[i] = world.getPipeId(i);
+        }
+    }
+
+    /**
+     * Copies the state of the simulation around the world.
+     */
+    public void setSimulation(int run, boolean replaying, long flapEvents, long scoreEvents, long hitEvents,
+            long dieEvents, long appliedFlaps, long lastFlapTime) {
+        this.run = run;
+        this.replaying = replaying;
+        this.flapEvents = flapEvents;
+        this.scoreEvents = scoreEvents;
+        this.hitEvents = hitEvents;
+        this.dieEvents = dieEvents;
+        this.appliedFlaps = appliedFlaps;
+        this.lastFlapTime = lastFlapTime;
+    }
+
+    /**
+     * Whether the run that just ended beat every run before it.
+     */
+    public void setNewHighscore(boolean newHighscore) {
+        this.newHighscore = newHighscore;
+    }
+
+    /**
+     * Whether the run is a race against the ghosts of its course.
+     */
+    public void setRacing(boolean racing) {
+        this.racing = racing;
+    }
+
+    /**
+     * Whether the world is paused at a rewound tick, and the ticks the
+     * history holds.
+     */
+    public void setRewind(boolean rewinding, int historyTicks) {
+        this.rewinding = rewinding;
+        this.historyTicks = historyTicks;
+    }
+
+    /**
+     * How far {@code now} is into the tick after this one, 0 to 1, for
+     * drawing between the previous and the current positions.
+     */
+    public float getAlpha(long now) {
+        float alpha = (float) (now - time) / tickNanos;
+        return alpha < 0 ? 0 : alpha > 1 ? 1 : alpha;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getPlayTicks() {
+        return playTicks;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isBirdOnGround() {
+        return birdOnGround;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public float getBirdY() {
+        return birdY;
+    }
+
+    public float getPreviousBirdY() {
+        return previousBirdY;
+    }
+
+    public float getBirdRotation() {
+        return birdRotation;
+    }
+
+    public float getPreviousBirdRotation() {
+        return previousBirdRotation;
+    }
+
+    public float getAnimationTime() {
+        return animationTime;
+    }
+
+    public float getBirdHitboxX() {
+        return GameWorld.BIRD_X + GameWorld.BIRD_WIDTH / 2f - GameWorld.BIRD_HITBOX / 2;
+    }
+
+    public float getBirdHitboxY() {
+        return birdHitboxY;
+    }
+
+    public float getGroundX() {
+        return groundX;
+    }
+
+    public float getPreviousGroundX() {
+        return previousGroundX;
+    }
+
+    public int getPipeCount() {
+        return pipeCount;
+    }
+
+    public int getSpawnedPipes() {
+        return spawnedPipes;
+    }
+
+    public int getRecycledPipes() {
+        return recycledPipes;
+    }
+
+    public int getRefusedPipes() {
+        return refusedPipes;
+    }
+
+    /**
+     * @param index 0 for the oldest pipe in play
+     */
+    public float getPipeX(int index) {
+        return pipeX[index];
+    }
+
+    public float getPreviousPipeX(int index) {
+        return previousPipeX[index];
+    }
+
+    public float getPipeGapY(int index) {
+        return pipeGapY[index];
+    }
+
+    public boolean isPipeScored(int index) {
+        return pipeScored[index];
+    }
+
+    public int getPipeId(int index) {
+        return pipeId[index];
+    }
+
+    /**
+     * Bumped every time the game restarts or a replay starts.
+     */
+    public int getRun() {
+        return run;
+    }
+
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Counts of each {@link GameWorld} event since the simulation started.
+     * The renderer may skip snapshots, so it compares counts instead of
+     * looking at the events of a single tick.
+     */
+    public long getFlapEvents() {
+        return flapEvents;
+    }
+
+    public long getScoreEvents() {
+        return scoreEvents;
+    }
+
+    public long getHitEvents() {
+        return hitEvents;
+    }
+
+    public long getDieEvents() {
+        return dieEvents;
+    }
+
+    /**
+     * Count of player flaps taken from the input queue.
+     */
+    public long getAppliedFlaps() {
+        return appliedFlaps;
+    }
+
+    /**
+     * Input time of the last of the {@link #getAppliedFlaps() applied flaps}.
+     */
+    public long getLastFlapTime() {
+        return lastFlapTime;
+    }
+
+    /**
+     * Whether this run ended with a score better than any before it.
+     */
+    public boolean isNewHighscore() {
+        return newHighscore;
+    }
+
+    /**
+     * Whether this run is a race against the ghosts of its course.
+     */
+    public boolean isRacing() {
+        return racing;
+    }
+
+    public boolean isRewinding() {
+        return rewinding;
+    }
+
+    public int getHistoryTicks() {
+        return historyTicks;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.diegobloise.flappybird;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+
+import io.github.diegobloise.flappybird.screens.MainMenuScreen;
+
+/**
+ * Runs the real game under the headless backend, drawing into a
+ * {@link NullGL20}. The application loop never runs, a test renders the
+ * frames it wants itself, on its own thread.
+ */
+public final class HeadlessGame {
+
+    public static final NullGL20 GL = new NullGL20();
+
+    // Loading takes a few frames, a broken asset would take forever
+    private static final int MAX_LOADING_FRAMES = 10_000;
+
+    static {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // No render loop, so the frame rate the game reads never changes either
+        config.updatesPerSecond = -1;
+        new HeadlessApplication(new ApplicationAdapter() {
+        }, config);
+        // The mock graphics have no GL, the GL profiler needs one to wrap and swap in
+        Gdx.graphics = new NullGLGraphics();
+        Gdx.gl = GL;
+        Gdx.gl20 = GL;
+    }
+
+    private HeadlessGame() {
+    }
+
+    /**
+     * Creates the game and renders it through the loading screen to the main
+     * menu, by then the game screen is built too.
+     */
+    public static FlappyBird start() {
+        return start(new FlappyBird());
+    }
+
+    /**
+     * Starts a game its caller configured, the way a launcher would.
+     */
+    public static FlappyBird start(FlappyBird game) {
+        game.create();
+        for (int frame = 0; !(game.getScreen() instanceof MainMenuScreen) || game.gameScreen == null; frame++) {
+            if (frame == MAX_LOADING_FRAMES) {
+                throw new IllegalStateException("The game did not load in " + MAX_LOADING_FRAMES + " frames");
+            }
+            game.render();
+        }
+        return game;
+    }
+
+    private static final class NullGLGraphics extends MockGraphics {
+
+        private GL20 gl20 = GL;
+
+        @Override
+        public GL20 getGL20() {
+            return gl20;
+        }
+
+        @Override
+        public void setGL20(GL20 gl20) {
+            this.gl20 = gl20;
+        }
+    }
+}
@@ -0,0 +1,748 @@
+package io.github.diegobloise.flappybird;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * A {@link GL20} that draws nothing, so the real screens run under the
+ * headless backend. Every call returns at once without allocating, a mock
+ * recording its calls would allocate on every one of them.
+ *
+ * Objects still get ids and are counted per kind while alive, so a test
+ * can tell a leaked texture, buffer or shader that no
+ * {@link io.github.diegobloise.flappybird.profiling.ResourceTracker} knows
+ * about. Shaders always compile and programs always link.
+ */
+public class NullGL20 implements GL20 {
+
+    public static final int TEXTURES = 0;
+    public static final int BUFFERS = 1;
+    public static final int SHADERS = 2;
+    public static final int PROGRAMS = 3;
+    public static final int FRAMEBUFFERS = 4;
+    public static final int RENDERBUFFERS = 5;
+    public static final int KINDS = 6;
+
+    private final int[] live = new int[KINDS];
+    private int nextId = 1;
+
+    public int getLive(int kind) {
+        return live[kind];
+    }
+
+    private int create(int kind) {
+        live[kind]++;
+        return nextId++;
+    }
+
+    private void create(int kind, int n, IntBuffer ids) {
+        for (int i = 0; i < n; i++) {
+            ids.put(ids.position() + i, create(kind));
+        }
+    }
+
+    // Id 0 is no object, deleting it does nothing
+    private void delete(int kind, int id) {
+        if (id != 0) {
+            live[kind]--;
+        }
+    }
+
+    private void delete(int kind, int n, IntBuffer ids) {
+        for (int i = 0; i < n; i++) {
+            delete(kind, ids.get(ids.position() + i));
+        }
+    }
+
+    @Override
+    public int glGenTexture() {
+        return create(TEXTURES);
+    }
+
+    @Override
+    public void glGenTextures(int n, IntBuffer textures) {
+        create(TEXTURES, n, textures);
+    }
+
+    @Override
+    public void glDeleteTexture(int texture) {
+        delete(TEXTURES, texture);
+    }
+
+    @Override
+    public void glDeleteTextures(int n, IntBuffer textures) {
+        delete(TEXTURES, n, textures);
+    }
+
+    @Override
+    public int glGenBuffer() {
+        return create(BUFFERS);
+    }
+
+    @Override
+    public void glGenBuffers(int n, IntBuffer buffers) {
+        create(BUFFERS, n, buffers);
+    }
+
+    @Override
+    public void glDeleteBuffer(int buffer) {
+        delete(BUFFERS, buffer);
+    }
+
+    @Override
+    public void glDeleteBuffers(int n, IntBuffer buffers) {
+        delete(BUFFERS, n, buffers);
+    }
+
+    @Override
+    public int glCreateShader(int type) {
+        return create(SHADERS);
+    }
+
+    @Override
+    public void glDeleteShader(int shader) {
+        delete(SHADERS, shader);
+    }
+
+    @Override
+    public int glCreateProgram() {
+        return create(PROGRAMS);
+    }
+
+    @Override
+    public void glDeleteProgram(int program) {
+        delete(PROGRAMS, program);
+    }
+
+    @Override
+    public int glGenFramebuffer() {
+        return create(FRAMEBUFFERS);
+    }
+
+    @Override
+    public void glGenFramebuffers(int n, IntBuffer framebuffers) {
+        create(FRAMEBUFFERS, n, framebuffers);
+    }
+
+    @Override
+    public void glDeleteFramebuffer(int framebuffer) {
+        delete(FRAMEBUFFERS, framebuffer);
+    }
+
+    @Override
+    public void glDeleteFramebuffers(int n, IntBuffer framebuffers) {
+        delete(FRAMEBUFFERS, n, framebuffers);
+    }
+
+    @Override
+    public int glGenRenderbuffer() {
+        return create(RENDERBUFFERS);
+    }
+
+    @Override
+    public void glGenRenderbuffers(int n, IntBuffer renderbuffers) {
+        create(RENDERBUFFERS, n, renderbuffers);
+    }
+
+    @Override
+    public void glDeleteRenderbuffer(int renderbuffer) {
+        delete(RENDERBUFFERS, renderbuffer);
+    }
+
+    @Override
+    public void glDeleteRenderbuffers(int n, IntBuffer renderbuffers) {
+        delete(RENDERBUFFERS, n, renderbuffers);
+    }
+
+    // Compiled, linked, and no attributes or uniforms to look up
+    @Override
+    public void glGetShaderiv(int shader, int pname, IntBuffer params) {
+        params.put(params.position(), pname == GL_COMPILE_STATUS ? 1 : 0);
+    }
+
+    @Override
+    public void glGetProgramiv(int program, int pname, IntBuffer params) {
+        params.put(params.position(), pname == GL_LINK_STATUS ? 1 : 0);
+    }
+
+    @Override
+    public int glCheckFramebufferStatus(int target) {
+        return GL_FRAMEBUFFER_COMPLETE;
+    }
+
+    // Everything else does nothing
+
+    @Override
+    public void glActiveTexture(int a) {
+    }
+
+    @Override
+    public void glBindTexture(int a, int b) {
+    }
+
+    @Override
+    public void glBlendFunc(int a, int b) {
+    }
+
+    @Override
+    public void glClear(int a) {
+    }
+
+    @Override
+    public void glClearColor(float a, float b, float c, float d) {
+    }
+
+    @Override
+    public void glClearDepthf(float a) {
+    }
+
+    @Override
+    public void glClearStencil(int a) {
+    }
+
+    @Override
+    public void glColorMask(boolean a, boolean b, boolean c, boolean d) {
+    }
+
+    @Override
+    public void glCompressedTexImage2D(int a, int b, int c, int d, int e, int f, int g, Buffer h) {
+    }
+
+    @Override
+    public void glCompressedTexSubImage2D(int a, int b, int c, int d, int e, int f, int g, int h, Buffer i) {
+    }
+
+    @Override
+    public void glCopyTexImage2D(int a, int b, int c, int d, int e, int f, int g, int h) {
+    }
+
+    @Override
+    public void glCopyTexSubImage2D(int a, int b, int c, int d, int e, int f, int g, int h) {
+    }
+
+    @Override
+    public void glCullFace(int a) {
+    }
+
+    @Override
+    public void glDepthFunc(int a) {
+    }
+
+    @Override
+    public void glDepthMask(boolean a) {
+    }
+
+    @Override
+    public void glDepthRangef(float a, float b) {
+    }
+
+    @Override
+    public void glDisable(int a) {
+    }
+
+    @Override
+    public void glDrawArrays(int a, int b, int c) {
+    }
+
+    @Override
+    public void glDrawElements(int a, int b, int c, Buffer d) {
+    }
+
+    @Override
+    public void glEnable(int a) {
+    }
+
+    @Override
+    public void glFinish() {
+    }
+
+    @Override
+    public void glFlush() {
+    }
+
+    @Override
+    public void glFrontFace(int a) {
+    }
+
+    @Override
+    public int glGetError() {
+        return 0;
+    }
+
+    @Override
+    public void glGetIntegerv(int a, IntBuffer b) {
+    }
+
+    @Override
+    public String glGetString(int a) {
+        return "";
+    }
+
+    @Override
+    public void glHint(int a, int b) {
+    }
+
+    @Override
+    public void glLineWidth(float a) {
+    }
+
+    @Override
+    public void glPixelStorei(int a, int b) {
+    }
+
+    @Override
+    public void glPolygonOffset(float a, float b) {
+    }
+
+    @Override
+    public void glReadPixels(int a, int b, int c, int d, int e, int f, Buffer g) {
+    }
+
+    @Override
+    public void glScissor(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glStencilFunc(int a, int b, int c) {
+    }
+
+    @Override
+    public void glStencilMask(int a) {
+    }
+
+    @Override
+    public void glStencilOp(int a, int b, int c) {
+    }
+
+    @Override
+    public void glTexImage2D(int a, int b, int c, int d, int e, int f, int g, int h, Buffer i) {
+    }
+
+    @Override
+    public void glTexParameterf(int a, int b, float c) {
+    }
+
+    @Override
+    public void glTexSubImage2D(int a, int b, int c, int d, int e, int f, int g, int h, Buffer i) {
+    }
+
+    @Override
+    public void glViewport(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glAttachShader(int a, int b) {
+    }
+
+    @Override
+    public void glBindAttribLocation(int a, int b, String c) {
+    }
+
+    @Override
+    public void glBindBuffer(int a, int b) {
+    }
+
+    @Override
+    public void glBindFramebuffer(int a, int b) {
+    }
+
+    @Override
+    public void glBindRenderbuffer(int a, int b) {
+    }
+
+    @Override
+    public void glBlendColor(float a, float b, float c, float d) {
+    }
+
+    @Override
+    public void glBlendEquation(int a) {
+    }
+
+    @Override
+    public void glBlendEquationSeparate(int a, int b) {
+    }
+
+    @Override
+    public void glBlendFuncSeparate(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glBufferData(int a, int b, Buffer c, int d) {
+    }
+
+    @Override
+    public void glBufferSubData(int a, int b, int c, Buffer d) {
+    }
+
+    @Override
+    public void glCompileShader(int a) {
+    }
+
+    @Override
+    public void glDetachShader(int a, int b) {
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(int a) {
+    }
+
+    @Override
+    public void glDrawElements(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glEnableVertexAttribArray(int a) {
+    }
+
+    @Override
+    public void glFramebufferRenderbuffer(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glFramebufferTexture2D(int a, int b, int c, int d, int e) {
+    }
+
+    @Override
+    public void glGenerateMipmap(int a) {
+    }
+
+    @Override
+    public String glGetActiveAttrib(int a, int b, IntBuffer c, IntBuffer d) {
+        return "";
+    }
+
+    @Override
+    public String glGetActiveUniform(int a, int b, IntBuffer c, IntBuffer d) {
+        return "";
+    }
+
+    @Override
+    public void glGetAttachedShaders(int a, int b, Buffer c, IntBuffer d) {
+    }
+
+    @Override
+    public int glGetAttribLocation(int a, String b) {
+        return 0;
+    }
+
+    @Override
+    public void glGetBooleanv(int a, Buffer b) {
+    }
+
+    @Override
+    public void glGetBufferParameteriv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glGetFloatv(int a, FloatBuffer b) {
+    }
+
+    @Override
+    public void glGetFramebufferAttachmentParameteriv(int a, int b, int c, IntBuffer d) {
+    }
+
+    @Override
+    public String glGetProgramInfoLog(int a) {
+        return "";
+    }
+
+    @Override
+    public void glGetRenderbufferParameteriv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public String glGetShaderInfoLog(int a) {
+        return "";
+    }
+
+    @Override
+    public void glGetShaderPrecisionFormat(int a, int b, IntBuffer c, IntBuffer d) {
+    }
+
+    @Override
+    public void glGetTexParameterfv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glGetTexParameteriv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glGetUniformfv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glGetUniformiv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public int glGetUniformLocation(int a, String b) {
+        return 0;
+    }
+
+    @Override
+    public void glGetVertexAttribfv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glGetVertexAttribiv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glGetVertexAttribPointerv(int a, int b, Buffer c) {
+    }
+
+    @Override
+    public boolean glIsBuffer(int a) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsEnabled(int a) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsFramebuffer(int a) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsProgram(int a) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsRenderbuffer(int a) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsShader(int a) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsTexture(int a) {
+        return false;
+    }
+
+    @Override
+    public void glLinkProgram(int a) {
+    }
+
+    @Override
+    public void glReleaseShaderCompiler() {
+    }
+
+    @Override
+    public void glRenderbufferStorage(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glSampleCoverage(float a, boolean b) {
+    }
+
+    @Override
+    public void glShaderBinary(int a, IntBuffer b, int c, Buffer d, int e) {
+    }
+
+    @Override
+    public void glShaderSource(int a, String b) {
+    }
+
+    @Override
+    public void glStencilFuncSeparate(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glStencilMaskSeparate(int a, int b) {
+    }
+
+    @Override
+    public void glStencilOpSeparate(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glTexParameterfv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glTexParameteri(int a, int b, int c) {
+    }
+
+    @Override
+    public void glTexParameteriv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glUniform1f(int a, float b) {
+    }
+
+    @Override
+    public void glUniform1fv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glUniform1fv(int a, int b, float[] c, int d) {
+    }
+
+    @Override
+    public void glUniform1i(int a, int b) {
+    }
+
+    @Override
+    public void glUniform1iv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glUniform1iv(int a, int b, int[] c, int d) {
+    }
+
+    @Override
+    public void glUniform2f(int a, float b, float c) {
+    }
+
+    @Override
+    public void glUniform2fv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glUniform2fv(int a, int b, float[] c, int d) {
+    }
+
+    @Override
+    public void glUniform2i(int a, int b, int c) {
+    }
+
+    @Override
+    public void glUniform2iv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glUniform2iv(int a, int b, int[] c, int d) {
+    }
+
+    @Override
+    public void glUniform3f(int a, float b, float c, float d) {
+    }
+
+    @Override
+    public void glUniform3fv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glUniform3fv(int a, int b, float[] c, int d) {
+    }
+
+    @Override
+    public void glUniform3i(int a, int b, int c, int d) {
+    }
+
+    @Override
+    public void glUniform3iv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glUniform3iv(int a, int b, int[] c, int d) {
+    }
+
+    @Override
+    public void glUniform4f(int a, float b, float c, float d, float e) {
+    }
+
+    @Override
+    public void glUniform4fv(int a, int b, FloatBuffer c) {
+    }
+
+    @Override
+    public void glUniform4fv(int a, int b, float[] c, int d) {
+    }
+
+    @Override
+    public void glUniform4i(int a, int b, int c, int d, int e) {
+    }
+
+    @Override
+    public void glUniform4iv(int a, int b, IntBuffer c) {
+    }
+
+    @Override
+    public void glUniform4iv(int a, int b, int[] c, int d) {
+    }
+
+    @Override
+    public void glUniformMatrix2fv(int a, int b, boolean c, FloatBuffer d) {
+    }
+
+    @Override
+    public void glUniformMatrix2fv(int a, int b, boolean c, float[] d, int e) {
+    }
+
+    @Override
+    public void glUniformMatrix3fv(int a, int b, boolean c, FloatBuffer d) {
+    }
+
+    @Override
+    public void glUniformMatrix3fv(int a, int b, boolean c, float[] d, int e) {
+    }
+
+    @Override
+    public void glUniformMatrix4fv(int a, int b, boolean c, FloatBuffer d) {
+    }
+
+    @Override
+    public void glUniformMatrix4fv(int a, int b, boolean c, float[] d, int e) {
+    }
+
+    @Override
+    public void glUseProgram(int a) {
+    }
+
+    @Override
+    public void glValidateProgram(int a) {
+    }
+
+    @Override
+    public void glVertexAttrib1f(int a, float b) {
+    }
+
+    @Override
+    public void glVertexAttrib1fv(int a, FloatBuffer b) {
+    }
+
+    @Override
+    public void glVertexAttrib2f(int a, float b, float c) {
+    }
+
+    @Override
+    public void glVertexAttrib2fv(int a, FloatBuffer b) {
+    }
+
+    @Override
+    public void glVertexAttrib3f(int a, float b, float c, float d) {
+    }
+
+    @Override
+    public void glVertexAttrib3fv(int a, FloatBuffer b) {
+    }
+
+    @Override
+    public void glVertexAttrib4f(int a, float b, float c, float d, float e) {
+    }
+
+    @Override
+    public void glVertexAttrib4fv(int a, FloatBuffer b) {
+    }
+
+    @Override
+    public void glVertexAttribPointer(int a, int b, int c, boolean d, int e, Buffer f) {
+    }
+
+    @Override
+    public void glVertexAttribPointer(int a, int b, int c, boolean d, int e, int f) {
+    }
+}
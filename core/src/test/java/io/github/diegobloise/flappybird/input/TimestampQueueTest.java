@@ -0,0 +1,141 @@
+package io.github.diegobloise.flappybird.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * The {@link TimestampQueue} gives events back in order and only once they
+ * are due, drops them once full, and loses none between a producer and a
+ * consumer thread.
+ */
+public class TimestampQueueTest {
+
+    private static final int EVENTS = 1_000_000;
+
+    @Test
+    public void pollsInOrderOnceDue() {
+        TimestampQueue queue = new TimestampQueue(8);
+        assertTrue(queue.isEmpty());
+        assertEquals(TimestampQueue.NONE, queue.poll(Long.MAX_VALUE));
+
+        queue.offer(10);
+        queue.offer(20);
+        queue.offer(30);
+        assertEquals(3, queue.size());
+        assertEquals(TimestampQueue.NONE, queue.poll(9));
+        assertEquals(10, queue.poll(10));
+        // Not due yet, and the later ones wait behind it
+        assertEquals(TimestampQueue.NONE, queue.poll(19));
+        assertEquals(20, queue.poll(25));
+        assertEquals(30, queue.poll(Long.MAX_VALUE));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void dropsEventsOnceFull() {
+        TimestampQueue queue = new TimestampQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+
+        assertEquals(0, queue.poll(Long.MAX_VALUE));
+        assertTrue("A slot was freed", queue.offer(5));
+        long[] expected = { 1, 2, 3, 5 };
+        for (long timestamp : expected) {
+            assertEquals(timestamp, queue.poll(Long.MAX_VALUE));
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void wrapsAroundItsSlots() {
+        TimestampQueue queue = new TimestampQueue(4);
+        for (long timestamp = 0; timestamp < 100; timestamp++) {
+            queue.offer(timestamp);
+            if (timestamp % 3 == 2) {
+                queue.offer(timestamp);
+            }
+            assertEquals(timestamp, queue.poll(timestamp));
+            if (timestamp % 3 == 2) {
+                assertEquals(timestamp, queue.poll(timestamp));
+            }
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void clearDropsWhatIsQueued() {
+        TimestampQueue queue = new TimestampQueue(4);
+        queue.offer(1);
+        queue.offer(2);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(TimestampQueue.NONE, queue.poll(Long.MAX_VALUE));
+        queue.offer(3);
+        assertEquals(3, queue.poll(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void rejectsACapacityThatIsNotAPowerOfTwo() {
+        int[] capacities = { 0, -4, 3, 12 };
+        for (int capacity : capacities) {
+            try {
+                new TimestampQueue(capacity);
+                throw new AssertionError("Made a queue of " + capacity);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * The producer offers increasing timestamps, retrying whenever the
+     * queue is full. The consumer gets every one of them exactly once, in
+     * order.
+     */
+    @Test
+    public void losesNothingBetweenTwoThreads() throws InterruptedException {
+        final TimestampQueue queue = new TimestampQueue(64);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (long timestamp = 0; timestamp < EVENTS; timestamp++) {
+                        while (!queue.offer(timestamp)) {
+                            Thread.yield();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        }, "Timestamp producer");
+        producer.start();
+
+        long expected = 0;
+        while (expected < EVENTS) {
+            long timestamp = queue.poll(Long.MAX_VALUE);
+            if (timestamp == TimestampQueue.NONE) {
+                assertTrue("The producer stopped", producer.isAlive() || !queue.isEmpty());
+                // With fewer cores than threads the producer only gets going once the consumer lets go
+                Thread.yield();
+                continue;
+            }
+            assertEquals(expected, timestamp);
+            expected++;
+        }
+        producer.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.diegobloise.flappybird.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldHistory;
+
+/**
+ * Runs recorded by a {@link ReplayRecorder} and played back by a
+ * {@link ReplayPlayer} go the same way tick for tick, through the replay
+ * format and through a rewind, and a replay that doesn't end where its run
+ * did fails verification.
+ */
+public class ReplayPlayerTest {
+
+    private static final int[] TICK_RATES = { 30, 60, 120 };
+    private static final int SEEDS = 20;
+    // The bot lets the bird fall after this long, so every run ends
+    private static final int MAX_SECONDS = 20;
+
+    @Test
+    public void aRecordedRunReplaysToItsTickAndScore() throws IOException {
+        int scored = 0;
+        for (int tickRate : TICK_RATES) {
+            for (long seed = 1; seed <= SEEDS; seed++) {
+                GameWorld world = new GameWorld(tickRate, seed);
+                Replay replay = Replay.fromBytes(record(world, new Random(seed)).toBytes());
+                assertEquals(world.getTick(), replay.getEndTick());
+                assertEquals(world.getScore(), replay.getScore());
+
+                GameWorld playback = new GameWorld(tickRate, 0);
+                ReplayPlayer player = new ReplayPlayer(replay);
+                player.start(playback);
+                assertEquals(seed, playback.getSeed());
+                while (!player.isFinished(playback)) {
+                    assertFalse("Over before its end at tick " + playback.getTick(), playback.isGameOver());
+                    playback.step(player.shouldFlap(playback));
+                }
+                assertTrue(playback.isGameOver());
+                assertEquals(world.getTick(), playback.getTick());
+                assertEquals(world.getScore(), playback.getScore());
+                assertEquals(world.getBirdY(), playback.getBirdY(), 0);
+
+                assertTrue(ReplayPlayer.verify(replay, new GameWorld(tickRate, 0)));
+                scored += replay.getScore();
+            }
+        }
+        assertTrue("No run scored", scored > 0);
+    }
+
+    @Test
+    public void aRewoundRunReplaysFromWhereItWasPlayedOn() {
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            GameWorld world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, seed);
+            WorldHistory history = new WorldHistory(GameWorld.DEFAULT_TICK_RATE * MAX_SECONDS * 2);
+            ReplayRecorder recorder = new ReplayRecorder();
+            Random random = new Random(seed);
+            recorder.begin(world);
+            history.save(world);
+            play(world, recorder, history, random);
+
+            // Back to half way and on again, the flaps after it are someone else's
+            int tick = world.getTick() / 2;
+            assertTrue(history.restore(tick, world));
+            history.truncate(tick);
+            recorder.rewind(tick);
+            play(world, recorder, history, random);
+
+            Replay replay = recorder.finish(world);
+            assertTrue("Seed " + seed, ReplayPlayer.verify(replay, new GameWorld(GameWorld.DEFAULT_TICK_RATE, 0)));
+        }
+    }
+
+    @Test
+    public void aReplayEndingElsewhereFails() {
+        GameWorld world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 3);
+        Replay replay = record(world, new Random(3));
+        GameWorld playback = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 0);
+        assertTrue(ReplayPlayer.verify(replay, playback));
+
+        // Padded past the crash, cut short of it, or claiming another score
+        assertFalse(ReplayPlayer.verify(withEnd(replay, replay.getEndTick() + 1, replay.getScore()), playback));
+        assertFalse(ReplayPlayer.verify(withEnd(replay, replay.getEndTick() - 1, replay.getScore()), playback));
+        assertFalse(ReplayPlayer.verify(withEnd(replay, replay.getEndTick(), replay.getScore() + 1), playback));
+        assertFalse(ReplayPlayer.verify(withEnd(replay, 0, 0), playback));
+    }
+
+    private static Replay record(GameWorld world, Random random) {
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(world);
+        play(world, recorder, null, random);
+        return recorder.finish(world);
+    }
+
+    // Follows the gaps, missing a few flaps, until the run is over
+    private static void play(GameWorld world, ReplayRecorder recorder, WorldHistory history, Random random) {
+        int maxTicks = world.getTickRate() * MAX_SECONDS;
+        while (!world.isGameOver()) {
+            boolean flap = world.getTick() < maxTicks && isFallingBelowGap(world) && random.nextInt(8) != 0;
+            recorder.record(world, flap);
+            world.step(flap);
+            if (history != null) {
+                history.save(world);
+            }
+        }
+    }
+
+    private static boolean isFallingBelowGap(GameWorld world) {
+        if (world.getTick() == 0) {
+            // The first flap starts the run
+            return true;
+        }
+        if (world.getBirdVelocity() > 0) {
+            return false;
+        }
+        for (int i = 0; i < world.getPipeCount(); i++) {
+            if (world.getPipeX(i) + GameWorld.PIPE_WIDTH > GameWorld.BIRD_X) {
+                return world.getBirdY() < world.getPipeGapY(i) - GameWorld.VERTICAL_PIPE_GAP / 2f;
+            }
+        }
+        return world.getBirdY() < GameWorld.BIRD_START_Y;
+    }
+
+    private static Replay withEnd(Replay replay, int endTick, int score) {
+        int[] flapTicks = new int[replay.getFlapCount()];
+        for (int i = 0; i < flapTicks.length; i++) {
+            flapTicks[i] = replay.getFlapTick(i);
+        }
+        return new Replay(replay.getSeed(), replay.getTickRate(), flapTicks, endTick, score);
+    }
+}
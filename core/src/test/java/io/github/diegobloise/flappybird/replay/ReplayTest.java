@@ -0,0 +1,119 @@
+package io.github.diegobloise.flappybird.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The replay format: whatever is written reads back the same, and bytes
+ * that aren't a replay are turned away before anything is played.
+ */
+public class ReplayTest {
+
+    // Magic, version and seed
+    private static final int HEADER_BYTES = 13;
+
+    @Test
+    public void readingWhatWasWrittenIsTheIdentity() throws IOException {
+        Random random = new Random(7);
+        // Past the first allocation of the reader, with deltas of one to three varint bytes
+        int[] flapTicks = new int[1_000];
+        int tick = 0;
+        for (int i = 0; i < flapTicks.length; i++) {
+            flapTicks[i] = tick;
+            tick += 1 + random.nextInt(1 << (7 * (1 + i % 3)));
+        }
+        assertRoundTrip(new Replay(Long.MIN_VALUE + 3, 120, flapTicks, tick, 123_456));
+        assertRoundTrip(new Replay(-1, 5, new int[0], 0, 0));
+        assertRoundTrip(new Replay(42, 1000, new int[] { Integer.MAX_VALUE }, Integer.MAX_VALUE, 0));
+    }
+
+    private static void assertRoundTrip(Replay replay) throws IOException {
+        byte[] bytes = replay.toBytes();
+        Replay read = Replay.fromBytes(bytes);
+        assertEquals(replay.getSeed(), read.getSeed());
+        assertEquals(replay.getTickRate(), read.getTickRate());
+        assertEquals(replay.getEndTick(), read.getEndTick());
+        assertEquals(replay.getScore(), read.getScore());
+        assertEquals(replay.getFlapCount(), read.getFlapCount());
+        for (int i = 0; i < replay.getFlapCount(); i++) {
+            assertEquals("Flap " + i, replay.getFlapTick(i), read.getFlapTick(i));
+        }
+        assertArrayEquals(bytes, read.toBytes());
+    }
+
+    @Test
+    public void rejectsAVarintLongerThanAnInt() {
+        assertMalformed(header(120, 100, 3), 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01);
+        assertMalformed(header(0x80, 0x80, 0x80, 0x80, 0x80, 0x80));
+    }
+
+    @Test
+    public void rejectsNegativeCounts() {
+        // -1 as five varint bytes
+        int[] minusOne = { 0xFF, 0xFF, 0xFF, 0xFF, 0x0F };
+        assertMalformed(header(120, 100, 3), minusOne);
+        assertMalformed(header(120), concat(minusOne, new int[] { 3, 0 }));
+        assertMalformed(header(120, 100), concat(minusOne, new int[] { 0 }));
+        assertMalformed(header(), concat(minusOne, new int[] { 100, 3, 0 }));
+        assertMalformed(header(0, 100, 3, 0));
+        // A flap before the one before it
+        assertMalformed(header(120, 100, 3, 2, 10), minusOne);
+    }
+
+    @Test
+    public void rejectsAReplayCutShort() {
+        byte[] bytes = new Replay(1, 120, new int[] { 5, 300, 301 }, 400, 1).toBytes();
+        for (int length = 0; length < bytes.length; length++) {
+            assertMalformed(Arrays.copyOf(bytes, length));
+        }
+    }
+
+    @Test
+    public void rejectsAnotherFormat() {
+        byte[] bytes = new Replay(1, 120, new int[] { 5 }, 400, 1).toBytes();
+        bytes[0] ^= 1;
+        assertMalformed(bytes);
+
+        bytes = new Replay(1, 120, new int[] { 5 }, 400, 1).toBytes();
+        // The version
+        bytes[4]++;
+        assertMalformed(bytes);
+    }
+
+    // The header of a replay followed by the given bytes
+    private static byte[] header(int... bytes) {
+        byte[] header = Arrays.copyOf(new Replay(9, 120, new int[0], 0, 0).toBytes(), HEADER_BYTES);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(header, 0, header.length);
+        for (int b : bytes) {
+            output.write(b);
+        }
+        return output.toByteArray();
+    }
+
+    private static void assertMalformed(byte[] header, int... bytes) {
+        byte[] replay = Arrays.copyOf(header, header.length + bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            replay[header.length + i] = (byte) bytes[i];
+        }
+        try {
+            Replay.fromBytes(replay);
+        } catch (IOException e) {
+            return;
+        }
+        throw new AssertionError("Read " + Arrays.toString(replay));
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] both = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, both, a.length, b.length);
+        return both;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.diegobloise.flappybird.scores;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ScoreStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void tiesRankAfterTheRunsAlreadyThere() throws IOException {
+        try (ScoreStore store = new ScoreStore(folder.newFile())) {
+            assertFalse("Nothing beats an empty log with 0", store.isNewHighscore(0));
+            assertTrue(store.isNewHighscore(1));
+
+            store.add(5, 100, 1, 1);
+            store.add(3, 80, 2, 2);
+            store.add(5, 120, 3, 3);
+
+            assertEquals(0, store.rank(6));
+            assertEquals(2, store.rank(5));
+            assertEquals(2, store.rank(4));
+            assertEquals(3, store.rank(3));
+            assertFalse(store.isNewHighscore(5));
+            assertTrue(store.isNewHighscore(6));
+
+            // The earlier of the two fives stays ahead
+            assertEquals(1, store.getTopTime(0));
+            assertEquals(3, store.getTopTime(1));
+            assertEquals(2, store.getTopTime(2));
+        }
+    }
+
+    @Test
+    public void keepsOnlyTheBestInMemory() throws IOException {
+        try (ScoreStore store = new ScoreStore(folder.newFile(), 3)) {
+            for (int score = 0; score < 10; score++) {
+                store.add(score, score, score, score);
+            }
+            assertEquals(10, store.getCount());
+            assertEquals(3, store.getTopCount());
+            assertEquals(9, store.getBest());
+            assertEquals(7, store.getTopScore(2));
+        }
+    }
+
+    @Test
+    public void dropsARecordCutShortByACrash() throws IOException {
+        File file = folder.newFile();
+        try (ScoreStore store = new ScoreStore(file)) {
+            store.add(7, 700, 70, 1);
+            store.add(9, 900, 90, 2);
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(raw.length());
+            raw.write(new byte[ScoreStore.RECORD_BYTES / 2]);
+        }
+
+        try (ScoreStore store = new ScoreStore(file)) {
+            assertEquals(2, store.getCount());
+            assertEquals(9, store.getBest());
+            assertEquals(900, store.getTopTicks(0));
+            assertEquals(90, store.getTopSeed(0));
+            store.add(8, 800, 80, 3);
+        }
+        assertEquals(ScoreStore.HEADER_BYTES + 3 * ScoreStore.RECORD_BYTES, file.length());
+        try (ScoreStore store = new ScoreStore(file)) {
+            assertEquals(3, store.getCount());
+            assertEquals(8, store.getTopScore(1));
+        }
+    }
+
+    @Test
+    public void rejectsAnotherFile() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), new byte[ScoreStore.HEADER_BYTES + ScoreStore.RECORD_BYTES]);
+        try {
+            new ScoreStore(file).close();
+            throw new AssertionError("Opened a file that is not a score log");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void compactionKeepsTheRunsAddedMeanwhile() throws IOException {
+        File file = folder.newFile();
+        Random random = new Random(42);
+        int before = 300_000;
+        int during = 50_000;
+        try (ScoreStore store = new ScoreStore(file)) {
+            for (int i = 0; i < before; i++) {
+                store.add(random.nextInt(200), i, i, i);
+            }
+            store.compact();
+            // Added and flushed while the compaction sorts, copies and swaps
+            for (int i = before; i < before + during; i++) {
+                store.add(random.nextInt(200), i, i, i);
+                if (i % 1000 == 0) {
+                    store.flush();
+                }
+            }
+            assertNull(store.takeCompactionError());
+        }
+
+        int total = before + during;
+        try (ScoreStore store = new ScoreStore(file)) {
+            assertEquals(total, store.getCount());
+            assertTrue("Nothing was sorted", store.getSortedCount() >= before);
+        }
+
+        // Every run is there once, the sorted ones best first with ties in the order they were added
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        long sortedCount = log.getLong(8);
+        boolean[] seen = new boolean[total];
+        for (int i = 0; i < total; i++) {
+            int offset = ScoreStore.HEADER_BYTES + i * ScoreStore.RECORD_BYTES;
+            int time = (int) log.getLong(offset + 16);
+            assertFalse("Run " + time + " twice", seen[time]);
+            seen[time] = true;
+            assertEquals(time, log.getInt(offset + 4));
+            if (i > 0 && i < sortedCount) {
+                int previous = offset - ScoreStore.RECORD_BYTES;
+                int order = Integer.compare(log.getInt(previous), log.getInt(offset));
+                assertTrue("Out of order at " + i, order > 0
+                        || order == 0 && log.getLong(previous + 16) < time);
+            }
+        }
+    }
+}
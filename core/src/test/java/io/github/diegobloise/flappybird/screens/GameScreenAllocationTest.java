@@ -0,0 +1,214 @@
+package io.github.diegobloise.flappybird.screens;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.HeadlessGame;
+import io.github.diegobloise.flappybird.entities.Ghosts;
+import io.github.diegobloise.flappybird.replay.GhostRecorder;
+import io.github.diegobloise.flappybird.replay.ReplayRecorder;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
+
+/**
+ * Plays the real {@link GameScreen} and {@link GameSimulation} under the
+ * headless backend and fails if any steady-state frame allocates. Every
+ * frame ticks the simulation up to a clock that moves 1/60 s per frame,
+ * which publishes its snapshot, then renders the screen, debug overlay
+ * included half of the time. The bird follows the gaps and scores, dies
+ * every {@value #DEATH_FRAMES} frames and is tapped back to life, races
+ * {@value #GHOSTS} ghosts, is scrubbed back a while every
+ * {@value #REWIND_FRAMES} frames and watches a replay every
+ * {@value #REPLAY_FRAMES}.
+ *
+ * Frames where a run starts or ends, or a rewind starts or ends, are left
+ * out: they write the replay, the score log and a ghost, and open the
+ * ghost tracks again. Any other frame of any measured pass that allocates
+ * fails the test.
+ *
+ * Run it with -XX:TieredStopAtLevel=1, as the build does. C2 would hide
+ * allocations behind escape analysis, and its compile requests allocate on
+ * the thread that made them.
+ */
+public class GameScreenAllocationTest {
+
+    // Course of the ghosts and the last replay, so a race starts on it
+    private static final long SEED = 42;
+    private static final int GHOSTS = 100;
+
+    private static final int FRAMES = 10_000;
+    private static final int WARMUP_PASSES = 3;
+    private static final int PASSES = 5;
+
+    private static final float FRAME_TIME = 1 / 60f;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    // Taps to start and restart this often, not on every frame, which would flap the new run too
+    private static final int TAP_FRAMES = 23;
+    // Every so often the player looks away for a while and the bird dies
+    private static final int DEATH_FRAMES = 1_500;
+    private static final int AWAY_FRAMES = 240;
+    private static final int REWIND_FRAMES = 600;
+    private static final int SCRUB_FRAMES = 30;
+    private static final int REPLAY_FRAMES = 2_500;
+    private static final int DEBUG_FRAMES = 1_250;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long thread = Thread.currentThread().getId();
+
+    private FlappyBird game;
+    private GameScreen screen;
+    private long now;
+    private boolean debugMode;
+
+    @Before
+    public void setUp() throws IOException {
+        writeCourse();
+        game = HeadlessGame.start();
+        screen = game.gameScreen;
+        now = TimeUtils.nanoTime();
+
+        screen.simulation.requestRace();
+        screen.simulation.update(now);
+        assertTrue("The race did not start", screen.simulation.isRacing());
+    }
+
+    @After
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Test
+    public void steadyStateFramesDoNotAllocate() {
+        // The first passes fill the libGDX pools and let the JIT settle
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            play();
+        }
+        for (int pass = 0; pass < PASSES; pass++) {
+            assertEquals("Bytes allocated by the steady-state frames of pass " + pass, 0, play());
+        }
+    }
+
+    // Bytes allocated by the frames that are not transitions
+    private long play() {
+        // Reading the counter may count a few bytes of its own, the same every time
+        long first = allocatedBytes();
+        long overhead = allocatedBytes() - first;
+        long allocated = 0;
+        for (int i = 1; i <= FRAMES; i++) {
+            WorldSnapshot snapshot = screen.simulation.getSnapshot();
+            int run = snapshot.getRun();
+            boolean gameOver = snapshot.isGameOver();
+            boolean rewinding = snapshot.isRewinding();
+
+            long before = allocatedBytes();
+            frame(i);
+            long bytes = allocatedBytes() - before - overhead;
+
+            snapshot = screen.simulation.getSnapshot();
+            if (snapshot.getRun() == run && snapshot.isGameOver() == gameOver
+                    && snapshot.isRewinding() == rewinding) {
+                allocated += bytes;
+            }
+        }
+        return allocated;
+    }
+
+    private void frame(int frame) {
+        now += FRAME_NANOS;
+        if (shouldTap(frame, screen.simulation.getSnapshot())) {
+            screen.flaps.offer(now);
+        }
+        if (frame % REPLAY_FRAMES == 0) {
+            screen.simulation.requestReplay();
+        }
+        if (frame % DEBUG_FRAMES == 0) {
+            debugMode = !debugMode;
+            screen.setDebugMode(debugMode);
+        }
+        // Held for a while, the screen lets go of it again in its input
+        screen.simulation.setScrub(frame % REWIND_FRAMES < SCRUB_FRAMES ? -1 : 0);
+
+        screen.simulation.update(now);
+        screen.render(FRAME_TIME);
+    }
+
+    // Flaps whenever the bird falls below the next gap, like the gap follower bot
+    private static boolean shouldTap(int frame, WorldSnapshot snapshot) {
+        if (frame % DEATH_FRAMES < AWAY_FRAMES) {
+            return false;
+        }
+        if (snapshot.isRewinding()) {
+            // Plays on from where the scrub stopped
+            return true;
+        }
+        if (!snapshot.isPlaying() || snapshot.isGameOver()) {
+            return frame % TAP_FRAMES == 0;
+        }
+        return isFallingBelowGap(snapshot);
+    }
+
+    // Whether the bird of a run in play falls below the gap of the next pipe
+    static boolean isFallingBelowGap(WorldSnapshot snapshot) {
+        if (snapshot.getBirdY() >= snapshot.getPreviousBirdY()) {
+            return false;
+        }
+        for (int i = 0; i < snapshot.getPipeCount(); i++) {
+            if (snapshot.getPipeX(i) + GameWorld.PIPE_WIDTH > GameWorld.BIRD_X) {
+                return snapshot.getBirdY() < snapshot.getPipeGapY(i) - GameWorld.VERTICAL_PIPE_GAP / 2f;
+            }
+        }
+        return snapshot.getBirdY() < GameWorld.BIRD_START_Y;
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(thread);
+    }
+
+    // Ghosts flapping at their own pace, and a last run to race them on
+    static void writeCourse() throws IOException {
+        new FileHandle(GameSimulation.GHOSTS).deleteDirectory();
+        new FileHandle(GameSimulation.LAST_REPLAY).delete();
+
+        GameWorld world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, SEED);
+        GhostRecorder ghost = new GhostRecorder();
+        for (int i = 0; i < GHOSTS; i++) {
+            world.reset(SEED);
+            ghost.begin(world);
+            for (int tick = 0; !world.isGameOver(); tick++) {
+                world.step(tick % (20 + i % 10) == 0);
+                ghost.record(world);
+            }
+            FileHandle file = new FileHandle(GameSimulation.ghostDirectory(SEED))
+                    .child(Ghosts.fileName(world.getScore(), i));
+            try (OutputStream output = file.write(false)) {
+                ghost.write(output);
+            }
+        }
+
+        ReplayRecorder replay = new ReplayRecorder();
+        world.reset(SEED);
+        replay.begin(world);
+        for (int tick = 0; !world.isGameOver(); tick++) {
+            boolean flap = tick % 25 == 0;
+            replay.record(world, flap);
+            world.step(flap);
+        }
+        try (OutputStream output = new FileHandle(GameSimulation.LAST_REPLAY).write(false)) {
+            replay.finish(world).write(output);
+        }
+    }
+}
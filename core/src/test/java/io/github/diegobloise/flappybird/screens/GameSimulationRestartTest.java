@@ -0,0 +1,188 @@
+package io.github.diegobloise.flappybird.screens;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.HeadlessGame;
+import io.github.diegobloise.flappybird.replay.Replay;
+import io.github.diegobloise.flappybird.replay.ReplayPlayer;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldSnapshot;
+
+/**
+ * Plays, dies and restarts the real {@link GameScreen} and
+ * {@link GameSimulation} under the headless backend, run after run, and
+ * checks that a restart starts everything over in place: the history holds
+ * the new run only, the replay of every run plays back to its score, and
+ * no asset is loaded and no native resource is left behind.
+ *
+ * The runs restart by a tap on the game over screen and by a restart
+ * request in turns. Some are rewound after the crash and played on, some
+ * are followed by their replay.
+ */
+public class GameSimulationRestartTest {
+
+    private static final int RUNS = 300;
+
+    private static final float FRAME_TIME = 1 / 60f;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    // A run follows the gaps this long at most, then lets the bird fall
+    private static final int MAX_PLAY_FRAMES = 1_200;
+    // A crashed run is rewound this often, this far
+    private static final int REWIND_RUNS = 5;
+    private static final int SCRUB_FRAMES = 30;
+    // A run is watched again this often
+    private static final int REPLAY_RUNS = 7;
+
+    // Any run ends on the ground long before this
+    private static final int MAX_FRAMES = 60 * 60 * 10;
+
+    private FlappyBird game;
+    private GameScreen screen;
+    private long now;
+
+    @Before
+    public void setUp() {
+        new FileHandle(GameSimulation.LAST_REPLAY).delete();
+        game = HeadlessGame.start();
+        screen = game.gameScreen;
+        now = TimeUtils.nanoTime();
+        frame();
+    }
+
+    @After
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Test
+    public void restartsStartOverInPlace() throws IOException {
+        int loads = game.assets.getLoadCount();
+        int resources = game.resources.getTotalCount();
+        long bytes = game.resources.getTotalBytes();
+
+        for (int run = 0; run < RUNS; run++) {
+            int before = snapshot().getRun();
+            if (run % 2 == 0) {
+                screen.simulation.requestRestart();
+                frame();
+            } else {
+                tap();
+            }
+
+            WorldSnapshot snapshot = snapshot();
+            assertEquals("Runs started by restart " + run, before + 1, snapshot.getRun());
+            assertFalse(snapshot.isPlaying());
+            assertEquals("Score after restart " + run, 0, snapshot.getScore());
+            // Saved since the restart, the run before is gone
+            assertEquals("History after restart " + run, snapshot.getTick() + 1, snapshot.getHistoryTicks());
+
+            play(run * 97 % MAX_PLAY_FRAMES);
+            if (run % REWIND_RUNS == 0) {
+                rewindAndPlayOn();
+            }
+            checkLastReplay();
+            if (run % REPLAY_RUNS == 0) {
+                watchReplay();
+            }
+        }
+
+        assertEquals("Asset loads", loads, game.assets.getLoadCount());
+        assertEquals("Live native resources", resources, game.resources.getTotalCount());
+        assertEquals("Bytes of live native resources", bytes, game.resources.getTotalBytes());
+    }
+
+    // Taps to start, follows the gaps for a while and then waits for the crash
+    private void play(int playFrames) {
+        tap();
+        assertTrue("The run did not start", snapshot().isPlaying());
+        for (int frame = 0; !isOnGround(); frame++) {
+            assertTrue("The run never ended", frame < MAX_FRAMES);
+            if (frame < playFrames && !snapshot().isGameOver()
+                    && GameScreenAllocationTest.isFallingBelowGap(snapshot())) {
+                tap();
+            } else {
+                frame();
+            }
+        }
+    }
+
+    private void rewindAndPlayOn() {
+        int run = snapshot().getRun();
+        screen.simulation.setScrub(-1);
+        for (int i = 0; i < SCRUB_FRAMES; i++) {
+            frame();
+        }
+        screen.simulation.setScrub(0);
+        frame();
+        assertTrue("Not rewound", snapshot().isRewinding());
+        assertEquals("Rewinding started a new run", run, snapshot().getRun());
+
+        // Plays on from the rewound tick into the ground again
+        tap();
+        assertFalse("Not played on", snapshot().isRewinding());
+        for (int frame = 0; !isOnGround(); frame++) {
+            assertTrue("The run never ended", frame < MAX_FRAMES);
+            frame();
+        }
+        assertEquals("Playing on started a new run", run, snapshot().getRun());
+    }
+
+    // The recorders started over with the run, its replay scores what it scored
+    private void checkLastReplay() throws IOException {
+        screen.simulation.awaitWrites();
+        Replay replay;
+        try (InputStream input = new FileHandle(GameSimulation.LAST_REPLAY).read()) {
+            replay = Replay.read(input);
+        }
+        WorldSnapshot snapshot = snapshot();
+        assertEquals("Replayed seed", snapshot.getSeed(), replay.getSeed());
+        assertEquals("Replayed score", snapshot.getScore(), replay.getScore());
+        assertTrue("The replay does not play back to its score",
+                ReplayPlayer.verify(replay, new GameWorld(replay.getTickRate(), replay.getSeed())));
+    }
+
+    private void watchReplay() {
+        int score = snapshot().getScore();
+        screen.simulation.requestReplay();
+        frame();
+        assertTrue("Not replaying", snapshot().isReplaying());
+        for (int frame = 0; !isOnGround(); frame++) {
+            assertTrue("The replay never ended", frame < MAX_FRAMES);
+            frame();
+        }
+        assertEquals("Score of the replay", score, snapshot().getScore());
+    }
+
+    private boolean isOnGround() {
+        return snapshot().isGameOver() && snapshot().isBirdOnGround();
+    }
+
+    private WorldSnapshot snapshot() {
+        return screen.simulation.getSnapshot();
+    }
+
+    private void tap() {
+        screen.flaps.offer(now);
+        frame();
+    }
+
+    private void frame() {
+        now += FRAME_NANOS;
+        screen.simulation.update(now);
+        screen.render(FRAME_TIME);
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.diegobloise.flappybird.screens;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.HeadlessGame;
+import io.github.diegobloise.flappybird.NullGL20;
+import io.github.diegobloise.flappybird.profiling.ResourceTracker;
+
+/**
+ * Plays, dies and restarts the real game under the headless backend run
+ * after run, with the debug overlay and swarm mode in between, and checks
+ * that nothing native piles up: the count and bytes of every kind the
+ * {@link ResourceTracker} knows stay where the first run left them, and so
+ * do the live objects of every kind the GL handed out, which catches what
+ * the tracker can't see. Once the game is disposed both must be back to
+ * where they were before it started.
+ */
+public class ResourceLeakTest {
+
+    private static final int RUNS = 200;
+    // The debug overlay is toggled and swarm mode shown this often
+    private static final int DEBUG_RUNS = 5;
+    private static final int SWARM_RUNS = 20;
+    private static final int SWARM_FRAMES = 60;
+
+    private static final float FRAME_TIME = 1 / 60f;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    // Any run ends on the ground long before this
+    private static final int MAX_FRAMES = 60 * 60;
+
+    private FlappyBird game;
+    private GameScreen screen;
+    private long now;
+    private boolean debugMode;
+
+    @Test
+    public void playingLeaksNothing() {
+        int[] glBefore = liveGLObjects();
+
+        game = HeadlessGame.start();
+        screen = game.gameScreen;
+        now = TimeUtils.nanoTime();
+        // Swarm mode is built the first time it is opened and kept
+        game.swarmScreen = new SwarmScreen(game);
+        playRun(0);
+
+        ResourceTracker resources = game.resources;
+        int[] counts = new int[ResourceTracker.KINDS];
+        long[] bytes = new long[ResourceTracker.KINDS];
+        for (int kind = 0; kind < ResourceTracker.KINDS; kind++) {
+            counts[kind] = resources.getCount(kind);
+            bytes[kind] = resources.getBytes(kind);
+        }
+        int[] gl = liveGLObjects();
+
+        for (int run = 1; run <= RUNS; run++) {
+            playRun(run);
+            for (int kind = 0; kind < ResourceTracker.KINDS; kind++) {
+                String name = resources.getName(kind);
+                assertEquals("Live " + name + " count after run " + run, counts[kind], resources.getCount(kind));
+                assertEquals("Live " + name + " bytes after run " + run, bytes[kind], resources.getBytes(kind));
+            }
+            for (int kind = 0; kind < NullGL20.KINDS; kind++) {
+                assertEquals("Live GL objects of kind " + kind + " after run " + run, gl[kind],
+                        HeadlessGame.GL.getLive(kind));
+            }
+        }
+
+        game.dispose();
+        assertEquals("Leaked at exit:\n" + resources, 0, resources.getTotalCount());
+        assertEquals("Bytes leaked at exit", 0, resources.getTotalBytes());
+        int[] glAfter = liveGLObjects();
+        for (int kind = 0; kind < NullGL20.KINDS; kind++) {
+            assertEquals("GL objects of kind " + kind + " leaked at exit", glBefore[kind], glAfter[kind]);
+        }
+    }
+
+    // Restarts, taps to start and lets the bird fall to the ground
+    private void playRun(int run) {
+        if (run % DEBUG_RUNS == 0) {
+            debugMode = !debugMode;
+            screen.setDebugMode(debugMode);
+        }
+        if (run % SWARM_RUNS == 0) {
+            for (int i = 0; i < SWARM_FRAMES; i++) {
+                game.swarmScreen.render(FRAME_TIME);
+            }
+        }
+
+        int before = screen.simulation.getSnapshot().getRun();
+        screen.simulation.requestRestart();
+        frame();
+        assertEquals("Not restarted", before + 1, screen.simulation.getSnapshot().getRun());
+
+        screen.flaps.offer(now);
+        for (int frame = 0; !screen.simulation.getSnapshot().isGameOver()
+                || !screen.simulation.getSnapshot().isBirdOnGround(); frame++) {
+            assertTrue("The run never ended", frame < MAX_FRAMES);
+            frame();
+        }
+    }
+
+    private void frame() {
+        now += FRAME_NANOS;
+        screen.simulation.update(now);
+        screen.render(FRAME_TIME);
+    }
+
+    private static int[] liveGLObjects() {
+        int[] live = new int[NullGL20.KINDS];
+        for (int kind = 0; kind < NullGL20.KINDS; kind++) {
+            live[kind] = HeadlessGame.GL.getLive(kind);
+        }
+        return live;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.diegobloise.flappybird.screens;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.diegobloise.flappybird.FlappyBird;
+import io.github.diegobloise.flappybird.HeadlessGame;
+
+/**
+ * Renders the real {@link SwarmScreen} under the headless backend and fails
+ * if any frame of a measured pass allocates, the swarm dying and starting
+ * over on a new course included. Run it like {@link GameScreenAllocationTest}.
+ */
+public class SwarmScreenAllocationTest {
+
+    private static final int SWARM_SIZE = 1_000;
+
+    private static final int FRAMES = 5_000;
+    private static final int WARMUP_PASSES = 3;
+    private static final int PASSES = 5;
+
+    private static final float FRAME_TIME = 1 / 60f;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long thread = Thread.currentThread().getId();
+
+    private FlappyBird game;
+    private SwarmScreen screen;
+
+    @Before
+    public void setUp() {
+        game = HeadlessGame.start();
+        game.swarmSize = SWARM_SIZE;
+        screen = new SwarmScreen(game);
+        screen.show();
+    }
+
+    @After
+    public void tearDown() {
+        screen.dispose();
+        game.dispose();
+    }
+
+    @Test
+    public void framesDoNotAllocate() {
+        // The first passes fill the libGDX pools and let the JIT settle
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            play();
+        }
+        for (int pass = 0; pass < PASSES; pass++) {
+            assertEquals("Bytes allocated by the frames of pass " + pass, 0, play());
+        }
+    }
+
+    private long play() {
+        // Reading the counter may count a few bytes of its own, the same every time
+        long first = allocatedBytes();
+        long overhead = allocatedBytes() - first;
+        long allocated = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            long before = allocatedBytes();
+            screen.render(FRAME_TIME);
+            allocated += allocatedBytes() - before - overhead;
+        }
+        return allocated;
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(thread);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.diegobloise.flappybird.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * {@link Rules} refuse pipes spaced closer than the ring of
+ * {@link GameWorld#MAX_PIPES} can hold, and at the closest spacing they
+ * allow the pipes keep coming.
+ */
+public class RulesTest {
+
+    private static final int[] TICK_RATES = { 5, 10, 30, 60, 120 };
+    // Wide enough that the bird never hits a pipe, and it floats where it starts
+    private static final float VERTICAL_PIPE_GAP = 300;
+    private static final float SECONDS = 60;
+
+    @Test
+    public void refusesPipesTooCloseForTheRing() {
+        float[] gaps = { Rules.MIN_HORIZONTAL_PIPE_GAP - 0.01f, 10, 0, -5 };
+        for (float gap : gaps) {
+            try {
+                rules(gap);
+                throw new AssertionError("Made rules spaced " + gap);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+        rules(Rules.MIN_HORIZONTAL_PIPE_GAP);
+    }
+
+    @Test
+    public void theClosestPipesKeepSpawning() {
+        Rules rules = rules(Rules.MIN_HORIZONTAL_PIPE_GAP);
+        for (int tickRate : TICK_RATES) {
+            GameWorld world = new GameWorld(tickRate, 1, rules);
+            // The newest pipe is never further in than a spacing and the scroll of a tick
+            float furthest = GameWorld.WIDTH - Rules.MIN_HORIZONTAL_PIPE_GAP
+                    + GameWorld.GAME_SPEED * world.getDeltaTime() - 0.01f;
+            while (world.getTick() < tickRate * SECONDS) {
+                world.step(world.getTick() == 0);
+                assertTrue("Died at " + tickRate + " Hz", !world.isGameOver());
+                float newest = world.getPipeX(world.getPipeCount() - 1);
+                assertTrue("Stopped spawning at " + tickRate + " Hz, tick " + world.getTick() + ", pipe at "
+                        + newest, newest >= furthest);
+            }
+            assertTrue(world.getSpawnedPipes() > GameWorld.MAX_PIPES * 4);
+            // Every spawn once the ring has gone round reuses a slot, none is refused
+            assertEquals(world.getSpawnedPipes() - GameWorld.MAX_PIPES, world.getRecycledPipes());
+            assertEquals(0, world.getRefusedPipes());
+        }
+    }
+
+    private static Rules rules(float horizontalPipeGap) {
+        return new Rules(GameWorld.GAME_SPEED, horizontalPipeGap, VERTICAL_PIPE_GAP, 0, 0);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.diegobloise.flappybird.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * The {@link SnapshotBuffer} hands the reader the latest published
+ * snapshot, never one the writer is filling, and leaves it alone until the
+ * next read, on one thread and on two.
+ */
+public class SnapshotBufferTest {
+
+    private static final int PUBLISHES = 2_000_000;
+
+    @Test
+    public void readsTheLatestPublished() {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        WorldSnapshot initial = buffer.getFront();
+        assertSame("Nothing published yet", initial, buffer.getFront());
+
+        publish(buffer, 1);
+        WorldSnapshot front = buffer.getFront();
+        assertEquals(1, front.getRun());
+        assertNotSame(buffer.getBack(), front);
+        assertSame("Read again without a publish", front, buffer.getFront());
+
+        // The ones published in between are skipped
+        publish(buffer, 2);
+        publish(buffer, 3);
+        publish(buffer, 4);
+        assertEquals(1, front.getRun());
+        front = buffer.getFront();
+        assertEquals(4, front.getRun());
+        assertNotSame(buffer.getBack(), front);
+        assertEquals(4, buffer.getFront().getRun());
+    }
+
+    @Test
+    public void theWriterNeverTouchesTheFront() {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        publish(buffer, 1);
+        WorldSnapshot front = buffer.getFront();
+        for (int run = 2; run < 10; run++) {
+            assertNotSame(front, buffer.getBack());
+            publish(buffer, run);
+            assertEquals(1, front.getRun());
+        }
+    }
+
+    /**
+     * The writer fills every field of a snapshot with the same number, the
+     * reader checks it never sees two of them disagree, or the numbers go
+     * back.
+     */
+    @Test
+    public void aReaderOnAnotherThreadSeesWholeSnapshotsInOrder() throws InterruptedException {
+        final SnapshotBuffer buffer = new SnapshotBuffer();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int run = 1; run <= PUBLISHES; run++) {
+                        publish(buffer, run);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        }, "Snapshot writer");
+        writer.start();
+
+        int last = 0;
+        int reads = 0;
+        while (last < PUBLISHES) {
+            WorldSnapshot front = buffer.getFront();
+            int run = front.getRun();
+            assertTrue("Went back from " + last + " to " + run, run >= last);
+            assertEquals("Torn snapshot", run, front.getFlapEvents());
+            assertEquals("Torn snapshot", run, front.getDieEvents());
+            // Still untouched after a while
+            Thread.yield();
+            assertEquals("Written while read", run, front.getRun());
+            assertEquals("Written while read", run, front.getLastFlapTime());
+            last = run;
+            reads++;
+        }
+        writer.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(reads > 1);
+    }
+
+    private static void publish(SnapshotBuffer buffer, int run) {
+        buffer.getBack().setSimulation(run, false, run, run, run, run, run, run);
+        buffer.publish();
+    }
+}
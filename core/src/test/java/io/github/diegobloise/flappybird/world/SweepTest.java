@@ -0,0 +1,171 @@
+package io.github.diegobloise.flappybird.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The slab method of {@link Sweep} at its edges, and the swept collisions
+ * of {@link GameWorld} against the same moves stepped through finely.
+ */
+public class SweepTest {
+
+    private static final float EPSILON = 1e-6f;
+
+    // A 2 x 2 box at the origin is swept against a 2 x 2 box unless said otherwise
+    private static float sweep(float left, float bottom, float dx, float dy, float boxLeft, float boxBottom) {
+        return Sweep.timeOfImpact(left, bottom, 2, 2, dx, dy, boxLeft, boxBottom, 2, 2);
+    }
+
+    @Test
+    public void hitsPartWayThrough() {
+        assertEquals(0.5f, Sweep.timeOfImpact(0, 0, 2, 2, 16, 0, 10, -1, 4, 4), EPSILON);
+        assertEquals(0.375f, Sweep.timeOfImpact(0, 10, 2, 2, 0, -16, -1, 0, 4, 4), EPSILON);
+        // Moving the other way
+        assertEquals(0.5f, sweep(12, 0, -16, 0, 2, 0), EPSILON);
+    }
+
+    @Test
+    public void doesNotTunnelThroughAThinBox() {
+        assertEquals(0.25f, Sweep.timeOfImpact(0, 0, 2, 2, 40, 0, 12, 0, 0.5f, 2), EPSILON);
+        assertEquals(Sweep.NO_IMPACT, Sweep.timeOfImpact(0, 0, 2, 2, 40, 0, 43, 0, 0.5f, 2), 0);
+    }
+
+    @Test
+    public void touchingEdgesDoNotCount() {
+        // Side by side, standing still
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 0, 0, 2, 0), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 0, 0, 0, 2), 0);
+        // Ending the move against the box
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 4, 0, 6, 0), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 0, -4, 0, -6), 0);
+        // Sliding along its top, and along its side
+        assertEquals(Sweep.NO_IMPACT, sweep(-4, 2, 8, 0, 0, 0), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(2, -4, 0, 8, 0, 0), 0);
+        // Leaving from against it
+        assertEquals(Sweep.NO_IMPACT, sweep(2, 0, 4, 0, 0, 0), 0);
+    }
+
+    @Test
+    public void startingInsideHitsAtOnce() {
+        assertEquals(0, sweep(0, 0, 0, 0, 1, 1), 0);
+        assertEquals(0, sweep(0, 0, 5, -3, 1, 1), 0);
+        // Moving out of it counts too
+        assertEquals(0, sweep(0, 0, -5, 0, 1, 0), 0);
+    }
+
+    @Test
+    public void zeroMotionIsAnOverlapTest() {
+        assertEquals(0, sweep(0, 0, 0, 0, 1.5f, -1.5f), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 0, 0, 3, 0), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 0, 0, 0, -3), 0);
+        // Moving on one axis only, apart on the other
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 8, 0, 4, 3), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 0, 8, 3, 4), 0);
+    }
+
+    @Test
+    public void grazingACornerDoesNotCount() {
+        // Its top left corner touches the bottom right corner of the box half way
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 4, 4, 0, 4), 0);
+        // Half a pixel further in it cuts the corner
+        assertEquals(0.5f, sweep(0, 0, 4, 4, 0.5f, 4), EPSILON);
+        // Half a pixel further out it passes by
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 4, 4, -0.5f, 4), 0);
+    }
+
+    @Test
+    public void missesBeyondTheMove() {
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, 4, 0, 7, 0), 0);
+        assertEquals(Sweep.NO_IMPACT, sweep(0, 0, -4, 0, 3, 0), 0);
+    }
+
+    // Tick rates the same flaps are played at, the slowest ones move many pixels a tick
+    private static final int[] TICK_RATES = { 5, 10, 20, 60, 120 };
+    private static final int SEEDS = 40;
+    private static final float MAX_SECONDS = 30;
+    // The reference steps through every tick this finely
+    private static final int SUBSTEPS = 4096;
+
+    /**
+     * Plays the same seeded flaps, at times in seconds, at every tick rate,
+     * and checks every tick of play against its move stepped through in
+     * {@value #SUBSTEPS} straight steps: the world is hit in the tick the
+     * first overlap is found, within a step of it, and not in the others.
+     *
+     * The runs themselves differ from rate to rate, the physics is
+     * integrated a tick at a time.
+     */
+    @Test
+    public void sweptImpactsMatchAFineStepReference() {
+        for (int tickRate : TICK_RATES) {
+            int pipeHits = 0;
+            for (int seed = 1; seed <= SEEDS; seed++) {
+                pipeHits += play(tickRate, seed);
+            }
+            assertTrue("No pipe was hit at " + tickRate + " Hz", pipeHits > 0);
+        }
+    }
+
+    // Number of runs that ended on a pipe
+    private static int play(int tickRate, long seed) {
+        GameWorld world = new GameWorld(tickRate, seed);
+        Random random = new Random(seed);
+        float nextFlap = 0;
+        float time = 0;
+        while (!world.isGameOver() && time < MAX_SECONDS) {
+            time += world.getDeltaTime();
+            boolean flap = false;
+            while (nextFlap <= time) {
+                flap = true;
+                nextFlap += 0.1f + random.nextFloat() * 0.4f;
+            }
+            world.step(flap);
+            if (!world.isPlaying()) {
+                continue;
+            }
+
+            String tick = tickRate + " Hz, seed " + seed + ", tick " + world.getTick();
+            float reference = fineStepImpact(world);
+            float impact = world.getImpactTime();
+            if (reference == Sweep.NO_IMPACT) {
+                assertEquals("Hit nothing at " + tick, Sweep.NO_IMPACT, impact, 0);
+            } else {
+                assertTrue("Hit at " + impact + " instead of " + reference + " at " + tick,
+                        impact <= reference + EPSILON && impact >= reference - 1f / SUBSTEPS - EPSILON);
+            }
+        }
+        return world.isGameOver() && !world.isBirdOnGround() ? 1 : 0;
+    }
+
+    // Fraction of the last tick at which the hitbox first overlaps a pipe or the ground, stepped through
+    private static float fineStepImpact(GameWorld world) {
+        float hitbox = GameWorld.BIRD_HITBOX;
+        float left = world.getBirdHitboxX();
+        float previousBottom = world.getPreviousBirdY() + GameWorld.BIRD_HEIGHT / 2f - hitbox / 2;
+        float dy = world.getBirdY() - world.getPreviousBirdY();
+        float gap = world.getRules().getVerticalPipeGap();
+
+        for (int step = 0; step <= SUBSTEPS; step++) {
+            float t = (float) step / SUBSTEPS;
+            float bottom = previousBottom + dy * t;
+            if (bottom < GameWorld.GROUND_HEIGHT) {
+                return t;
+            }
+            for (int i = 0; i < world.getPipeCount(); i++) {
+                float x = world.getPreviousPipeX(i) + (world.getPipeX(i) - world.getPreviousPipeX(i)) * t;
+                if (left >= x + GameWorld.PIPE_WIDTH || left + hitbox <= x) {
+                    continue;
+                }
+                float gapY = world.getPipeGapY(i);
+                if (bottom + hitbox > gapY + gap || bottom < gapY - gap) {
+                    return t;
+                }
+            }
+        }
+        return Sweep.NO_IMPACT;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.diegobloise.flappybird.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A {@link WorldHistory} smaller than the run wraps over its oldest ticks,
+ * and every tick still in it restores a world that plays on exactly like
+ * the one that was saved. Ticks out of its range, or truncated away, are
+ * refused and leave the world alone.
+ */
+public class WorldHistoryTest {
+
+    private static final int CAPACITY = 50;
+    private static final int TICKS = 400;
+    private static final long SEED = 11;
+
+    private final boolean[] flaps = new boolean[TICKS];
+    // Played through once with every tick saved
+    private GameWorld world;
+    private WorldHistory history;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(SEED);
+        for (int tick = 0; tick < TICKS; tick++) {
+            flaps[tick] = tick == 0 || random.nextInt(12) == 0;
+        }
+        world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, SEED);
+        history = new WorldHistory(CAPACITY);
+        history.save(world);
+        playTo(world, TICKS);
+    }
+
+    @Test
+    public void wrapsOverTheOldestTicks() {
+        assertEquals(CAPACITY, history.getCount());
+        assertEquals(TICKS, history.getNewestTick());
+        assertEquals(TICKS - CAPACITY + 1, history.getOldestTick());
+
+        GameWorld restored = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 0);
+        for (int tick = history.getOldestTick(); tick <= history.getNewestTick(); tick++) {
+            assertTrue(history.restore(tick, restored));
+            GameWorld reference = new GameWorld(GameWorld.DEFAULT_TICK_RATE, SEED);
+            playTo(reference, tick);
+            assertSameState("Restored tick " + tick, reference, restored);
+
+            // Played on from the restored tick, it ends where the saved run did
+            playTo(restored, TICKS);
+            assertSameState("Played on from tick " + tick, world, restored);
+        }
+    }
+
+    @Test
+    public void refusesTicksOutOfRange() {
+        GameWorld restored = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 5);
+        assertFalse(history.restore(history.getOldestTick() - 1, restored));
+        assertFalse(history.restore(history.getNewestTick() + 1, restored));
+        assertFalse(history.restore(0, restored));
+        assertFalse(history.restore(-1, restored));
+        assertEquals("The world was touched", 0, restored.getTick());
+        assertEquals(5, restored.getSeed());
+
+        assertFalse(new WorldHistory(CAPACITY).restore(0, restored));
+        assertEquals(0, restored.getTick());
+    }
+
+    @Test
+    public void truncatingForgetsTheTicksAfter() {
+        int tick = TICKS - 10;
+        assertTrue(history.restore(tick, world));
+        history.truncate(tick);
+        assertEquals(tick, history.getNewestTick());
+        assertEquals(CAPACITY - 10, history.getCount());
+        assertFalse(history.restore(tick + 1, world));
+        assertEquals(tick, world.getTick());
+
+        // Played on another way, the new ticks follow on
+        world.step(!flaps[tick]);
+        history.save(world);
+        assertEquals(tick + 1, history.getNewestTick());
+        assertEquals(CAPACITY - 9, history.getCount());
+        assertEquals(TICKS - CAPACITY + 1, history.getOldestTick());
+
+        // Truncating further back than the history reaches forgets it all
+        history.truncate(history.getOldestTick() - 5);
+        assertEquals(0, history.getCount());
+        assertFalse(history.restore(history.getNewestTick(), world));
+
+        // Truncating at or after the newest tick changes nothing
+        history.save(world);
+        history.truncate(world.getTick());
+        history.truncate(world.getTick() + 3);
+        assertEquals(1, history.getCount());
+        assertEquals(world.getTick(), history.getNewestTick());
+    }
+
+    @Test
+    public void aRestartStartsTheHistoryOver() {
+        world.reset(SEED + 1);
+        history.save(world);
+        assertEquals(1, history.getCount());
+        assertEquals(0, history.getOldestTick());
+
+        GameWorld restored = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 0);
+        assertTrue(history.restore(0, restored));
+        assertEquals(SEED + 1, restored.getSeed());
+        assertFalse(history.restore(1, restored));
+    }
+
+    private void playTo(GameWorld world, int tick) {
+        while (world.getTick() < tick) {
+            world.step(flaps[world.getTick()]);
+            if (world == this.world) {
+                history.save(world);
+            }
+        }
+    }
+
+    private static void assertSameState(String message, GameWorld expected, GameWorld actual) {
+        assertEquals(message, expected.getTick(), actual.getTick());
+        assertEquals(message, expected.getPlayTicks(), actual.getPlayTicks());
+        assertEquals(message, expected.getScore(), actual.getScore());
+        assertEquals(message, expected.isGameOver(), actual.isGameOver());
+        assertEquals(message, expected.getBirdY(), actual.getBirdY(), 0);
+        assertEquals(message, expected.getBirdVelocity(), actual.getBirdVelocity(), 0);
+        assertEquals(message, expected.getBirdRotation(), actual.getBirdRotation(), 0);
+        assertEquals(message, expected.getGroundX(), actual.getGroundX(), 0);
+        assertEquals(message, expected.getSpawnedPipes(), actual.getSpawnedPipes());
+        assertEquals(message, expected.getPipeCount(), actual.getPipeCount());
+        for (int i = 0; i < expected.getPipeCount(); i++) {
+            assertEquals(message, expected.getPipeX(i), actual.getPipeX(i), 0);
+            assertEquals(message, expected.getPipeGapY(i), actual.getPipeGapY(i), 0);
+            assertEquals(message, expected.isPipeScored(i), actual.isPipeScored(i));
+            assertEquals(message, expected.getPipeId(i), actual.getPipeId(i));
+        }
+    }
+}
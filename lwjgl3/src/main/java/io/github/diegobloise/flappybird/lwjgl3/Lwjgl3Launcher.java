@@ -14,6 +14,13 @@ public class Lwjgl3Launcher {
         if (StartupHelper.startNewJvmIfRequired())
             return; // This handles macOS support and helps on Windows.
         game = new FlappyBird();
+        game.tickRate = Integer.getInteger("flappybird.tickRate", game.tickRate);
+        game.gcTimer = new MxBeanGcTimer();
+        game.profileReport = System.getProperty("flappybird.profileReport");
+        game.replayFile = System.getProperty("flappybird.replay");
+        game.replaySpeed = Float.parseFloat(System.getProperty("flappybird.replaySpeed", "1"));
+        game.swarmSize = Integer.getInteger("flappybird.swarmSize", game.swarmSize);
+        game.rewindSeconds = Integer.getInteger("flappybird.rewindSeconds", game.rewindSeconds);
         createApplication();
     }
 
@@ -0,0 +1,27 @@
+package io.github.diegobloise.flappybird.lwjgl3;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import io.github.diegobloise.flappybird.profiling.GcTimer;
+
+/** Sums the collection time of all JVM garbage collectors. */
+public class MxBeanGcTimer implements GcTimer {
+
+    private final GarbageCollectorMXBean[] collectors;
+
+    public MxBeanGcTimer() {
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+    }
+
+    @Override
+    public long getCollectionNanos() {
+        long millis = 0;
+        for (int i = 0; i < collectors.length; i++) {
+            millis += Math.max(0, collectors[i].getCollectionTime());
+        }
+        return millis * 1_000_000L;
+    }
+}
@@ -0,0 +1,295 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.github.diegobloise.flappybird.scores.ScoreStore;
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.Rules;
+
+/**
+ * Runs many independent, seeded games headlessly across a fork-join pool and
+ * collects score and survival time distributions.
+ *
+ * Every game uses the same {@link GameWorld} rules as the shipped game. Work
+ * is split into ranges of games, and every leaf task reuses one world, so
+ * the only shared state is the result arrays, each index written once.
+ */
+public class BatchSimulator {
+
+    /**
+     * Creates the policy of one game, seeded so runs are reproducible.
+     */
+    public interface PolicyFactory {
+        FlapPolicy create(long seed);
+    }
+
+    // Games per leaf task, big enough to hide the fork-join overhead
+    private static final int GRAIN = 64;
+
+    private final int tickRate;
+    private final int maxTicks;
+    private final Rules rules;
+    private final PolicyFactory policies;
+
+    public BatchSimulator(int tickRate, int maxTicks, PolicyFactory policies) {
+        this(tickRate, maxTicks, Rules.DEFAULT, policies);
+    }
+
+    public BatchSimulator(int tickRate, int maxTicks, Rules rules, PolicyFactory policies) {
+        this.tickRate = tickRate;
+        this.maxTicks = maxTicks;
+        this.rules = rules;
+        this.policies = policies;
+    }
+
+    public Result run(int games, long baseSeed, ForkJoinPool pool) {
+        return run(baseSeed, 0, games, pool);
+    }
+
+    /**
+     * Plays the games {@code firstGame} to {@code firstGame + games - 1} of
+     * the batch, so a batch can be split over several runs.
+     */
+    public Result run(long baseSeed, int firstGame, int games, ForkJoinPool pool) {
+        Result result = new Result(games, tickRate, baseSeed, firstGame);
+        long start = System.nanoTime();
+        pool.invoke(new Batch(result, baseSeed, firstGame, firstGame + games));
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Policies by the names of the command line, with their parameter or a
+     * default for a negative one.
+     */
+    public static PolicyFactory policies(String name, float parameter) {
+        if (name.equals("random")) {
+            float chance = parameter < 0 ? 0.03f : parameter;
+            return policySeed -> new RandomPolicy(policySeed, chance);
+        } else if (name.equals("gap")) {
+            float jitter = parameter < 0 ? 20 : parameter;
+            return policySeed -> new GapFollowerPolicy(policySeed, jitter);
+        }
+        throw new IllegalArgumentException("Unknown policy " + name);
+    }
+
+    /**
+     * Seed of the n-th game of a batch, mixed with SplitMix64.
+     *
+     * GameWorld mixes the seed it is given again, so this isn't what makes
+     * neighbouring courses unrelated. It keeps the seeds themselves apart:
+     * with {@code baseSeed + game} the batches of base seeds 1 and 2 would
+     * share all their games but one, and the seeds are used as base seeds
+     * again, by VecEnv per episode and by the trainer per generation, where
+     * sums of two indices collide.
+     */
+    public static long seedOf(long baseSeed, int game) {
+        long z = baseSeed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void play(Result result, long baseSeed, int from, int to) {
+        GameWorld world = new GameWorld(tickRate, 0, rules);
+        for (int game = from; game < to; game++) {
+            long seed = seedOf(baseSeed, game);
+            world.reset(seed);
+            FlapPolicy policy = policies.create(~seed);
+
+            while (!world.isGameOver() && world.getTick() < maxTicks) {
+                world.step(policy.shouldFlap(world));
+            }
+            result.scores[game - result.firstGame] = world.getScore();
+            result.ticks[game - result.firstGame] = world.getTick();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class Batch extends RecursiveAction {
+
+        private final Result result;
+        private final long baseSeed;
+        private final int from;
+        private final int to;
+
+        Batch(Result result, long baseSeed, int from, int to) {
+            this.result = result;
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                play(result, baseSeed, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(result, baseSeed, from, middle), new Batch(result, baseSeed, middle, to));
+            }
+        }
+    }
+
+    public static class Result {
+
+        public final int[] scores;
+        public final int[] ticks;
+        public final int tickRate;
+        final long baseSeed;
+        final int firstGame;
+        long nanos;
+
+        Result(int games, int tickRate, long baseSeed, int firstGame) {
+            this.scores = new int[games];
+            this.ticks = new int[games];
+            this.tickRate = tickRate;
+            this.baseSeed = baseSeed;
+            this.firstGame = firstGame;
+        }
+
+        /**
+         * Appends every game to a score log, with its course seed.
+         */
+        public void log(ScoreStore store) throws IOException {
+            long time = System.currentTimeMillis();
+            for (int game = 0; game < scores.length; game++) {
+                store.add(scores[game], ticks[game], seedOf(baseSeed, firstGame + game), time);
+            }
+            store.flush();
+        }
+
+        public double getSeconds() {
+            return nanos / 1e9;
+        }
+
+        public double getGamesPerSecond() {
+            return scores.length / getSeconds();
+        }
+
+        public double getTicksPerSecond() {
+            long total = 0;
+            for (int tick : ticks) {
+                total += tick;
+            }
+            return total / getSeconds();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int tickRate = GameWorld.DEFAULT_TICK_RATE;
+        int maxTicks = tickRate * 60 * 5;
+        String policyName = "gap";
+        float parameter = -1;
+        boolean scaling = false;
+        String scoreLog = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--max-seconds":
+                    maxTicks = tickRate * Integer.parseInt(args[++i]);
+                    break;
+                case "--policy":
+                    policyName = args[++i];
+                    break;
+                case "--param":
+                    parameter = Float.parseFloat(args[++i]);
+                    break;
+                case "--scaling":
+                    scaling = true;
+                    break;
+                case "--scores":
+                    scoreLog = args[++i];
+                    break;
+                default:
+                    System.err.println("Usage: BatchSimulator [--games N] [--threads N] [--seed N]"
+                            + " [--max-seconds N] [--policy gap|random] [--param X] [--scaling] [--scores FILE]");
+                    System.exit(1);
+            }
+        }
+
+        BatchSimulator simulator = new BatchSimulator(tickRate, maxTicks, policies(policyName, parameter));
+
+        // Warm up the JIT so the first measurement is not mostly interpreter
+        simulator.run(Math.min(games, 2_000), seed, ForkJoinPool.commonPool());
+
+        if (scaling) {
+            double single = 0;
+            for (int count = 1; count <= threads; count *= 2) {
+                Result result = runWith(simulator, games, seed, count);
+                if (count == 1) {
+                    single = result.getGamesPerSecond();
+                }
+                System.out.printf(Locale.ROOT, "%3d threads: %12.0f games/s  speedup %.2fx%n",
+                        count, result.getGamesPerSecond(), result.getGamesPerSecond() / single);
+            }
+            return;
+        }
+
+        Result result = runWith(simulator, games, seed, threads);
+        System.out.printf(Locale.ROOT, "%d games (%s policy, seed %d) on %d threads in %.2f s%n",
+                games, policyName, seed, threads, result.getSeconds());
+        System.out.printf(Locale.ROOT, "%.0f games/s, %.0f ticks/s%n",
+                result.getGamesPerSecond(), result.getTicksPerSecond());
+        System.out.println();
+
+        Distribution scores = new Distribution(result.scores);
+        System.out.println("Score: " + scores);
+        System.out.print(scores.histogram(10));
+        System.out.println();
+
+        Distribution survival = new Distribution(result.ticks);
+        System.out.println("Survival ticks at " + tickRate + " Hz: " + survival);
+        System.out.print(survival.histogram(10));
+
+        if (scoreLog != null) {
+            logScores(result, new File(scoreLog));
+        }
+    }
+
+    private static void logScores(Result result, File file) throws IOException {
+        long start = System.nanoTime();
+        ScoreStore store = new ScoreStore(file);
+        long opened = System.nanoTime();
+        result.log(store);
+        long logged = System.nanoTime();
+        // Waits for the compaction the new games may have started
+        store.close();
+        long closed = System.nanoTime();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Score log %s: %d runs, opened in %.1f ms, %d appended in %.1f ms,"
+                + " compacted in %.1f ms%n", file, store.getCount(), (opened - start) / 1e6,
+                result.scores.length, (logged - opened) / 1e6, (closed - logged) / 1e6);
+        for (int rank = 0; rank < store.getTopCount(); rank++) {
+            System.out.printf(Locale.ROOT, "%3d. %6d  %8d ticks  seed %016x%n", rank + 1,
+                    store.getTopScore(rank), store.getTopTicks(rank), store.getTopSeed(rank));
+        }
+    }
+
+    private static Result runWith(BatchSimulator simulator, int games, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return simulator.run(games, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Summary statistics of a set of integer samples.
+ */
+public class Distribution {
+
+    private final int[] sorted;
+    private final double mean;
+
+    public Distribution(int[] samples) {
+        sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        long sum = 0;
+        for (int sample : sorted) {
+            sum += sample;
+        }
+        mean = sorted.length == 0 ? 0 : (double) sum / sorted.length;
+    }
+
+    public int percentile(double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public int getMin() {
+        return sorted.length == 0 ? 0 : sorted[0];
+    }
+
+    public int getMax() {
+        return sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "mean %.2f  min %d  p50 %d  p90 %d  p99 %d  max %d",
+                mean, getMin(), percentile(50), percentile(90), percentile(99), getMax());
+    }
+
+    /**
+     * Text histogram with the given number of equal width buckets.
+     */
+    public String histogram(int buckets) {
+        StringBuilder builder = new StringBuilder();
+        int min = getMin();
+        int width = Math.max(1, (getMax() - min + buckets) / buckets);
+        int[] counts = new int[buckets];
+        for (int sample : sorted) {
+            counts[Math.min(buckets - 1, (sample - min) / width)]++;
+        }
+
+        int highest = 1;
+        for (int count : counts) {
+            highest = Math.max(highest, count);
+        }
+        for (int i = 0; i < buckets; i++) {
+            int from = min + i * width;
+            builder.append(String.format(Locale.ROOT, "%8d - %-8d %8d ", from, from + width - 1, counts[i]));
+            for (int bar = 0; bar < counts[i] * 40 / highest; bar++) {
+                builder.append('#');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+}
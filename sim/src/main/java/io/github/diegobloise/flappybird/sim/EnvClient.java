@@ -0,0 +1,131 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.Locale;
+
+import io.github.diegobloise.flappybird.profiling.Histogram;
+
+/**
+ * Stand-in for a training client of the {@link EnvServer}: connects, steps
+ * every environment with a simple gap following rule and reports the round
+ * trip times and the environment steps per second. Whatever a real agent
+ * adds on top is its own inference time.
+ */
+public class EnvClient {
+
+    private static final long MAX_NANOS = 10_000_000_000L;
+    private static final long NANOS_PER_MICRO = 1_000;
+
+    // Flaps while the gap center is this far above the bird, in gap heights, and falling
+    private static final float FLAP_ABOVE = 0.3f;
+
+    public static void main(String[] args) throws IOException {
+        int port = EnvServer.DEFAULT_PORT;
+        int steps = 10_000;
+        long seed = 1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--steps":
+                    steps = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: EnvClient [--port N] [--steps N] [--seed N]");
+                    System.exit(1);
+            }
+        }
+
+        try (SocketChannel channel = SocketChannel.open()) {
+            channel.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+            ByteBuffer header = ByteBuffer.allocate(EnvServer.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            if (header.getInt(0) != EnvServer.MAGIC || header.getInt(4) != EnvServer.VERSION) {
+                throw new IOException("Not a compatible environment server");
+            }
+            int envs = header.getInt(8);
+            int observationSize = header.getInt(12);
+            int observations = envs * observationSize * 4;
+            System.out.println(envs + " environments of " + observationSize + " observations, "
+                    + header.getInt(16) + " ticks/s, at most " + header.getInt(20) + " ticks per episode");
+
+            ByteBuffer request = ByteBuffer.allocateDirect(4 + Math.max(8, envs)).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer response = ByteBuffer.allocateDirect(EnvServer.stepResponseSize(envs))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int scoresOffset = observations + envs * 4;
+            int donesOffset = scoresOffset + envs * 4;
+
+            request.clear();
+            request.putInt(EnvServer.RESET).putLong(seed);
+            request.flip();
+            EnvServer.writeFully(channel, request);
+            response.clear().limit(observations);
+            readFully(channel, response);
+
+            Histogram roundTrips = new Histogram(MAX_NANOS);
+            long episodes = 0;
+            long totalScore = 0;
+            long start = System.nanoTime();
+            for (int step = 0; step < steps; step++) {
+                request.clear();
+                request.putInt(EnvServer.STEP);
+                for (int i = 0; i < envs; i++) {
+                    int offset = i * observationSize * 4;
+                    boolean flap = response.getFloat(offset + 12) > FLAP_ABOVE && response.getFloat(offset + 4) < 0;
+                    request.put((byte) (flap ? 1 : 0));
+                }
+                request.flip();
+
+                long sent = System.nanoTime();
+                EnvServer.writeFully(channel, request);
+                response.clear();
+                readFully(channel, response);
+                roundTrips.record(System.nanoTime() - sent);
+
+                for (int i = 0; i < envs; i++) {
+                    if (response.get(donesOffset + i) != VecEnv.RUNNING) {
+                        episodes++;
+                        totalScore += response.getInt(scoresOffset + i * 4);
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            request.clear();
+            request.putInt(EnvServer.CLOSE);
+            request.flip();
+            EnvServer.writeFully(channel, request);
+
+            System.out.printf(Locale.ROOT, "%d steps of %d environments in %.2f s, %.0f env-steps/s%n",
+                    steps, envs, seconds, (double) steps * envs / seconds);
+            System.out.printf(Locale.ROOT, "round trip us: p50 %d  p99 %d  max %d, %.1f ns per env-step%n",
+                    roundTrips.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                    roundTrips.getValueAtPercentile(99) / NANOS_PER_MICRO, roundTrips.getMax() / NANOS_PER_MICRO,
+                    roundTrips.getMean() / envs);
+            System.out.printf(Locale.ROOT, "%d episodes ended, mean score %.1f%n", episodes,
+                    episodes == 0 ? 0 : (double) totalScore / episodes);
+        }
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Serves a {@link VecEnv} to one local client at a time over a loopback
+ * socket, so agents written in any language train against the real rules.
+ *
+ * Everything is little endian, fixed size and unpadded, so a Python client
+ * reads it with {@code numpy.frombuffer} without any parsing. On connect the
+ * server sends a header of six int32: the magic "FBEV" (0x46424556), the
+ * protocol version, the number of environments N, the observation size O,
+ * the tick rate and the tick limit of an episode. Then the client sends
+ * commands, each an int32 followed by its arguments:
+ *
+ * <ul>
+ * <li>{@link #RESET}, an int64 seed. The reply is the observations,
+ * float32[N * O].</li>
+ * <li>{@link #STEP}, the actions, uint8[N], non-zero to flap. The reply is
+ * float32[N * O] observations, float32[N] rewards, int32[N] scores and
+ * uint8[N] done flags, see {@link VecEnv}.</li>
+ * <li>{@link #CLOSE}, no arguments and no reply.</li>
+ * </ul>
+ *
+ * A socket rather than shared memory, since a round trip carries a whole
+ * vector of environments, the syscalls are paid once per step of all N and
+ * the client doesn't have to spin on a flag.
+ */
+public class EnvServer {
+
+    public static final int MAGIC = 0x46424556; // "FBEV"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 6 * 4;
+
+    public static final int RESET = 1;
+    public static final int STEP = 2;
+    public static final int CLOSE = 3;
+
+    public static final int DEFAULT_PORT = 5577;
+
+    private final VecEnv env;
+    private final ForkJoinPool pool;
+    private final int tickRate;
+
+    private final ByteBuffer request;
+    private final ByteBuffer response;
+    private final FloatBuffer observations;
+    private final FloatBuffer rewards;
+    private final IntBuffer scores;
+    private final int donesOffset;
+    private final byte[] actions;
+
+    /**
+     * @param pool steps the environments, or null to step them on the
+     *             serving thread
+     */
+    public EnvServer(VecEnv env, int tickRate, ForkJoinPool pool) {
+        this.env = env;
+        this.tickRate = tickRate;
+        this.pool = pool;
+
+        int envs = env.getEnvCount();
+        actions = new byte[envs];
+        request = ByteBuffer.allocateDirect(Math.max(8, envs)).order(ByteOrder.LITTLE_ENDIAN);
+        response = ByteBuffer.allocateDirect(stepResponseSize(envs)).order(ByteOrder.LITTLE_ENDIAN);
+
+        int offset = 0;
+        observations = view(offset).asFloatBuffer();
+        offset += envs * VecEnv.OBSERVATION_SIZE * 4;
+        rewards = view(offset).asFloatBuffer();
+        offset += envs * 4;
+        scores = view(offset).asIntBuffer();
+        offset += envs * 4;
+        donesOffset = offset;
+    }
+
+    public static int stepResponseSize(int envs) {
+        return envs * (VecEnv.OBSERVATION_SIZE * 4 + 4 + 4 + 1);
+    }
+
+    private ByteBuffer view(int offset) {
+        response.clear().position(offset);
+        return response.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Serves clients one after the other, forever.
+     */
+    public void serve(int port) throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            // A restarted server can take the port over from connections still closing
+            server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            System.out.println("Serving " + env.getEnvCount() + " environments on " + server.getLocalAddress());
+            while (true) {
+                try (SocketChannel client = server.accept()) {
+                    System.out.println("Client connected from " + client.getRemoteAddress());
+                    long steps = serve(client);
+                    System.out.println("Client left after " + steps + " steps");
+                } catch (IOException e) {
+                    System.err.println("Client dropped: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the protocol with one client until it closes.
+     *
+     * @return the number of steps the client made
+     */
+    long serve(SocketChannel client) throws IOException {
+        client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        int envs = env.getEnvCount();
+
+        response.clear();
+        response.putInt(MAGIC).putInt(VERSION).putInt(envs).putInt(VecEnv.OBSERVATION_SIZE).putInt(tickRate)
+                .putInt(env.getMaxTicks());
+        response.flip();
+        writeFully(client, response);
+
+        long steps = 0;
+        while (true) {
+            read(client, 4);
+            int command = request.getInt(0);
+            switch (command) {
+                case RESET:
+                    read(client, 8);
+                    env.reset(request.getLong(0));
+                    observations.clear();
+                    observations.put(env.getObservations());
+                    response.clear().limit(envs * VecEnv.OBSERVATION_SIZE * 4);
+                    writeFully(client, response);
+                    break;
+                case STEP:
+                    read(client, envs);
+                    request.get(actions);
+                    env.step(actions, pool);
+                    steps++;
+                    observations.clear();
+                    observations.put(env.getObservations());
+                    rewards.clear();
+                    rewards.put(env.getRewards());
+                    scores.clear();
+                    scores.put(env.getScores());
+                    response.clear().position(donesOffset);
+                    response.put(env.getDones());
+                    response.flip();
+                    writeFully(client, response);
+                    break;
+                case CLOSE:
+                    return steps;
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+        }
+    }
+
+    // Reads exactly count bytes into the request buffer, from position 0
+    private void read(SocketChannel client, int count) throws IOException {
+        request.clear().limit(count);
+        while (request.hasRemaining()) {
+            if (client.read(request) < 0) {
+                throw new EOFException();
+            }
+        }
+        request.flip();
+    }
+
+    static void writeFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int envs = 1024;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tickRate = GameWorld.DEFAULT_TICK_RATE;
+        int maxTicks = tickRate * 60 * 2;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--envs":
+                    envs = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-seconds":
+                    maxTicks = tickRate * Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: EnvServer [--port N] [--envs N] [--threads N] [--max-seconds N]");
+                    System.exit(1);
+            }
+        }
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        new EnvServer(new VecEnv(envs, tickRate, maxTicks), tickRate, pool).serve(port);
+    }
+}
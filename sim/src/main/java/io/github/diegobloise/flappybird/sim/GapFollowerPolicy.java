@@ -0,0 +1,42 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.util.Random;
+
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Flaps whenever the bird falls below the next gap. Every pipe gets its own
+ * random aiming error of up to {@code jitter} pixels, which is what makes the
+ * bot fail now and then.
+ */
+public class GapFollowerPolicy implements FlapPolicy {
+
+    private final Random random;
+    private final float jitter;
+
+    private int aimedPipe = -1;
+    private float aimError;
+
+    public GapFollowerPolicy(long seed, float jitter) {
+        this.random = new Random(seed);
+        this.jitter = jitter;
+    }
+
+    @Override
+    public boolean shouldFlap(GameWorld world) {
+        if (!world.isPlaying()) {
+            return true;
+        }
+
+        int next = world.getNextPipe();
+        int pipeId = world.getPipeId(next);
+        if (pipeId != aimedPipe) {
+            aimedPipe = pipeId;
+            aimError = (random.nextFloat() * 2 - 1) * jitter;
+        }
+
+        float target = world.getPipeGapY(next) - world.getRules().getVerticalPipeGap() / 2f + aimError;
+        return world.getBirdY() < target && world.getBirdVelocity() < 0;
+    }
+}
@@ -0,0 +1,263 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.github.diegobloise.flappybird.bot.NeuralPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Evolves the weights of a {@link NeuralPolicy} by playing whole populations
+ * of them headlessly, every generation spread across a fork-join pool.
+ *
+ * Every genome of a generation plays the same seeded courses, so their
+ * fitness compares fairly, and the courses change every generation so the
+ * winners can't just learn them by heart. Fitness is the mean survival time
+ * plus a second per pipe passed. The best genomes are kept as they are, the
+ * rest of the next generation is bred from tournament picks with uniform
+ * crossover and gaussian mutation.
+ *
+ * Breeding is sequential and seeded, so a run is reproducible whatever the
+ * thread count.
+ */
+public class NeuroevolutionTrainer {
+
+    // Genomes per leaf task, each plays every course of the generation
+    private static final int GRAIN = 4;
+
+    private static final int TOURNAMENT = 3;
+    private static final float MUTATION_RATE = 0.1f;
+    private static final float MUTATION_SIZE = 0.3f;
+    private static final float INITIAL_SIZE = 1;
+
+    private final int tickRate;
+    private final int maxTicks;
+    private final int hidden;
+    private final int courses;
+
+    public NeuroevolutionTrainer(int tickRate, int maxTicks, int hidden, int courses) {
+        this.tickRate = tickRate;
+        this.maxTicks = maxTicks;
+        this.hidden = hidden;
+        this.courses = courses;
+    }
+
+    /**
+     * Plays every genome on the courses of one generation, in parallel.
+     *
+     * @param fitness receives the fitness of each genome
+     */
+    public void evaluate(float[][] genomes, long courseSeed, float[] fitness, ForkJoinPool pool) {
+        pool.invoke(new Evaluation(genomes, courseSeed, fitness, 0, genomes.length));
+    }
+
+    private void evaluate(float[][] genomes, long courseSeed, float[] fitness, int from, int to) {
+        GameWorld world = new GameWorld(tickRate, 0);
+        NeuralPolicy policy = new NeuralPolicy(hidden);
+        for (int genome = from; genome < to; genome++) {
+            policy.setWeights(genomes[genome]);
+            long total = 0;
+            for (int course = 0; course < courses; course++) {
+                world.reset(BatchSimulator.seedOf(courseSeed, course));
+                while (!world.isGameOver() && world.getTick() < maxTicks) {
+                    world.step(policy.shouldFlap(world));
+                }
+                total += world.getTick() + (long) world.getScore() * tickRate;
+            }
+            fitness[genome] = (float) total / courses;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class Evaluation extends RecursiveAction {
+
+        private final float[][] genomes;
+        private final long courseSeed;
+        private final float[] fitness;
+        private final int from;
+        private final int to;
+
+        Evaluation(float[][] genomes, long courseSeed, float[] fitness, int from, int to) {
+            this.genomes = genomes;
+            this.courseSeed = courseSeed;
+            this.fitness = fitness;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                evaluate(genomes, courseSeed, fitness, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Evaluation(genomes, courseSeed, fitness, from, middle),
+                        new Evaluation(genomes, courseSeed, fitness, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Breeds the next generation into {@code next}, the elites first.
+     *
+     * @param ranking genome indexes, best first
+     */
+    static void breed(float[][] genomes, float[] fitness, Integer[] ranking, int elites, float[][] next,
+            SplittableRandom random) {
+        for (int i = 0; i < elites; i++) {
+            System.arraycopy(genomes[ranking[i]], 0, next[i], 0, next[i].length);
+        }
+        for (int i = elites; i < next.length; i++) {
+            float[] mother = genomes[tournament(fitness, random)];
+            float[] father = genomes[tournament(fitness, random)];
+            float[] child = next[i];
+            for (int w = 0; w < child.length; w++) {
+                child[w] = random.nextBoolean() ? mother[w] : father[w];
+                if (random.nextDouble() < MUTATION_RATE) {
+                    child[w] += (float) gaussian(random) * MUTATION_SIZE;
+                }
+            }
+        }
+    }
+
+    private static int tournament(float[] fitness, SplittableRandom random) {
+        int best = random.nextInt(fitness.length);
+        for (int i = 1; i < TOURNAMENT; i++) {
+            int other = random.nextInt(fitness.length);
+            if (fitness[other] > fitness[best]) {
+                best = other;
+            }
+        }
+        return best;
+    }
+
+    // Box-Muller, SplittableRandom has no nextGaussian
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int population = 256;
+        int generations = 50;
+        int courses = 16;
+        int hidden = NeuralPolicy.DEFAULT_HIDDEN;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int tickRate = GameWorld.DEFAULT_TICK_RATE;
+        int maxTicks = tickRate * 60 * 2;
+        String output = "assets/bots/autopilot.nn";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--population":
+                    population = Integer.parseInt(args[++i]);
+                    break;
+                case "--generations":
+                    generations = Integer.parseInt(args[++i]);
+                    break;
+                case "--courses":
+                    courses = Integer.parseInt(args[++i]);
+                    break;
+                case "--hidden":
+                    hidden = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--max-seconds":
+                    maxTicks = tickRate * Integer.parseInt(args[++i]);
+                    break;
+                case "--out":
+                    output = args[++i];
+                    break;
+                default:
+                    System.err.println("Usage: NeuroevolutionTrainer [--population N] [--generations N]"
+                            + " [--courses N] [--hidden N] [--threads N] [--seed N] [--max-seconds N] [--out FILE]");
+                    System.exit(1);
+            }
+        }
+
+        NeuroevolutionTrainer trainer = new NeuroevolutionTrainer(tickRate, maxTicks, hidden, courses);
+        SplittableRandom random = new SplittableRandom(seed);
+        int weights = NeuralPolicy.weightCount(hidden);
+        float[][] genomes = new float[population][weights];
+        float[][] next = new float[population][weights];
+        for (float[] genome : genomes) {
+            for (int w = 0; w < weights; w++) {
+                genome[w] = (float) (random.nextDouble() * 2 - 1) * INITIAL_SIZE;
+            }
+        }
+        float[] fitness = new float[population];
+        Integer[] ranking = new Integer[population];
+        int elites = Math.max(1, population / 16);
+
+        float[] best = new float[weights];
+        float bestFitness = Float.NEGATIVE_INFINITY;
+        long totalGames = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (int generation = 0; generation < generations; generation++) {
+                long generationStart = System.nanoTime();
+                trainer.evaluate(genomes, BatchSimulator.seedOf(seed, -generation - 1), fitness, pool);
+                double seconds = (System.nanoTime() - generationStart) / 1e9;
+                totalGames += (long) population * courses;
+
+                for (int i = 0; i < population; i++) {
+                    ranking[i] = i;
+                }
+                Arrays.sort(ranking, (a, b) -> Float.compare(fitness[b], fitness[a]));
+                float mean = 0;
+                for (float value : fitness) {
+                    mean += value / population;
+                }
+                if (fitness[ranking[0]] >= bestFitness) {
+                    bestFitness = fitness[ranking[0]];
+                    System.arraycopy(genomes[ranking[0]], 0, best, 0, weights);
+                }
+                System.out.printf(Locale.ROOT,
+                        "generation %3d: fitness best %8.0f  mean %8.0f  %9.0f games/s%n",
+                        generation, fitness[ranking[0]], mean, population * courses / seconds);
+
+                breed(genomes, fitness, ranking, elites, next, random);
+                float[][] swap = genomes;
+                genomes = next;
+                next = swap;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d games in %.1f s on %d threads, %.0f games/s%n",
+                totalGames, seconds, threads, totalGames / seconds);
+
+        File file = new File(output);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        final int hiddenSize = hidden;
+        try (OutputStream out = new FileOutputStream(file)) {
+            new NeuralPolicy(hiddenSize, best).write(out);
+        }
+        System.out.println("Best genome saved to " + file);
+
+        // Courses none of the generations played, to see how well it generalizes
+        BatchSimulator validation = new BatchSimulator(tickRate, maxTicks,
+                policySeed -> new NeuralPolicy(hiddenSize, best));
+        BatchSimulator.Result result = validation.run(10_000, ~seed, ForkJoinPool.commonPool());
+        System.out.println("Validation on 10000 new courses, score: " + new Distribution(result.scores));
+        System.out.printf(Locale.ROOT, "%.0f games/s, %.0f ticks/s%n",
+                result.getGamesPerSecond(), result.getTicksPerSecond());
+    }
+}
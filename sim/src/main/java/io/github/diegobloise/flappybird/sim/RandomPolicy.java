@@ -0,0 +1,25 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.util.Random;
+
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Flaps with a fixed probability every tick. A baseline for other policies.
+ */
+public class RandomPolicy implements FlapPolicy {
+
+    private final Random random;
+    private final float flapChance;
+
+    public RandomPolicy(long seed, float flapChance) {
+        this.random = new Random(seed);
+        this.flapChance = flapChance;
+    }
+
+    @Override
+    public boolean shouldFlap(GameWorld world) {
+        return !world.isPlaying() || random.nextFloat() < flapChance;
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Random;
+
+import io.github.diegobloise.flappybird.replay.GhostPlayer;
+import io.github.diegobloise.flappybird.replay.GhostRecorder;
+import io.github.diegobloise.flappybird.replay.Replay;
+import io.github.diegobloise.flappybird.replay.ReplayPlayer;
+import io.github.diegobloise.flappybird.replay.ReplayRecorder;
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.WorldHistory;
+
+/**
+ * Records, verifies and plays replays without a window.
+ *
+ * <pre>
+ * ReplayTool record FILE [--seed N] [--param X]   record a run of the gap follower bot
+ * ReplayTool verify FILE...                        replay at full speed and check the score
+ * ReplayTool play FILE [--speed X]                 replay paced at X times real time, 0 for unpaced
+ * ReplayTool ghosts DIR [--count N] [--param X]    record ghosts of the gap follower bot into a course
+ *                                                  directory, ghosts/SEED in hex as the game names them
+ * ReplayTool rewind FILE [--seconds N] [--rewinds N] replay while rewinding at random, and check it ends
+ *                                                  the same as when played straight through
+ * </pre>
+ */
+public class ReplayTool {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            usage();
+        }
+        switch (args[0]) {
+            case "record":
+                record(args);
+                break;
+            case "verify":
+                boolean ok = true;
+                for (int i = 1; i < args.length; i++) {
+                    ok &= verify(args[i]);
+                }
+                System.exit(ok ? 0 : 1);
+                break;
+            case "play":
+                play(args);
+                break;
+            case "ghosts":
+                ghosts(args);
+                break;
+            case "rewind":
+                System.exit(rewind(args) ? 0 : 1);
+                break;
+            default:
+                usage();
+        }
+    }
+
+    private static void record(String[] args) throws IOException {
+        long seed = System.nanoTime();
+        float jitter = 20;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--param":
+                    jitter = Float.parseFloat(args[++i]);
+                    break;
+                default:
+                    usage();
+            }
+        }
+
+        GameWorld world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, seed);
+        FlapPolicy policy = new GapFollowerPolicy(~seed, jitter);
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(world);
+        int maxTicks = world.getTickRate() * 60 * 5;
+        // A replay ends at the crash, past maxTicks the bot lets the bird fall
+        while (!world.isGameOver()) {
+            boolean flap = world.getTick() < maxTicks && policy.shouldFlap(world);
+            recorder.record(world, flap);
+            world.step(flap);
+        }
+
+        Replay replay = recorder.finish(world);
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(args[1]))) {
+            replay.write(output);
+        }
+        System.out.printf(Locale.ROOT, "Recorded seed %d: score %d in %d ticks, %d flaps, %d bytes%n",
+                seed, replay.getScore(), replay.getEndTick(), replay.getFlapCount(), replay.toBytes().length);
+    }
+
+    private static boolean verify(String fileName) throws IOException {
+        Replay replay = read(fileName);
+        GameWorld world = new GameWorld(replay.getTickRate(), replay.getSeed());
+
+        long start = System.nanoTime();
+        boolean ok = ReplayPlayer.verify(replay, world);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%s: %s, score %d (recorded %d) at tick %d, %.0f ticks/s%n",
+                fileName, ok ? "OK" : "MISMATCH", world.getScore(), replay.getScore(), world.getTick(),
+                world.getTick() / seconds);
+        return ok;
+    }
+
+    private static void play(String[] args) throws IOException, InterruptedException {
+        float speed = 1;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--speed")) {
+                speed = Float.parseFloat(args[++i]);
+            } else {
+                usage();
+            }
+        }
+
+        Replay replay = read(args[1]);
+        GameWorld world = new GameWorld(replay.getTickRate(), replay.getSeed());
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.start(world);
+
+        // Every tick is due at its own deadline, so the speed stays exact over long runs
+        long nanosPerTick = speed > 0 ? (long) (1e9 / (replay.getTickRate() * speed)) : 0;
+        long start = System.nanoTime();
+        while (!player.isFinished(world)) {
+            world.step(player.shouldFlap(world));
+            if ((world.getEvents() & (GameWorld.EVENT_SCORE | GameWorld.EVENT_HIT)) != 0) {
+                System.out.printf(Locale.ROOT, "tick %6d  %s  score %d%n", world.getTick(),
+                        (world.getEvents() & GameWorld.EVENT_HIT) != 0 ? "hit  " : "point", world.getScore());
+            }
+            if (nanosPerTick > 0) {
+                long wait = start + world.getTick() * nanosPerTick - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                }
+            }
+        }
+        System.out.printf(Locale.ROOT, "Final score %d (recorded %d) in %.2f s%n",
+                world.getScore(), replay.getScore(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void ghosts(String[] args) throws IOException {
+        int count = 100;
+        float jitter = 10;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count":
+                    count = Integer.parseInt(args[++i]);
+                    break;
+                case "--param":
+                    jitter = Float.parseFloat(args[++i]);
+                    break;
+                default:
+                    usage();
+            }
+        }
+
+        File directory = new File(args[1]);
+        long seed = Long.parseUnsignedLong(directory.getName(), 16);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        GameWorld world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, seed);
+        GhostRecorder recorder = new GhostRecorder();
+        GhostPlayer player = new GhostPlayer();
+        int maxTicks = world.getTickRate() * 60 * 5;
+        float[] heights = new float[maxTicks + 1];
+        long bytes = 0;
+        long ticks = 0;
+        float maxError = 0;
+        long decodeNanos = 0;
+        for (int ghost = 0; ghost < count; ghost++) {
+            world.reset(seed);
+            recorder.begin(world);
+            FlapPolicy policy = new GapFollowerPolicy(BatchSimulator.seedOf(seed, ghost), jitter);
+            while (!world.isGameOver() && world.getTick() < maxTicks) {
+                world.step(policy.shouldFlap(world));
+                recorder.record(world);
+                heights[world.getPlayTicks()] = world.getBirdY();
+            }
+
+            File file = new File(directory, String.format(Locale.ROOT, "%d-bot%d.fbg", world.getScore(), ghost));
+            try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+                recorder.write(output);
+            }
+            bytes += file.length();
+            ticks += recorder.getCount();
+
+            // Read back the way the game streams it, and check every height
+            long start = System.nanoTime();
+            player.open(new FileInputStream(file));
+            for (int tick = 1; tick <= player.getCount(); tick++) {
+                player.advance(tick);
+                maxError = Math.max(maxError, Math.abs(player.getY() - heights[tick]));
+            }
+            decodeNanos += System.nanoTime() - start;
+            player.close();
+        }
+        System.out.printf(Locale.ROOT, "%d ghosts of course %016x in %s: %.1f s of flight each on average,"
+                + " %.2f bytes per tick, %.1f ns per tick to read back, off by at most %.3f px%n", count, seed,
+                directory, (double) ticks / count / world.getTickRate(), (double) bytes / ticks,
+                (double) decodeNanos / ticks, maxError);
+    }
+
+    private static boolean rewind(String[] args) throws IOException {
+        int seconds = 10;
+        int rewinds = 1000;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seconds":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--rewinds":
+                    rewinds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    usage();
+            }
+        }
+
+        Replay replay = read(args[1]);
+        GameWorld reference = new GameWorld(replay.getTickRate(), replay.getSeed());
+        ReplayPlayer.verify(replay, reference);
+
+        GameWorld world = new GameWorld(replay.getTickRate(), replay.getSeed());
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.start(world);
+        WorldHistory history = new WorldHistory(seconds * replay.getTickRate());
+        history.save(world);
+
+        // Rewinds are spread over the run, each one back to a random tick of the history
+        Random random = new Random(replay.getSeed());
+        int interval = Math.max(1, replay.getEndTick() / rewinds);
+        int nextRewind = interval;
+        int done = 0;
+        long ticks = 0;
+        while (!player.isFinished(world)) {
+            world.step(player.shouldFlap(world));
+            history.save(world);
+            ticks++;
+            if (done < rewinds && world.getTick() >= nextRewind) {
+                int tick = history.getOldestTick() + random.nextInt(history.getCount());
+                history.restore(tick, world);
+                history.truncate(tick);
+                player.rewind();
+                nextRewind += interval;
+                done++;
+            }
+        }
+        boolean ok = world.getTick() == reference.getTick() && world.getScore() == reference.getScore()
+                && world.getBirdY() == reference.getBirdY() && world.isGameOver() == reference.isGameOver();
+
+        // Every save and restore copies the same stride, one tick timed over and over is representative
+        int repeats = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            history.save(world);
+        }
+        double saveNanos = (double) (System.nanoTime() - start) / repeats;
+        start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            history.restore(history.getNewestTick(), world);
+        }
+        double restoreNanos = (double) (System.nanoTime() - start) / repeats;
+
+        System.out.printf(Locale.ROOT, "%s: %s after %d rewinds and %d ticks stepped, score %d (straight %d)"
+                + " at tick %d%n", args[1], ok ? "OK" : "MISMATCH", done, ticks, world.getScore(),
+                reference.getScore(), world.getTick());
+        System.out.printf(Locale.ROOT, "History: %d bytes per tick, %.1f KB per second at %d ticks/s,"
+                + " %.1f KB for %d s, %.1f ns per save, %.1f ns per restore%n", WorldHistory.BYTES_PER_TICK,
+                WorldHistory.BYTES_PER_TICK * replay.getTickRate() / 1024.0, replay.getTickRate(),
+                history.getBytes() / 1024.0, seconds, saveNanos, restoreNanos);
+        return ok;
+    }
+
+    private static Replay read(String fileName) throws IOException {
+        try (InputStream input = new BufferedInputStream(new FileInputStream(fileName))) {
+            return Replay.read(input);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: ReplayTool record FILE [--seed N] [--param X]");
+        System.err.println("       ReplayTool verify FILE...");
+        System.err.println("       ReplayTool play FILE [--speed X]");
+        System.err.println("       ReplayTool ghosts DIR [--count N] [--param X]");
+        System.err.println("       ReplayTool rewind FILE [--seconds N] [--rewinds N]");
+        System.exit(1);
+    }
+}
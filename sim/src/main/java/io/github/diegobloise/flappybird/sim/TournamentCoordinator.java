@@ -0,0 +1,462 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import io.github.diegobloise.flappybird.world.GameWorld;
+import io.github.diegobloise.flappybird.world.Rules;
+
+/**
+ * Hands out a tournament, a grid of {@link Rules} times a set of bots times
+ * a range of seeds, to {@link TournamentWorker} processes over TCP and
+ * collects every game's score and survival time.
+ *
+ * Every cell of the grid plays the same courses, game n on
+ * {@link BatchSimulator#seedOf} n, so cells differ only by rules and bot.
+ * The games of a cell are cut into units of a few thousand. A worker
+ * connection leases one unit at a time and has the lease time to send its
+ * results back. If it disconnects or runs out of time the unit goes back to
+ * the front of the queue for the next worker, so a lost worker costs at
+ * most one unit per connection. The games are deterministic, so it doesn't
+ * matter which worker ends up playing a unit.
+ *
+ * The protocol is big endian, as written by {@link DataOutputStream}:
+ *
+ * <pre>
+ * worker:      int MAGIC, int VERSION
+ * coordinator: int tickRate, int maxTicks, long baseSeed,
+ *              int rules, then per rules 5 floats (speed, spacing, gap, gravity, flap),
+ *              int bots, then per bot a UTF name and a float parameter
+ * then repeated until the coordinator sends a unit of -1:
+ * coordinator: int unit, int rules index, int bot index, int first game, int games
+ * worker:      int unit, int games, int[games] scores, int[games] ticks
+ * </pre>
+ */
+public class TournamentCoordinator {
+
+    public static final int MAGIC = 0x4642544E; // "FBTN"
+    public static final int VERSION = 1;
+    public static final int NO_MORE_UNITS = -1;
+
+    public static final int DEFAULT_PORT = 5578;
+
+    private final int tickRate;
+    private final int maxTicks;
+    private final long baseSeed;
+    private final Rules[] rules;
+    private final String[] botNames;
+    private final float[] botParameters;
+    private final int games;
+    private final int unitGames;
+    private final int leaseMillis;
+
+    private final int unitsPerCell;
+    private final int[][] scores;
+    private final int[][] ticks;
+
+    // Guarded by this
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    private final boolean[] done;
+    private int remaining;
+    private int releases;
+    private int connections;
+
+    private ServerSocket server;
+
+    /**
+     * @param games       games played by every bot on every rules
+     * @param unitGames   games leased at a time
+     * @param leaseMillis time a worker has to send back a unit
+     */
+    public TournamentCoordinator(int tickRate, int maxTicks, long baseSeed, Rules[] rules, String[] botNames,
+            float[] botParameters, int games, int unitGames, int leaseMillis) {
+        this.tickRate = tickRate;
+        this.maxTicks = maxTicks;
+        this.baseSeed = baseSeed;
+        this.rules = rules;
+        this.botNames = botNames;
+        this.botParameters = botParameters;
+        this.games = games;
+        this.unitGames = unitGames;
+        this.leaseMillis = leaseMillis;
+
+        int cells = rules.length * botNames.length;
+        unitsPerCell = (games + unitGames - 1) / unitGames;
+        scores = new int[cells][games];
+        ticks = new int[cells][games];
+        done = new boolean[cells * unitsPerCell];
+        remaining = done.length;
+        for (int unit = 0; unit < done.length; unit++) {
+            pending.add(unit);
+        }
+    }
+
+    /**
+     * Starts accepting workers in the background.
+     */
+    public void start(int port) throws IOException {
+        server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(port));
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "Tournament-Acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                final Socket socket = server.accept();
+                final int id;
+                synchronized (this) {
+                    id = ++connections;
+                }
+                Thread handler = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        serve(socket, id);
+                    }
+                }, "Tournament-Worker-" + id);
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Accept failed: " + e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket, int id) {
+        int unit = NO_MORE_UNITS;
+        int completed = 0;
+        try {
+            socket.setTcpNoDelay(true);
+            // A worker that sends nothing for a lease has lost its unit
+            socket.setSoTimeout(leaseMillis);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Not a compatible tournament worker");
+            }
+            writeJob(output);
+            output.flush();
+
+            int[] unitScores = new int[unitGames];
+            int[] unitTicks = new int[unitGames];
+            while ((unit = lease()) != NO_MORE_UNITS) {
+                int cell = unit / unitsPerCell;
+                int firstGame = unit % unitsPerCell * unitGames;
+                int count = Math.min(unitGames, games - firstGame);
+                output.writeInt(unit);
+                output.writeInt(cell / botNames.length);
+                output.writeInt(cell % botNames.length);
+                output.writeInt(firstGame);
+                output.writeInt(count);
+                output.flush();
+
+                if (input.readInt() != unit || input.readInt() != count) {
+                    throw new IOException("Results of the wrong unit");
+                }
+                for (int game = 0; game < count; game++) {
+                    unitScores[game] = input.readInt();
+                }
+                for (int game = 0; game < count; game++) {
+                    unitTicks[game] = input.readInt();
+                }
+                complete(unit, cell, firstGame, count, unitScores, unitTicks);
+                unit = NO_MORE_UNITS;
+                completed++;
+            }
+            output.writeInt(NO_MORE_UNITS);
+            output.flush();
+        } catch (SocketTimeoutException e) {
+            System.err.println("Worker " + id + " timed out after " + completed + " units");
+        } catch (IOException e) {
+            System.err.println("Worker " + id + " lost after " + completed + " units: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (unit != NO_MORE_UNITS) {
+                release(unit);
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // The worker is gone either way
+            }
+        }
+    }
+
+    private void writeJob(DataOutputStream output) throws IOException {
+        output.writeInt(tickRate);
+        output.writeInt(maxTicks);
+        output.writeLong(baseSeed);
+        output.writeInt(rules.length);
+        for (Rules cell : rules) {
+            output.writeFloat(cell.getGameSpeed());
+            output.writeFloat(cell.getHorizontalPipeGap());
+            output.writeFloat(cell.getVerticalPipeGap());
+            output.writeFloat(cell.getGravity());
+            output.writeFloat(cell.getFlapForce());
+        }
+        output.writeInt(botNames.length);
+        for (int bot = 0; bot < botNames.length; bot++) {
+            output.writeUTF(botNames[bot]);
+            output.writeFloat(botParameters[bot]);
+        }
+    }
+
+    // Waits while every unit left is leased, it may come back
+    private synchronized int lease() throws InterruptedException {
+        while (pending.isEmpty() && remaining > 0) {
+            wait();
+        }
+        return remaining == 0 ? NO_MORE_UNITS : pending.poll();
+    }
+
+    private synchronized void release(int unit) {
+        if (!done[unit]) {
+            pending.addFirst(unit);
+            releases++;
+            notifyAll();
+        }
+    }
+
+    private synchronized void complete(int unit, int cell, int firstGame, int count, int[] unitScores,
+            int[] unitTicks) {
+        if (done[unit]) {
+            return;
+        }
+        System.arraycopy(unitScores, 0, scores[cell], firstGame, count);
+        System.arraycopy(unitTicks, 0, ticks[cell], firstGame, count);
+        done[unit] = true;
+        remaining--;
+        if (remaining == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until every unit is done, printing the progress now and then.
+     */
+    public synchronized void await() throws InterruptedException {
+        long start = System.nanoTime();
+        long nextReport = start;
+        while (remaining > 0) {
+            wait(1000);
+            if (System.nanoTime() >= nextReport) {
+                System.out.printf(Locale.ROOT, "%5.1f s: %d of %d units left, %d workers connected so far,"
+                        + " %d units re-leased%n", (System.nanoTime() - start) / 1e9, remaining, done.length,
+                        connections, releases);
+                nextReport += 5_000_000_000L;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting workers. Connected ones get no more units and exit.
+     */
+    public void stop() throws IOException {
+        server.close();
+    }
+
+    public void report() {
+        long digest = 1;
+        for (int cell = 0; cell < scores.length; cell++) {
+            Distribution score = new Distribution(scores[cell]);
+            Distribution survival = new Distribution(ticks[cell]);
+            System.out.printf(Locale.ROOT, "%s  %s:%s%n    score %s%n    survival %.1f s mean, %.1f s p50%n",
+                    rules[cell / botNames.length], botNames[cell % botNames.length],
+                    botParameters[cell % botNames.length], score, survival.getMean() / tickRate,
+                    (float) survival.percentile(50) / tickRate);
+            for (int game = 0; game < games; game++) {
+                digest = digest * 31 + scores[cell][game];
+                digest = digest * 31 + ticks[cell][game];
+            }
+        }
+        // Equal for every run of the same tournament, whichever workers played it
+        System.out.printf(Locale.ROOT, "Results digest %016x%n", digest);
+    }
+
+    public void writeCsv(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("speed,spacing,gap,gravity,flap,bot,parameter,games,mean_score,p50_score,p90_score,"
+                    + "p99_score,max_score,mean_seconds");
+            for (int cell = 0; cell < scores.length; cell++) {
+                Rules cellRules = rules[cell / botNames.length];
+                Distribution score = new Distribution(scores[cell]);
+                Distribution survival = new Distribution(ticks[cell]);
+                writer.printf(Locale.ROOT, "%s,%s,%s,%s,%s,%s,%s,%d,%.3f,%d,%d,%d,%d,%.3f%n",
+                        cellRules.getGameSpeed(), cellRules.getHorizontalPipeGap(), cellRules.getVerticalPipeGap(),
+                        cellRules.getGravity(), cellRules.getFlapForce(), botNames[cell % botNames.length],
+                        botParameters[cell % botNames.length], games, score.getMean(), score.percentile(50),
+                        score.percentile(90), score.percentile(99), score.getMax(), survival.getMean() / tickRate);
+            }
+        }
+    }
+
+    private static float[] parseFloats(String list) {
+        String[] parts = list.split(",");
+        float[] values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Float.parseFloat(parts[i]);
+        }
+        return values;
+    }
+
+    // Every combination of the values, the last parameter varying fastest
+    static Rules[] grid(float[] speeds, float[] spacings, float[] gaps, float[] gravities, float[] flaps) {
+        List<Rules> grid = new ArrayList<>();
+        for (float speed : speeds) {
+            for (float spacing : spacings) {
+                for (float gap : gaps) {
+                    for (float gravity : gravities) {
+                        for (float flap : flaps) {
+                            grid.add(new Rules(speed, spacing, gap, gravity, flap));
+                        }
+                    }
+                }
+            }
+        }
+        return grid.toArray(new Rules[0]);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        int games = 10_000;
+        int unitGames = 2_000;
+        long seed = 1;
+        int tickRate = GameWorld.DEFAULT_TICK_RATE;
+        int maxTicks = tickRate * 60 * 2;
+        int leaseSeconds = 60;
+        int localWorkers = 0;
+        String csv = null;
+        float[] speeds = {GameWorld.GAME_SPEED};
+        float[] spacings = {GameWorld.HORIZONTAL_PIPE_GAP};
+        float[] gaps = {GameWorld.VERTICAL_PIPE_GAP};
+        float[] gravities = {GameWorld.GRAVITY};
+        float[] flaps = {GameWorld.FLAP_FORCE};
+        String bots = "gap:20";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--unit":
+                    unitGames = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--max-seconds":
+                    maxTicks = tickRate * Integer.parseInt(args[++i]);
+                    break;
+                case "--lease-seconds":
+                    leaseSeconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--local-workers":
+                    localWorkers = Integer.parseInt(args[++i]);
+                    break;
+                case "--csv":
+                    csv = args[++i];
+                    break;
+                case "--speed":
+                    speeds = parseFloats(args[++i]);
+                    break;
+                case "--spacing":
+                    spacings = parseFloats(args[++i]);
+                    break;
+                case "--gap":
+                    gaps = parseFloats(args[++i]);
+                    break;
+                case "--gravity":
+                    gravities = parseFloats(args[++i]);
+                    break;
+                case "--flap":
+                    flaps = parseFloats(args[++i]);
+                    break;
+                case "--bots":
+                    bots = args[++i];
+                    break;
+                default:
+                    System.err.println("Usage: TournamentCoordinator [--port N] [--games N] [--unit N] [--seed N]"
+                            + " [--max-seconds N] [--lease-seconds N] [--local-workers N] [--csv FILE]"
+                            + " [--speed X,..] [--spacing X,..] [--gap X,..] [--gravity X,..] [--flap X,..]"
+                            + " [--bots gap:20,random:0.03,..]");
+                    System.exit(1);
+            }
+        }
+
+        String[] botSpecs = bots.split(",");
+        String[] botNames = new String[botSpecs.length];
+        float[] botParameters = new float[botSpecs.length];
+        for (int bot = 0; bot < botSpecs.length; bot++) {
+            String[] spec = botSpecs[bot].split(":");
+            botNames[bot] = spec[0];
+            botParameters[bot] = spec.length > 1 ? Float.parseFloat(spec[1]) : -1;
+            // Fails here rather than on every worker
+            BatchSimulator.policies(botNames[bot], botParameters[bot]);
+        }
+
+        Rules[] rules = grid(speeds, spacings, gaps, gravities, flaps);
+        TournamentCoordinator coordinator = new TournamentCoordinator(tickRate, maxTicks, seed, rules, botNames,
+                botParameters, games, unitGames, leaseSeconds * 1000);
+        coordinator.start(port);
+        System.out.printf(Locale.ROOT, "%d rules x %d bots x %d games in %d units, waiting for workers on port %d%n",
+                rules.length, botNames.length, games, coordinator.done.length, coordinator.getPort());
+
+        List<Process> workers = new ArrayList<>();
+        if (localWorkers > 0) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / localWorkers);
+            for (int worker = 0; worker < localWorkers; worker++) {
+                workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        TournamentWorker.class.getName(), "--port", String.valueOf(coordinator.getPort()),
+                        "--threads", String.valueOf(threads)).inheritIO().start());
+            }
+        }
+
+        long start = System.nanoTime();
+        coordinator.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        coordinator.stop();
+        for (Process worker : workers) {
+            worker.waitFor();
+        }
+
+        long played = (long) rules.length * botNames.length * games;
+        System.out.printf(Locale.ROOT, "%d games in %.2f s, %.0f games/s%n%n", played, seconds, played / seconds);
+        coordinator.report();
+        if (csv != null) {
+            coordinator.writeCsv(new File(csv));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.diegobloise.flappybird.world.Rules;
+
+/**
+ * Plays the units a {@link TournamentCoordinator} leases to it until there
+ * are none left. Each unit is spread over the cores of this machine with a
+ * {@link BatchSimulator}, so one worker process per host is enough.
+ */
+public class TournamentWorker {
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = TournamentCoordinator.DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: TournamentWorker [--host HOST] [--port N] [--threads N]");
+                    System.exit(1);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            output.writeInt(TournamentCoordinator.MAGIC);
+            output.writeInt(TournamentCoordinator.VERSION);
+            output.flush();
+
+            int tickRate = input.readInt();
+            int maxTicks = input.readInt();
+            long baseSeed = input.readLong();
+            Rules[] rules = new Rules[input.readInt()];
+            for (int i = 0; i < rules.length; i++) {
+                rules[i] = new Rules(input.readFloat(), input.readFloat(), input.readFloat(), input.readFloat(),
+                        input.readFloat());
+            }
+            BatchSimulator.PolicyFactory[] bots = new BatchSimulator.PolicyFactory[input.readInt()];
+            for (int i = 0; i < bots.length; i++) {
+                bots[i] = BatchSimulator.policies(input.readUTF(), input.readFloat());
+            }
+
+            int units = 0;
+            long games = 0;
+            int unit;
+            while ((unit = input.readInt()) != TournamentCoordinator.NO_MORE_UNITS) {
+                Rules unitRules = rules[input.readInt()];
+                BatchSimulator.PolicyFactory bot = bots[input.readInt()];
+                int firstGame = input.readInt();
+                int count = input.readInt();
+
+                BatchSimulator.Result result = new BatchSimulator(tickRate, maxTicks, unitRules, bot)
+                        .run(baseSeed, firstGame, count, pool);
+                output.writeInt(unit);
+                output.writeInt(count);
+                for (int score : result.scores) {
+                    output.writeInt(score);
+                }
+                for (int ticks : result.ticks) {
+                    output.writeInt(ticks);
+                }
+                output.flush();
+                units++;
+                games += count;
+            }
+            System.out.println("Worker done after " + units + " units, " + games + " games");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
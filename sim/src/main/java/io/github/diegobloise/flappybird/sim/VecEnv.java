@@ -0,0 +1,185 @@
+package io.github.diegobloise.flappybird.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.github.diegobloise.flappybird.bot.NeuralPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Many games stepped in lockstep for reinforcement learning, the vectorized
+ * environment of gym. Every environment is a {@link GameWorld}, the rules of
+ * the shipped game, and the results of a step land in flat arrays indexed by
+ * environment, ready to be copied out in one go.
+ *
+ * An environment whose episode ends starts the next one right away, so the
+ * observation returned with a done flag is already the first one of the new
+ * episode. Every episode starts with the flap that starts the game, as every
+ * bot does, and observations are what {@link NeuralPolicy} sees.
+ *
+ * Rewards follow the fitness of the trainer: 1 per second survived, 1 per
+ * pipe passed and -1 for dying.
+ */
+public class VecEnv {
+
+    public static final int OBSERVATION_SIZE = NeuralPolicy.INPUTS;
+
+    public static final float REWARD_SECOND = 1;
+    public static final float REWARD_SCORE = 1;
+    public static final float REWARD_DEATH = -1;
+
+    // Values of getDones()
+    public static final byte RUNNING = 0;
+    public static final byte TERMINATED = 1;
+    public static final byte TRUNCATED = 2;
+
+    // Environments per leaf task, a step of each is only tens of nanoseconds
+    private static final int GRAIN = 256;
+
+    private final GameWorld[] worlds;
+    private final int[] episodes;
+    private final int maxTicks;
+    private final float tickReward;
+    private long seed;
+
+    private final float[] observations;
+    private final float[] rewards;
+    private final int[] scores;
+    private final byte[] dones;
+
+    public VecEnv(int envs, int tickRate, int maxTicks) {
+        this.maxTicks = maxTicks;
+        this.tickReward = REWARD_SECOND / tickRate;
+        worlds = new GameWorld[envs];
+        for (int i = 0; i < envs; i++) {
+            worlds[i] = new GameWorld(tickRate, 0);
+        }
+        episodes = new int[envs];
+        observations = new float[envs * OBSERVATION_SIZE];
+        rewards = new float[envs];
+        scores = new int[envs];
+        dones = new byte[envs];
+    }
+
+    /**
+     * Starts a first episode in every environment. The course of each
+     * episode only depends on the seed, the environment and how many
+     * episodes it played before.
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        for (int i = 0; i < worlds.length; i++) {
+            episodes[i] = 0;
+            start(i);
+            rewards[i] = 0;
+            scores[i] = 0;
+            dones[i] = RUNNING;
+            NeuralPolicy.observe(worlds[i], observations, i * OBSERVATION_SIZE);
+        }
+    }
+
+    /**
+     * Advances every environment by one tick.
+     *
+     * @param actions non-zero to flap, one per environment
+     * @param pool    spreads the environments over its threads, or null to
+     *                step them all on the calling thread
+     */
+    public void step(byte[] actions, ForkJoinPool pool) {
+        if (pool == null || worlds.length <= GRAIN) {
+            step(actions, 0, worlds.length);
+        } else {
+            pool.invoke(new Step(actions, 0, worlds.length));
+        }
+    }
+
+    private void step(byte[] actions, int from, int to) {
+        for (int i = from; i < to; i++) {
+            GameWorld world = worlds[i];
+            world.step(actions[i] != 0);
+
+            float reward = tickReward;
+            if ((world.getEvents() & GameWorld.EVENT_SCORE) != 0) {
+                reward += REWARD_SCORE;
+            }
+            byte done = RUNNING;
+            if (world.isGameOver()) {
+                reward += REWARD_DEATH;
+                done = TERMINATED;
+            } else if (world.getTick() >= maxTicks) {
+                done = TRUNCATED;
+            }
+            rewards[i] = reward;
+            scores[i] = world.getScore();
+            dones[i] = done;
+
+            if (done != RUNNING) {
+                start(i);
+            }
+            NeuralPolicy.observe(world, observations, i * OBSERVATION_SIZE);
+        }
+    }
+
+    private void start(int env) {
+        worlds[env].reset(BatchSimulator.seedOf(BatchSimulator.seedOf(seed, env), episodes[env]++));
+        worlds[env].step(true);
+    }
+
+    @SuppressWarnings("serial")
+    private class Step extends RecursiveAction {
+
+        private final byte[] actions;
+        private final int from;
+        private final int to;
+
+        Step(byte[] actions, int from, int to) {
+            this.actions = actions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                step(actions, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Step(actions, from, middle), new Step(actions, middle, to));
+            }
+        }
+    }
+
+    public int getEnvCount() {
+        return worlds.length;
+    }
+
+    public int getMaxTicks() {
+        return maxTicks;
+    }
+
+    /**
+     * {@link #OBSERVATION_SIZE} values per environment, one after the other.
+     */
+    public float[] getObservations() {
+        return observations;
+    }
+
+    public float[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Score of the running episode, or of the one that just ended when its
+     * done flag is set.
+     */
+    public int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * {@link #RUNNING}, or how the last step ended the episode.
+     */
+    public byte[] getDones() {
+        return dones;
+    }
+}
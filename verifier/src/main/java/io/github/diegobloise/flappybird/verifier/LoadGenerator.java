@@ -0,0 +1,270 @@
+package io.github.diegobloise.flappybird.verifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.diegobloise.flappybird.profiling.Histogram;
+import io.github.diegobloise.flappybird.replay.Replay;
+import io.github.diegobloise.flappybird.replay.ReplayRecorder;
+import io.github.diegobloise.flappybird.sim.BatchSimulator;
+import io.github.diegobloise.flappybird.sim.GapFollowerPolicy;
+import io.github.diegobloise.flappybird.world.FlapPolicy;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Hammers a {@link VerifierServer} with replays from several client threads
+ * and reports the throughput, the latency percentiles and whether every
+ * verdict was right.
+ *
+ * The replays are recorded up front by the gap follower bot, and a share of
+ * them is tampered with to claim one point more than they scored, so the
+ * run also checks those are caught. Without {@code --url} a server is
+ * started in this JVM. Clients retry a 503 after a millisecond instead of
+ * the advertised second, to keep the server saturated.
+ */
+public class LoadGenerator {
+
+    private static final long MAX_NANOS = 60_000_000_000L;
+    private static final long NANOS_PER_MICRO = 1_000;
+
+    private final URL url;
+    private final byte[][] replays;
+    private final boolean[] tampered;
+    private final Histogram latency = new Histogram(MAX_NANOS);
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong overloaded = new AtomicLong();
+    private final AtomicLong wrong = new AtomicLong();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    LoadGenerator(URL url, byte[][] replays, boolean[] tampered) {
+        this.url = url;
+        this.replays = replays;
+        this.tampered = tampered;
+    }
+
+    /**
+     * Records the runs of the gap follower bot, each on its own seed.
+     */
+    static byte[][] record(int count, long seed, int maxSeconds, float tamperedShare, boolean[] tampered) {
+        byte[][] replays = new byte[count][];
+        GameWorld world = new GameWorld(GameWorld.DEFAULT_TICK_RATE, 0);
+        ReplayRecorder recorder = new ReplayRecorder();
+        int maxTicks = world.getTickRate() * maxSeconds;
+        for (int i = 0; i < count; i++) {
+            long gameSeed = BatchSimulator.seedOf(seed, i);
+            world.reset(gameSeed);
+            FlapPolicy policy = new GapFollowerPolicy(~gameSeed, 20);
+            recorder.begin(world);
+            // A replay ends at the crash, past maxTicks the bot lets the bird fall
+            while (!world.isGameOver()) {
+                boolean flap = world.getTick() < maxTicks && policy.shouldFlap(world);
+                recorder.record(world, flap);
+                world.step(flap);
+            }
+            Replay replay = recorder.finish(world);
+
+            tampered[i] = i < count * tamperedShare;
+            if (tampered[i]) {
+                int[] flaps = new int[replay.getFlapCount()];
+                for (int flap = 0; flap < flaps.length; flap++) {
+                    flaps[flap] = replay.getFlapTick(flap);
+                }
+                replay = new Replay(replay.getSeed(), replay.getTickRate(), flaps, replay.getEndTick(),
+                        replay.getScore() + 1);
+            }
+            replays[i] = replay.toBytes();
+        }
+        return replays;
+    }
+
+    private void client(int first, int step) {
+        int next = first;
+        ByteArrayOutputStream response = new ByteArrayOutputStream(256);
+        byte[] buffer = new byte[512];
+        while (running) {
+            int index = next;
+            next = (next + step) % replays.length;
+            try {
+                long start = System.nanoTime();
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/octet-stream");
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(replays[index]);
+                }
+                int status = connection.getResponseCode();
+                // Read to the end either way, so the connection is kept alive
+                response.reset();
+                try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    int read;
+                    while ((read = input.read(buffer)) > 0) {
+                        response.write(buffer, 0, read);
+                    }
+                }
+                long nanos = System.nanoTime() - start;
+                if (!measuring) {
+                    continue;
+                }
+
+                if (status == 503) {
+                    overloaded.incrementAndGet();
+                    Thread.sleep(1);
+                    continue;
+                }
+                accepted.incrementAndGet();
+                synchronized (latency) {
+                    latency.record(nanos);
+                }
+                boolean verified = new String(response.toByteArray(), StandardCharsets.UTF_8)
+                        .contains("\"verified\":true");
+                if (status != 200 || verified == tampered[index]) {
+                    wrong.incrementAndGet();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Request failed: " + e);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static String get(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try (InputStream input = connection.getInputStream()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[512];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                body.write(buffer, 0, read);
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String base = null;
+        int clients = 2 * Runtime.getRuntime().availableProcessors();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = 256;
+        int count = 1000;
+        int seconds = 10;
+        int warmup = 3;
+        int maxSeconds = 60;
+        float tamperedShare = 0.1f;
+        long seed = 1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    base = args[++i];
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--queue":
+                    queue = Integer.parseInt(args[++i]);
+                    break;
+                case "--replays":
+                    count = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-seconds":
+                    maxSeconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--tampered":
+                    tamperedShare = Float.parseFloat(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: LoadGenerator [--url http://host:port] [--clients N] [--threads N]"
+                            + " [--queue N] [--replays N] [--seconds N] [--warmup N] [--max-seconds N]"
+                            + " [--tampered X] [--seed N]");
+                    System.exit(1);
+            }
+        }
+
+        boolean[] tampered = new boolean[count];
+        byte[][] replays = record(count, seed, maxSeconds, tamperedShare, tampered);
+        long ticks = 0;
+        for (byte[] replay : replays) {
+            ticks += Replay.fromBytes(replay).getEndTick();
+        }
+        System.out.printf(Locale.ROOT, "%d replays recorded, %.1f s of play each on average%n", count,
+                (double) ticks / count / GameWorld.DEFAULT_TICK_RATE);
+
+        VerifierServer server = null;
+        if (base == null) {
+            server = new VerifierServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), threads, queue);
+            server.start();
+            base = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+            System.out.println("Started a server with " + threads + " workers at " + base);
+        }
+
+        final LoadGenerator load = new LoadGenerator(new URL(base + "/verify"), replays, tampered);
+        Thread[] threadsOfClients = new Thread[clients];
+        for (int i = 0; i < clients; i++) {
+            final int first = i;
+            final int step = clients;
+            threadsOfClients[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    load.client(first, step);
+                }
+            }, "Client-" + i);
+            threadsOfClients[i].start();
+        }
+
+        Thread.sleep(warmup * 1000L);
+        if (server != null) {
+            server.resetLatency();
+        }
+        load.measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        load.measuring = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        load.running = false;
+        for (Thread thread : threadsOfClients) {
+            thread.join();
+        }
+
+        double perSecond = load.accepted.get() / elapsed;
+        System.out.printf(Locale.ROOT, "%d clients for %.1f s: %d verified, %.0f replays/s (%.0f per worker),"
+                + " %d turned away with 503%n", clients, elapsed, load.accepted.get(), perSecond, perSecond / threads,
+                load.overloaded.get());
+        System.out.printf(Locale.ROOT, "client latency us: p50 %d  p99 %d  max %d%n",
+                load.latency.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                load.latency.getValueAtPercentile(99) / NANOS_PER_MICRO, load.latency.getMax() / NANOS_PER_MICRO);
+        System.out.println("server: " + get(new URL(base + "/stats")));
+        if (load.wrong.get() > 0) {
+            System.err.println(load.wrong.get() + " wrong verdicts");
+        }
+        if (server != null) {
+            server.stop();
+        }
+        System.exit(load.wrong.get() == 0 ? 0 : 1);
+    }
+}
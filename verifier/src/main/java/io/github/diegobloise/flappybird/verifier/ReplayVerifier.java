@@ -0,0 +1,83 @@
+package io.github.diegobloise.flappybird.verifier;
+
+import java.io.IOException;
+
+import io.github.diegobloise.flappybird.replay.Replay;
+import io.github.diegobloise.flappybird.replay.ReplayPlayer;
+import io.github.diegobloise.flappybird.world.GameWorld;
+
+/**
+ * Decides what a submitted replay really scored by playing it back on the
+ * {@link GameWorld} rules, the same ones the game runs. The score the replay
+ * claims is only trusted if the playback reaches it.
+ *
+ * Each thread keeps one world and resets it for every replay, so a
+ * verification allocates nothing but the parsed replay.
+ */
+public class ReplayVerifier {
+
+    // Fastest and slowest tick rates a replay may claim, the game runs at 120
+    public static final int MIN_TICK_RATE = 30;
+    public static final int MAX_TICK_RATE = 1000;
+
+    private final int maxSeconds;
+
+    private final ThreadLocal<GameWorld> worlds = new ThreadLocal<GameWorld>() {
+        @Override
+        protected GameWorld initialValue() {
+            return new GameWorld();
+        }
+    };
+
+    /**
+     * @param maxSeconds longest run accepted, so one replay can't hold a
+     *                   thread for long
+     */
+    public ReplayVerifier(int maxSeconds) {
+        this.maxSeconds = maxSeconds;
+    }
+
+    /**
+     * Outcome of one verification.
+     */
+    public static class Verification {
+
+        public final boolean verified;
+        // What the playback scored, whatever the replay claimed
+        public final int score;
+        public final int claimedScore;
+        public final int ticks;
+
+        Verification(boolean verified, int score, int claimedScore, int ticks) {
+            this.verified = verified;
+            this.score = score;
+            this.claimedScore = claimedScore;
+            this.ticks = ticks;
+        }
+    }
+
+    /**
+     * @throws IOException if the bytes are not a replay this version of the
+     *                     rules can play
+     */
+    public Verification verify(byte[] bytes) throws IOException {
+        Replay replay = Replay.fromBytes(bytes);
+        if (replay.getTickRate() < MIN_TICK_RATE || replay.getTickRate() > MAX_TICK_RATE) {
+            throw new IOException("Unsupported tick rate " + replay.getTickRate());
+        }
+        if (replay.getEndTick() <= 0) {
+            throw new IOException("A run ends after its first tick, not at " + replay.getEndTick());
+        }
+        if (replay.getEndTick() > (long) maxSeconds * replay.getTickRate()) {
+            throw new IOException("Runs longer than " + maxSeconds + " s are not accepted");
+        }
+
+        GameWorld world = worlds.get();
+        if (world.getTickRate() != replay.getTickRate()) {
+            world = new GameWorld(replay.getTickRate(), 0);
+            worlds.set(world);
+        }
+        boolean verified = ReplayPlayer.verify(replay, world);
+        return new Verification(verified, world.getScore(), replay.getScore(), world.getTick());
+    }
+}
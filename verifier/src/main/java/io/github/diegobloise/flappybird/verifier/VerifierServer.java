@@ -0,0 +1,269 @@
+package io.github.diegobloise.flappybird.verifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.diegobloise.flappybird.profiling.Histogram;
+
+/**
+ * Local HTTP endpoint of the {@link ReplayVerifier}.
+ *
+ * <pre>
+ * POST /verify   body: a replay file, answers {"verified":..,"score":..,"claimed":..,"ticks":..}
+ * GET  /stats    counts, latency percentiles and throughput since start
+ * </pre>
+ *
+ * Replays are played on a fixed pool of workers behind a bounded queue.
+ * Once the queue is full new submissions are turned away at once with 503
+ * and a Retry-After header instead of piling up, so under overload the
+ * latency of the accepted ones stays bounded and clients back off.
+ * Malformed replays get 400, bodies over {@link #MAX_BODY} bytes 413.
+ * The latency percentiles count every submission answered, the turned away
+ * ones too.
+ *
+ * Requests are read by a few threads of their own, and a connection that
+ * takes longer than {@link #MAX_REQUEST_SECONDS} to send its request is
+ * dropped, so slow clients can't hold up the others.
+ */
+public class VerifierServer {
+
+    public static final int DEFAULT_PORT = 8777;
+
+    // A replay of an hour is a few kilobytes
+    public static final int MAX_BODY = 64 * 1024;
+    public static final int MAX_SECONDS = 60 * 60;
+    public static final int MAX_REQUEST_SECONDS = 10;
+
+    // Threads reading requests and answering 400, 413 and 503, the replays are played elsewhere
+    private static final int IO_THREADS = 4;
+
+    private static final long MAX_NANOS = 60_000_000_000L;
+    private static final long NANOS_PER_MICRO = 1_000;
+
+    static {
+        // The server writes the headers and the body of a response apart, with
+        // Nagle's algorithm on the body then waits out the client's delayed ack
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        if (System.getProperty("sun.net.httpserver.maxReqTime") == null) {
+            System.setProperty("sun.net.httpserver.maxReqTime", Integer.toString(MAX_REQUEST_SECONDS));
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService readers;
+    private final ThreadPoolExecutor workers;
+    private final ReplayVerifier verifier = new ReplayVerifier(MAX_SECONDS);
+
+    // Submission to response, queueing included
+    private final Histogram latency = new Histogram(MAX_NANOS);
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong mismatched = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+    private final AtomicLong overloaded = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param threads workers playing replays, one per core is all the CPU can give
+     * @param queue   submissions that may wait for a worker before 503 is answered
+     */
+    public VerifierServer(InetSocketAddress address, int threads, int queue) throws IOException {
+        readers = Executors.newFixedThreadPool(IO_THREADS, daemonThreads("Verifier-io-"));
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queue), daemonThreads("Verifier-"));
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(readers);
+        // Requests are read by the readers, only the playback goes to the workers
+        server.createContext("/verify", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                submit(exchange);
+            }
+        });
+        server.createContext("/stats", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 200, stats());
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        readers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void submit(final HttpExchange exchange) throws IOException {
+        final long start = System.nanoTime();
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"error\":\"POST a replay\"}");
+            return;
+        }
+        final byte[] body = readBody(exchange.getRequestBody());
+        if (body == null) {
+            malformed.incrementAndGet();
+            respond(exchange, 413, "{\"error\":\"replay too large\"}");
+            record(System.nanoTime() - start);
+            return;
+        }
+
+        try {
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    verify(exchange, body, start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            overloaded.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, "{\"error\":\"busy\"}");
+            record(System.nanoTime() - start);
+        }
+    }
+
+    private void verify(HttpExchange exchange, byte[] body, long start) {
+        try {
+            ReplayVerifier.Verification result;
+            try {
+                result = verifier.verify(body);
+            } catch (IOException e) {
+                malformed.incrementAndGet();
+                respond(exchange, 400, "{\"error\":\"not a playable replay\"}");
+                record(System.nanoTime() - start);
+                return;
+            }
+            (result.verified ? verified : mismatched).incrementAndGet();
+            respond(exchange, 200, String.format(Locale.ROOT,
+                    "{\"verified\":%b,\"score\":%d,\"claimed\":%d,\"ticks\":%d}",
+                    result.verified, result.score, result.claimedScore, result.ticks));
+            record(System.nanoTime() - start);
+        } catch (IOException e) {
+            // The client went away, nothing left to answer
+            exchange.close();
+        }
+    }
+
+    private synchronized void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    private synchronized String stats() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long played = verified.get() + mismatched.get();
+        return String.format(Locale.ROOT,
+                "{\"verified\":%d,\"mismatched\":%d,\"malformed\":%d,\"overloaded\":%d,"
+                        + "\"p50_us\":%d,\"p99_us\":%d,\"max_us\":%d,\"per_second\":%.1f}",
+                verified.get(), mismatched.get(), malformed.get(), overloaded.get(),
+                latency.getValueAtPercentile(50) / NANOS_PER_MICRO, latency.getValueAtPercentile(99) / NANOS_PER_MICRO,
+                latency.getMax() / NANOS_PER_MICRO, played / seconds);
+    }
+
+    /**
+     * Clears the latency percentiles, so a measurement doesn't include the
+     * warm-up before it.
+     */
+    public synchronized void resetLatency() {
+        latency.reset();
+    }
+
+    // Daemon threads numbered after a prefix
+    private static ThreadFactory daemonThreads(final String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    // Null once the body grows past MAX_BODY
+    private static byte[] readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        byte[] buffer = new byte[4096];
+        int read;
+        try {
+            while ((read = input.read(buffer)) > 0) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY) {
+                    return null;
+                }
+            }
+        } finally {
+            input.close();
+        }
+        return body.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = 256;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--queue":
+                    queue = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: VerifierServer [--port N] [--threads N] [--queue N]");
+                    System.exit(1);
+            }
+        }
+
+        VerifierServer server = new VerifierServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, queue);
+        server.start();
+        System.out.println("Verifying replays on http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + "/verify with " + threads + " workers");
+    }
+}